@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.4.3"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.lexicubes"
@@ -18,7 +19,9 @@ repositories {
 }
 
 dependencies {
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.boot:spring-boot-starter-cache")
+    implementation("com.github.ben-manes.caffeine:caffeine")
     implementation("org.springframework.boot:spring-boot-starter-data-jdbc")
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-oauth2-client")
@@ -29,6 +32,7 @@ dependencies {
     implementation("org.jetbrains:annotations:26.0.2")
     developmentOnly("org.springframework.boot:spring-boot-docker-compose")
     runtimeOnly("com.mysql:mysql-connector-j")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.boot:spring-boot-testcontainers")
     testImplementation("org.testcontainers:junit-jupiter")
@@ -36,6 +40,29 @@ dependencies {
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
+val compileDictionary by tasks.registering(JavaExec::class) {
+    description = "Compiles the word list into the minimized DAWG that the puzzle solver maps at startup."
+    group = "build"
+
+    val wordList = layout.projectDirectory.file("src/main/resources/wordlists/common.txt")
+    val compiledDictionary = layout.buildDirectory.file("generated/dictionary/wordlists/common.dawg")
+
+    inputs.file(wordList)
+    outputs.file(compiledDictionary)
+
+    classpath = sourceSets.main.get().output.classesDirs
+    mainClass = "com.lexicubes.backend.puzzle.WordTrieCompiler"
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(wordList.asFile.absolutePath, compiledDictionary.get().asFile.absolutePath)
+    })
+}
+
+sourceSets {
+    main {
+        output.dir(mapOf("builtBy" to compileDictionary), layout.buildDirectory.dir("generated/dictionary"))
+    }
+}
+
 tasks.withType<JavaCompile>() {
     options.compilerArgs.add("-parameters")
 }
@@ -43,3 +70,13 @@ tasks.withType<JavaCompile>() {
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+// Benchmarks live in src/jmh/java and are run with "./gradlew jmh". Results, including the
+// allocation rate from the gc profiler, are written to build/results/jmh/results.json and can
+// be compared against jmh-baseline.json
+jmh {
+    jmhVersion = "1.37"
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+}
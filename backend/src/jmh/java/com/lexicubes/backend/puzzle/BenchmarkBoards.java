@@ -0,0 +1,56 @@
+package com.lexicubes.backend.puzzle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The boards that benchmarks are run on, written as a shape and its dimensions, e.g.
+ * {@code tower-3x3x6}. Every board is generated from the same seed, so every run measures the
+ * same boards.
+ * <p>
+ * {@code adversarial-n} is a pyramid of size {@code n} whose faces only use the letters of
+ * "aerst", which form many overlapping words that block each other.
+ */
+final class BenchmarkBoards {
+
+    static final long SEED = 0;
+
+    private static final String ADVERSARIAL_LETTERS = "aerst";
+
+    private BenchmarkBoards() {}
+
+    static List<Puzzle.Cube> generate(String board) {
+        final String[] nameAndDimensions = board.split("-");
+        final int[] dimensions = Arrays.stream(nameAndDimensions[1].split("x"))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        return switch (nameAndDimensions[0]) {
+            case "pyramid" -> PuzzleGenerator.generatePuzzleCubes(PuzzleShape.pyramid(dimensions[0]), SEED);
+            case "stairs" -> PuzzleGenerator.generatePuzzleCubes(PuzzleShape.stairs(dimensions[0], dimensions[1]), SEED);
+            case "wall" -> PuzzleGenerator.generatePuzzleCubes(PuzzleShape.wall(dimensions[0], dimensions[1]), SEED);
+            case "tower" -> PuzzleGenerator.generatePuzzleCubes(
+                    PuzzleShape.tower(dimensions[0], dimensions[1], dimensions[2]), SEED);
+            case "random" -> PuzzleGenerator.generatePuzzleCubes(PuzzleShape.randomConnected(dimensions[0]), SEED);
+            case "adversarial" -> generateAdversarial(dimensions[0]);
+            default -> throw new IllegalArgumentException("Unknown board: " + board);
+        };
+    }
+
+    private static List<Puzzle.Cube> generateAdversarial(int size) {
+        final SplittableRandom random = new SplittableRandom(SEED);
+        final List<PuzzleShape.Position> positions = PuzzleShape.pyramid(size).getPositions(random);
+        final List<Puzzle.Cube> cubes = new ArrayList<>(positions.size());
+
+        for (final PuzzleShape.Position position : positions) {
+            cubes.add(new Puzzle.Cube(cubes.size(), position.x(), position.y(), position.z(),
+                    ADVERSARIAL_LETTERS.charAt(random.nextInt(ADVERSARIAL_LETTERS.length())),
+                    ADVERSARIAL_LETTERS.charAt(random.nextInt(ADVERSARIAL_LETTERS.length())),
+                    ADVERSARIAL_LETTERS.charAt(random.nextInt(ADVERSARIAL_LETTERS.length()))));
+        }
+
+        return cubes;
+    }
+}
@@ -0,0 +1,70 @@
+package com.lexicubes.backend.puzzle;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures classifying the words of a solved puzzle as required or bonus words, both from
+ * scratch (as {@link PuzzleSolver} does after finding the words) and with a cube removed from
+ * a prebuilt {@link PuzzleStateGraph} (as a puzzle state request does).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BonusWordClassifierBenchmark {
+
+    @Param({"pyramid-3", "adversarial-3", "random-100"})
+    private String board;
+
+    private Puzzle puzzle;
+
+    private List<List<int[]>> pathsForWords;
+
+    private PuzzleStateGraph stateGraph;
+
+    private Set<Integer> removedCubeIds;
+
+    @Setup
+    public void setUp() {
+        puzzle = Puzzle.of(BenchmarkBoards.generate(board));
+        final List<PuzzleSolver.PuzzleSolution> solutions = new PuzzleSolver().solve(puzzle);
+
+        pathsForWords = new ArrayList<>(solutions.size());
+        for (final PuzzleSolver.PuzzleSolution solution : solutions) {
+            final List<int[]> paths = new ArrayList<>(solution.paths().size());
+            for (final List<Puzzle.Cube.Face> path : solution.paths()) {
+                paths.add(path.stream().mapToInt(puzzle::getFaceIndex).toArray());
+            }
+            pathsForWords.add(paths);
+        }
+
+        stateGraph = new PuzzleStateGraph(puzzle, solutions);
+
+        // The frontmost cube, which the player can always remove first
+        removedCubeIds = Set.of(puzzle.getCubes().stream()
+                .max((a, b) -> Integer.compare(a.getX() + a.getY() + a.getZ(), b.getX() + b.getY() + b.getZ()))
+                .orElseThrow()
+                .getId());
+    }
+
+    @Benchmark
+    public boolean[] classify() {
+        return BonusWordClassifier.findAlwaysPossibleWords(
+                pathsForWords,
+                puzzle.getCubes().size(),
+                puzzle.getFaceBlockingCubeOffsets(),
+                puzzle.getFaceBlockingCubes());
+    }
+
+    @Benchmark
+    public List<PuzzleSolver.PuzzleSolution> reclassifyAfterRemovingCube() {
+        return stateGraph.getSolutionsAfterRemovingCubes(removedCubeIds);
+    }
+}
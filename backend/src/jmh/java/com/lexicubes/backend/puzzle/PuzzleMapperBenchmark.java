@@ -0,0 +1,57 @@
+package com.lexicubes.backend.puzzle;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the steps of building a puzzle response that {@link PuzzleResponseService} caches:
+ * mapping the puzzle and its solutions, serializing the response, and compressing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PuzzleMapperBenchmark {
+
+    @Param({"pyramid-3", "pyramid-4"})
+    private String board;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private Puzzle puzzle;
+
+    private List<PuzzleSolver.PuzzleSolution> solutions;
+
+    private PuzzleResponse puzzleResponse;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        puzzle = Puzzle.of(BenchmarkBoards.generate(board));
+        solutions = new PuzzleSolver().solve(puzzle);
+        puzzleResponse = PuzzleMapper.toPuzzleResponse(puzzle, solutions);
+        json = objectMapper.writeValueAsBytes(puzzleResponse);
+    }
+
+    @Benchmark
+    public PuzzleResponse toPuzzleResponse() {
+        return PuzzleMapper.toPuzzleResponse(puzzle, solutions);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(puzzleResponse);
+    }
+
+    @Benchmark
+    public SerializedPuzzleResponse compress() {
+        return SerializedPuzzleResponse.of(json);
+    }
+}
@@ -0,0 +1,61 @@
+package com.lexicubes.backend.puzzle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how constructing and solving a puzzle scales with the number of cubes, across the
+ * shapes of {@link PuzzleShape} (see {@link BenchmarkBoards}).
+ * <p>
+ * Run with {@code -prof gc} to see the memory allocated per solve. The size of each board and
+ * of its solutions is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PuzzleSolverScalingBenchmark {
+
+    @Param({"pyramid-2", "pyramid-3", "adversarial-3", "pyramid-4", "wall-12x8", "random-50", "random-100",
+            "stairs-6x4", "random-200"})
+    private String board;
+
+    private final PuzzleSolver puzzleSolver = new PuzzleSolver(false,
+            0,
+            new SolveBudget(Long.MAX_VALUE, Integer.MAX_VALUE, Duration.ofDays(1)),
+            new SimpleMeterRegistry());
+
+    private List<Puzzle.Cube> cubes;
+
+    private Puzzle puzzle;
+
+    @Setup
+    public void setUp() {
+        cubes = BenchmarkBoards.generate(board);
+        puzzle = Puzzle.of(cubes);
+
+        final List<PuzzleSolver.PuzzleSolution> solutions = puzzleSolver.solve(puzzle);
+        System.out.printf("%n%s: %d cubes, %d words, %d paths, ~%d KB of solutions%n",
+                board,
+                cubes.size(),
+                solutions.size(),
+                solutions.stream().mapToInt(solution -> solution.paths().size()).sum(),
+                PuzzleSolutionsService.estimateSizeBytes(solutions) / 1024);
+    }
+
+    @Benchmark
+    public Puzzle construct() {
+        return Puzzle.of(cubes);
+    }
+
+    @Benchmark
+    public List<PuzzleSolver.PuzzleSolution> solve() {
+        return puzzleSolver.solve(puzzle);
+    }
+}
@@ -0,0 +1,91 @@
+package com.lexicubes.backend.puzzle;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures dictionary lookups, on a trie built on the heap and on the same trie memory-mapped
+ * from its compiled file (as the solver loads it when running from an exploded directory).
+ * Lookups cycle through a fixed sample of words, and of non-words that share a prefix with a
+ * word but are not in the dictionary.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordTrieBenchmark {
+
+    private static final String WORD_LIST_RESOURCE_NAME = "wordlists/common.txt";
+
+    private static final int SAMPLE_SIZE = 1024;
+
+    @Param({"heap", "mapped"})
+    private String storage;
+
+    private WordTrie wordTrie;
+
+    private final String[] words = new String[SAMPLE_SIZE];
+
+    private final String[] nonWords = new String[SAMPLE_SIZE];
+
+    private int index = 0;
+
+    @Setup
+    public void setUp() throws IOException {
+        final List<String> wordList = readWordList();
+        final WordTrie heapWordTrie = WordTrie.of(wordList);
+
+        if (storage.equals("mapped")) {
+            final Path compiledDictionary = Files.createTempFile("dictionary", ".dawg");
+            compiledDictionary.toFile().deleteOnExit();
+            heapWordTrie.write(compiledDictionary);
+            wordTrie = WordTrie.map(compiledDictionary);
+        } else {
+            wordTrie = heapWordTrie;
+        }
+
+        final SplittableRandom random = new SplittableRandom(BenchmarkBoards.SEED);
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            words[i] = wordList.get(random.nextInt(wordList.size()));
+
+            String nonWord;
+            do {
+                final String word = wordList.get(random.nextInt(wordList.size()));
+                nonWord = word.substring(0, word.length() - 1) + (char) ('a' + random.nextInt(26));
+            } while (heapWordTrie.contains(nonWord));
+            nonWords[i] = nonWord;
+        }
+    }
+
+    @Benchmark
+    public boolean containsWord() {
+        return wordTrie.contains(words[index++ & (SAMPLE_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public boolean containsNonWord() {
+        return wordTrie.contains(nonWords[index++ & (SAMPLE_SIZE - 1)]);
+    }
+
+    private static List<String> readWordList() throws IOException {
+        final InputStream inputStream = WordTrieBenchmark.class.getClassLoader().getResourceAsStream(WORD_LIST_RESOURCE_NAME);
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Objects.requireNonNull(inputStream), StandardCharsets.US_ASCII))) {
+            return new ArrayList<>(reader.lines().toList());
+        }
+    }
+}
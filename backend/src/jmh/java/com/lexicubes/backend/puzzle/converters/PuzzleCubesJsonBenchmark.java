@@ -0,0 +1,75 @@
+package com.lexicubes.backend.puzzle.converters;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lexicubes.backend.puzzle.Puzzle;
+import com.lexicubes.backend.puzzle.PuzzleCubesCodec;
+import com.lexicubes.backend.puzzle.PuzzleGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading and writing the stored form of a puzzle's cubes with the annotation-driven
+ * Jackson mapping, the streaming {@link PuzzleCubesJsonModule}, and the binary
+ * {@link PuzzleCubesCodec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PuzzleCubesJsonBenchmark {
+
+    @Param({"3", "6"})
+    private int pyramidSize;
+
+    private final ObjectMapper annotationMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final ObjectMapper streamingMapper = new ObjectMapper().registerModule(new PuzzleCubesJsonModule());
+
+    private Puzzle.Cubes cubes;
+
+    private String json;
+
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        cubes = new Puzzle.Cubes(PuzzleGenerator.generatePyramidPuzzleCubes(pyramidSize));
+        json = annotationMapper.writeValueAsString(cubes);
+        binary = PuzzleCubesCodec.encode(cubes);
+    }
+
+    @Benchmark
+    public Puzzle.Cubes readAnnotationMapping() throws JsonProcessingException {
+        return annotationMapper.readValue(json, new TypeReference<>() {});
+    }
+
+    @Benchmark
+    public Puzzle.Cubes readStreaming() throws JsonProcessingException {
+        return streamingMapper.readValue(json, Puzzle.Cubes.class);
+    }
+
+    @Benchmark
+    public Puzzle.Cubes readBinary() {
+        return PuzzleCubesCodec.decode(binary);
+    }
+
+    @Benchmark
+    public String writeAnnotationMapping() throws JsonProcessingException {
+        return annotationMapper.writeValueAsString(cubes);
+    }
+
+    @Benchmark
+    public String writeStreaming() throws JsonProcessingException {
+        return streamingMapper.writeValueAsString(cubes);
+    }
+
+    @Benchmark
+    public byte[] writeBinary() {
+        return PuzzleCubesCodec.encode(cubes);
+    }
+}
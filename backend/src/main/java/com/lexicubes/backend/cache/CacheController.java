@@ -0,0 +1,56 @@
+package com.lexicubes.backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+@RestController
+public class CacheController {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final CacheManager cacheManager;
+
+    public CacheController(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @GetMapping("/api/admin/caches")
+    public List<CacheStatisticsResponse> getCacheStatistics() {
+        final List<CacheStatisticsResponse> cacheStatistics = new ArrayList<>();
+        for (final String cacheName : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(cacheName) instanceof CaffeineCache caffeineCache) {
+                cacheStatistics.add(toCacheStatisticsResponse(cacheName, caffeineCache.getNativeCache()));
+            }
+        }
+        return cacheStatistics;
+    }
+
+    private static CacheStatisticsResponse toCacheStatisticsResponse(String cacheName, Cache<Object, Object> cache) {
+        final CacheStats stats = cache.stats();
+        final OptionalLong weightedSize = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize())
+                .orElse(OptionalLong.empty());
+
+        return new CacheStatisticsResponse(
+                cacheName,
+                cache.estimatedSize(),
+                weightedSize.isPresent() ? weightedSize.getAsLong() : null,
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                stats.evictionWeight(),
+                stats.loadSuccessCount(),
+                stats.loadFailureCount(),
+                stats.totalLoadTime() / NANOS_PER_MILLI,
+                stats.averageLoadPenalty() / NANOS_PER_MILLI);
+    }
+}
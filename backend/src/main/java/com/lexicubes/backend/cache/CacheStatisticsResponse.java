@@ -0,0 +1,16 @@
+package com.lexicubes.backend.cache;
+
+import org.jetbrains.annotations.Nullable;
+
+public record CacheStatisticsResponse(String name,
+                                      long size,
+                                      @Nullable Long weightedSize,
+                                      long hitCount,
+                                      long missCount,
+                                      double hitRate,
+                                      long evictionCount,
+                                      long evictionWeight,
+                                      long loadSuccessCount,
+                                      long loadFailureCount,
+                                      double totalLoadTimeMillis,
+                                      double averageLoadTimeMillis) {}
@@ -0,0 +1,45 @@
+package com.lexicubes.backend.common;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * A page of items in a list paginated by cursor rather than by page number. The next page is
+ * requested with {@link #getNextCursor()}, so each page costs the same to fetch however far into
+ * the list it is.
+ */
+public class CursorPageResponse<T> {
+
+    private final List<T> items;
+
+    private final long pageSize;
+
+    @Nullable
+    private final String nextCursor;
+
+    public CursorPageResponse(List<T> items, long pageSize, @Nullable String nextCursor) {
+        this.items = items;
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public long getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * {@return the cursor to request the next page with, or null if this is the last page}
+     */
+    public @Nullable String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isLastPage() {
+        return nextCursor == null;
+    }
+}
@@ -0,0 +1,128 @@
+package com.lexicubes.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.lexicubes.backend.leaderboard.RankedLeaderboard;
+import com.lexicubes.backend.puzzle.PuzzleSolutionsService;
+import com.lexicubes.backend.puzzle.PuzzleSolver;
+import com.lexicubes.backend.puzzle.PuzzleStateGraph;
+import com.lexicubes.backend.puzzle.SerializedPuzzleResponse;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configures a bounded in-process cache for each of the named caches used by the application.
+ * <p>
+ * The bounds and expiry of each cache are configured under {@code app.cache.<name>}, where the
+ * name is the kebab-case form of the cache name (e.g. {@code app.cache.puzzle-solutions}).
+ * Every cache must be bounded by either a maximum number of entries or, for the caches with a
+ * weigher, a maximum estimated size. Only the caches listed here are available, so a cache that
+ * is added without being configured fails fast rather than growing without bound.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final List<String> CACHE_NAMES = List.of(
+            "puzzle",
+            "dailyPuzzleByPublishedDate",
+            "puzzleSolutions",
+            "puzzleStateGraphs",
+            "puzzleResponses",
+            "leaderboards");
+
+    /**
+     * Estimates the size in bytes of the entries of the caches that can be bounded by
+     * {@code maximum-weight}.
+     */
+    private static final Map<String, Weigher<Object, Object>> WEIGHERS = Map.of(
+            "puzzleSolutions", (key, value) -> value instanceof List<?> solutions
+                    ? toWeight(PuzzleSolutionsService.estimateSizeBytes(castSolutions(solutions)))
+                    : 1,
+            "puzzleStateGraphs", (key, value) -> value instanceof PuzzleStateGraph stateGraph
+                    ? toWeight(stateGraph.estimateSizeBytes())
+                    : 1,
+            "puzzleResponses", (key, value) -> value instanceof SerializedPuzzleResponse response
+                    ? toWeight(response.estimateSizeBytes())
+                    : 1,
+            "leaderboards", (key, value) -> value instanceof RankedLeaderboard leaderboard
+                    ? toWeight(leaderboard.estimateSizeBytes())
+                    : 1);
+
+    /**
+     * The bounds and expiry of a cache.
+     *
+     * @param maximumSize       the maximum number of entries
+     * @param maximumWeight     the maximum estimated size of all entries (only for caches with a weigher)
+     * @param expireAfterWrite  how long after being cached an entry expires
+     * @param expireAfterAccess how long after last being read an entry expires
+     */
+    public record CacheSpec(@Nullable Long maximumSize,
+                            @Nullable DataSize maximumWeight,
+                            @Nullable Duration expireAfterWrite,
+                            @Nullable Duration expireAfterAccess) {}
+
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        final CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+        // Fixes the set of caches, so that unknown cache names are not created on demand
+        cacheManager.setCacheNames(List.of());
+
+        final Binder binder = Binder.get(environment);
+        for (final String cacheName : CACHE_NAMES) {
+            final String propertyName = "app.cache." + toKebabCase(cacheName);
+            final CacheSpec cacheSpec = binder.bind(propertyName, Bindable.of(CacheSpec.class))
+                    .orElseThrow(() -> new IllegalStateException("No bounds configured for cache " + propertyName));
+
+            cacheManager.registerCustomCache(cacheName, buildCache(cacheName, cacheSpec).build());
+        }
+
+        return cacheManager;
+    }
+
+    private static Caffeine<Object, Object> buildCache(String cacheName, CacheSpec cacheSpec) {
+        final Caffeine<Object, Object> caffeine = Caffeine.newBuilder().recordStats();
+
+        if (cacheSpec.maximumSize() != null) {
+            caffeine.maximumSize(cacheSpec.maximumSize());
+        } else if (cacheSpec.maximumWeight() != null && WEIGHERS.containsKey(cacheName)) {
+            caffeine.maximumWeight(cacheSpec.maximumWeight().toBytes()).weigher(WEIGHERS.get(cacheName));
+        } else {
+            throw new IllegalStateException("Cache " + cacheName + " must have a maximum size"
+                    + (WEIGHERS.containsKey(cacheName) ? " or maximum weight" : ""));
+        }
+
+        if (cacheSpec.expireAfterWrite() != null) {
+            caffeine.expireAfterWrite(cacheSpec.expireAfterWrite());
+        }
+        if (cacheSpec.expireAfterAccess() != null) {
+            caffeine.expireAfterAccess(cacheSpec.expireAfterAccess());
+        }
+
+        return caffeine;
+    }
+
+    private static String toKebabCase(String cacheName) {
+        return cacheName.replaceAll("([a-z0-9])([A-Z])", "$1-$2").toLowerCase();
+    }
+
+    private static int toWeight(long sizeBytes) {
+        return (int) Math.min(sizeBytes, Integer.MAX_VALUE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<PuzzleSolver.PuzzleSolution> castSolutions(List<?> solutions) {
+        return (List<PuzzleSolver.PuzzleSolution>) solutions;
+    }
+}
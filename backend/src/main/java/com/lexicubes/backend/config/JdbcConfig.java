@@ -1,7 +1,7 @@
 package com.lexicubes.backend.config;
 
-import com.lexicubes.backend.puzzle.converters.JsonToPuzzleCubesConverter;
-import com.lexicubes.backend.puzzle.converters.PuzzleCubesToJsonConverter;
+import com.lexicubes.backend.puzzle.converters.BinaryToPuzzleCubesConverter;
+import com.lexicubes.backend.puzzle.converters.PuzzleCubesToBinaryConverter;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jdbc.repository.config.AbstractJdbcConfiguration;
@@ -12,17 +12,17 @@ import java.util.List;
 @Configuration
 public class JdbcConfig extends AbstractJdbcConfiguration {
 
-    private final JsonToPuzzleCubesConverter jsonToPuzzleCubesConverter;
-    private final PuzzleCubesToJsonConverter puzzleCubesToJsonConverter;
+    private final BinaryToPuzzleCubesConverter binaryToPuzzleCubesConverter;
+    private final PuzzleCubesToBinaryConverter puzzleCubesToBinaryConverter;
 
-    public JdbcConfig(JsonToPuzzleCubesConverter jsonToPuzzleCubesConverter,
-                      PuzzleCubesToJsonConverter puzzleCubesToJsonConverter) {
-        this.jsonToPuzzleCubesConverter = jsonToPuzzleCubesConverter;
-        this.puzzleCubesToJsonConverter = puzzleCubesToJsonConverter;
+    public JdbcConfig(BinaryToPuzzleCubesConverter binaryToPuzzleCubesConverter,
+                      PuzzleCubesToBinaryConverter puzzleCubesToBinaryConverter) {
+        this.binaryToPuzzleCubesConverter = binaryToPuzzleCubesConverter;
+        this.puzzleCubesToBinaryConverter = puzzleCubesToBinaryConverter;
     }
 
     @Override
     protected @NotNull List<?> userConverters() {
-        return Arrays.asList(jsonToPuzzleCubesConverter, puzzleCubesToJsonConverter);
+        return Arrays.asList(binaryToPuzzleCubesConverter, puzzleCubesToBinaryConverter);
     }
 }
@@ -45,6 +45,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorizeRequests -> authorizeRequests
                         .requestMatchers("/api/user").authenticated()
                         .requestMatchers("/api/puzzles/*/score").authenticated()
+                        .requestMatchers("/api/puzzles/*/leaderboard/me").authenticated()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().permitAll()
                 )
@@ -0,0 +1,7 @@
+package com.lexicubes.backend.leaderboard;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Invalid leaderboard cursor")
+public class InvalidLeaderboardCursorException extends RuntimeException {}
@@ -1,6 +1,8 @@
 package com.lexicubes.backend.leaderboard;
 
-import com.lexicubes.backend.common.PageResponse;
+import com.lexicubes.backend.common.CursorPageResponse;
+import com.lexicubes.backend.user.AuthenticatedUserDetails;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -11,6 +13,8 @@ import java.util.Optional;
 @RestController
 public class LeaderboardController {
 
+    private static final int MAX_NEIGHBOURS = 25;
+
     private final LeaderboardService leaderboardService;
 
     public LeaderboardController(LeaderboardService leaderboardService) {
@@ -18,16 +22,43 @@ public class LeaderboardController {
     }
 
     @GetMapping("/api/puzzles/{puzzleId}/leaderboard")
-    public PageResponse<LeaderboardEntry> getLeaderboardEntriesForPuzzle(
+    public CursorPageResponse<LeaderboardEntry> getLeaderboardEntriesForPuzzle(
             @PathVariable Long puzzleId,
-            @RequestParam(name = "page", required = false, defaultValue = "0") Integer pageNumber,
+            @RequestParam(name = "after", required = false) Optional<String> after,
             @RequestParam(name = "size", required = false, defaultValue = "50") Integer pageSize,
             @RequestParam(name = "sort", required = false) Optional<LeaderboardPageRequest.SortOption> sort) {
 
+        final LeaderboardPageRequest.SortOption sortOption = sort.orElse(LeaderboardPageRequest.SortOption.NUM_POINTS);
+
+        final LeaderboardCursor cursor;
+        try {
+            cursor = after.map(LeaderboardCursor::decode).orElse(null);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidLeaderboardCursorException();
+        }
+
+        if (cursor != null && cursor.sort() != sortOption) {
+            throw new InvalidLeaderboardCursorException();
+        }
+
         return leaderboardService.getLeaderboardEntriesForPuzzle(puzzleId, new LeaderboardPageRequest(
-                pageNumber,
-                pageSize,
-                sort.orElse(LeaderboardPageRequest.SortOption.NUM_POINTS)
+                sortOption,
+                cursor,
+                Math.clamp(pageSize, 0, LeaderboardPageRequest.MAX_PAGE_SIZE)
         ));
     }
+
+    @GetMapping("/api/puzzles/{puzzleId}/leaderboard/me")
+    public LeaderboardRankResponse getLeaderboardRankForPuzzle(
+            @PathVariable Long puzzleId,
+            @RequestParam(name = "neighbours", required = false, defaultValue = "2") Integer neighbours,
+            @RequestParam(name = "sort", required = false) Optional<LeaderboardPageRequest.SortOption> sort,
+            @AuthenticationPrincipal AuthenticatedUserDetails principal) {
+
+        return leaderboardService.getLeaderboardRankForUser(
+                puzzleId,
+                principal.getId(),
+                sort.orElse(LeaderboardPageRequest.SortOption.NUM_POINTS),
+                Math.clamp(neighbours, 0, MAX_NEIGHBOURS));
+    }
 }
@@ -0,0 +1,93 @@
+package com.lexicubes.backend.leaderboard;
+
+import com.lexicubes.backend.score.ScoreWithUser;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * The position in a leaderboard after which the next page starts, i.e. the sort key of the last
+ * entry of the previous page. Entries are ordered by the sort option's columns, then by score ID,
+ * all descending, so the next page is every entry whose key is less than the cursor's.
+ * <p>
+ * Cursors are given to clients as opaque tokens, which record the sort option they were created
+ * for so that they cannot be used with another.
+ *
+ * @param sort                  the sort option of the leaderboard
+ * @param numPoints             the number of points of the last entry
+ * @param numRequiredWordsFound the number of required words found by the last entry
+ * @param numBonusWordsFound    the number of bonus words found by the last entry
+ * @param scoreId               the ID of the score of the last entry
+ */
+public record LeaderboardCursor(LeaderboardPageRequest.SortOption sort,
+                                int numPoints,
+                                int numRequiredWordsFound,
+                                int numBonusWordsFound,
+                                long scoreId) {
+
+    private static final int TOKEN_BYTES = Byte.BYTES + 3 * Integer.BYTES + Long.BYTES;
+
+    /**
+     * {@return a cursor before every entry of a leaderboard with the given sort option}
+     */
+    public static LeaderboardCursor start(LeaderboardPageRequest.SortOption sort) {
+        return new LeaderboardCursor(sort, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * {@return the cursor after the entry of the given score}
+     */
+    public static LeaderboardCursor after(LeaderboardPageRequest.SortOption sort, ScoreWithUser scoreWithUser) {
+        return new LeaderboardCursor(
+                sort,
+                scoreWithUser.numPoints(),
+                scoreWithUser.numRequiredWordsFound(),
+                scoreWithUser.numBonusWordsFound(),
+                scoreWithUser.scoreId());
+    }
+
+    /**
+     * Decodes a cursor from its token.
+     *
+     * @param token the token
+     * @return the cursor
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static LeaderboardCursor decode(String token) {
+        final ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token));
+        if (buffer.remaining() != TOKEN_BYTES) {
+            throw new IllegalArgumentException("Cursor token has the wrong length");
+        }
+
+        try {
+            final LeaderboardPageRequest.SortOption[] sortOptions = LeaderboardPageRequest.SortOption.values();
+            final int sortOrdinal = buffer.get();
+            if (sortOrdinal < 0 || sortOrdinal >= sortOptions.length) {
+                throw new IllegalArgumentException("Unknown sort option in cursor token");
+            }
+
+            return new LeaderboardCursor(
+                    sortOptions[sortOrdinal],
+                    buffer.getInt(),
+                    buffer.getInt(),
+                    buffer.getInt(),
+                    buffer.getLong());
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Cursor token is truncated", e);
+        }
+    }
+
+    /**
+     * {@return the token of this cursor}
+     */
+    public String encode() {
+        final ByteBuffer buffer = ByteBuffer.allocate(TOKEN_BYTES)
+                .put((byte) sort.ordinal())
+                .putInt(numPoints)
+                .putInt(numRequiredWordsFound)
+                .putInt(numBonusWordsFound)
+                .putLong(scoreId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+}
@@ -0,0 +1,7 @@
+package com.lexicubes.backend.leaderboard;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.NOT_FOUND, reason = "No score found on the leaderboard")
+public class LeaderboardEntryNotFoundException extends RuntimeException {}
@@ -1,10 +1,10 @@
 package com.lexicubes.backend.leaderboard;
 
-import com.lexicubes.backend.common.PageRequest;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
 
-public class LeaderboardPageRequest extends PageRequest {
+public class LeaderboardPageRequest {
 
     public enum SortOption {
         NUM_POINTS,
@@ -12,26 +12,61 @@ public class LeaderboardPageRequest extends PageRequest {
         NUM_BONUS_WORDS_FOUND
     }
 
+    /**
+     * The maximum number of entries in a page, which also keeps one more than it from overflowing.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final SortOption sort;
 
-    public LeaderboardPageRequest(int pageNumber, int pageSize, SortOption sort) {
-        super(pageNumber, pageSize);
+    private final LeaderboardCursor after;
+
+    private final int pageSize;
+
+    /**
+     * @param sort     the order of the entries
+     * @param after    the cursor after which the page starts, or null for the first page
+     * @param pageSize the maximum number of entries in the page
+     */
+    public LeaderboardPageRequest(SortOption sort, @Nullable LeaderboardCursor after, int pageSize) {
+        if (after != null && after.sort() != sort) {
+            throw new IllegalArgumentException("Cursor is for a different sort option");
+        }
+
+        if (pageSize < 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 0 and " + MAX_PAGE_SIZE);
+        }
+
         this.sort = sort;
+        this.after = after != null ? after : LeaderboardCursor.start(sort);
+        this.pageSize = pageSize;
     }
 
     public SortOption getSort() {
         return sort;
     }
 
+    /**
+     * {@return the cursor after which the page starts, which is before every entry for the first page}
+     */
+    public LeaderboardCursor getAfter() {
+        return after;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), sort);
+        return Objects.hash(sort, after, pageSize);
     }
 
     @Override
     public boolean equals(Object obj) {
-        return super.equals(obj) &&
-                obj instanceof LeaderboardPageRequest other &&
-                sort == other.sort;
+        return obj instanceof LeaderboardPageRequest other &&
+                sort == other.sort &&
+                after.equals(other.after) &&
+                pageSize == other.pageSize;
     }
 }
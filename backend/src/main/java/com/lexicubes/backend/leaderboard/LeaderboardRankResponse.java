@@ -0,0 +1,17 @@
+package com.lexicubes.backend.leaderboard;
+
+import java.util.List;
+
+/**
+ * The rank of a user in a leaderboard, along with the entries ranked around theirs.
+ *
+ * @param rank       the 1-based position of the user's entry in the leaderboard
+ * @param numEntries the number of entries in the leaderboard
+ * @param firstRank  the rank of the first of the entries
+ * @param entries    the entries from the highest to the lowest ranked, including the user's own
+ */
+public record LeaderboardRankResponse(int rank,
+                                      int numEntries,
+                                      int firstRank,
+                                      List<LeaderboardEntry> entries) {
+}
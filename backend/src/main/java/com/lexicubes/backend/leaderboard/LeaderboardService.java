@@ -1,49 +1,84 @@
 package com.lexicubes.backend.leaderboard;
 
-import com.lexicubes.backend.common.PageResponse;
-import com.lexicubes.backend.score.ScoreRepository;
+import com.lexicubes.backend.common.CursorPageResponse;
 import com.lexicubes.backend.score.ScoreWithUser;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 public class LeaderboardService {
 
-    private final ScoreRepository scoreRepository;
+    private final RankedLeaderboardService rankedLeaderboardService;
 
-    public LeaderboardService(ScoreRepository scoreRepository) {
-        this.scoreRepository = scoreRepository;
+    public LeaderboardService(RankedLeaderboardService rankedLeaderboardService) {
+        this.rankedLeaderboardService = rankedLeaderboardService;
     }
 
-    @Transactional(readOnly = true)
-    public PageResponse<LeaderboardEntry> getLeaderboardEntriesForPuzzle(Long puzzleId,
-                                                                         LeaderboardPageRequest pageRequest) {
+    /**
+     * Gets a page of the leaderboard of a puzzle. The page is found by binary search for its
+     * cursor in the in-memory leaderboard, so every page costs the same however deep it is.
+     */
+    public CursorPageResponse<LeaderboardEntry> getLeaderboardEntriesForPuzzle(Long puzzleId,
+                                                                               LeaderboardPageRequest pageRequest) {
 
-        final List<ScoreWithUser> scoresWithUsers = switch (pageRequest.getSort()) {
-            case NUM_POINTS -> scoreRepository.findScoresWithUsersByPuzzleIdOrderByNumPoints(
-                    puzzleId, pageRequest.getOffset(), pageRequest.getPageSize());
+        final RankedLeaderboard leaderboard = rankedLeaderboardService.getRankedLeaderboard(puzzleId);
 
-            case NUM_REQUIRED_WORDS_FOUND -> scoreRepository.findScoresWithUsersByPuzzleIdOrderByNumRequiredWordsFound(
-                    puzzleId, pageRequest.getOffset(), pageRequest.getPageSize());
+        // One more entry than the page size is fetched to find out whether there is a next page
+        final List<ScoreWithUser> scoresWithUsers = leaderboard.getScoresAfter(
+                pageRequest.getAfter(),
+                pageRequest.getPageSize() + 1);
 
-            case NUM_BONUS_WORDS_FOUND -> scoreRepository.findScoresWithUsersByPuzzleIdOrderByNumBonusWordsFound(
-                    puzzleId, pageRequest.getOffset(), pageRequest.getPageSize());
-        };
+        final boolean hasNextPage = scoresWithUsers.size() > pageRequest.getPageSize();
+        final List<ScoreWithUser> pageScoresWithUsers = hasNextPage
+                ? scoresWithUsers.subList(0, pageRequest.getPageSize())
+                : scoresWithUsers;
 
-        final List<LeaderboardEntry> leaderboardEntries = scoresWithUsers.stream()
+        final List<LeaderboardEntry> leaderboardEntries = pageScoresWithUsers.stream()
                 .map(LeaderboardService::mapScoreWithUserToLeaderboardEntry)
                 .toList();
 
-        final long totalScoresCount = scoreRepository.countScoresByPuzzleId(puzzleId);
-        final long totalPageCount = Math.ceilDiv(totalScoresCount, pageRequest.getPageSize());
+        final String nextCursor = hasNextPage && !pageScoresWithUsers.isEmpty()
+                ? LeaderboardCursor.after(pageRequest.getSort(), pageScoresWithUsers.getLast()).encode()
+                : null;
 
-        return new PageResponse<>(
+        return new CursorPageResponse<>(
                 leaderboardEntries,
-                pageRequest.getPageNumber(),
                 pageRequest.getPageSize(),
-                totalPageCount);
+                nextCursor);
+    }
+
+    /**
+     * Gets the rank of a user in the leaderboard of a puzzle, along with the entries ranked around
+     * theirs.
+     *
+     * @param puzzleId   the ID of the puzzle
+     * @param userId     the ID of the user
+     * @param sort       the order of the leaderboard
+     * @param neighbours the maximum number of entries to get on either side of the user's entry
+     * @return the user's rank and the entries around it
+     * @throws LeaderboardEntryNotFoundException if the user has no score for the puzzle
+     */
+    public LeaderboardRankResponse getLeaderboardRankForUser(Long puzzleId,
+                                                             Long userId,
+                                                             LeaderboardPageRequest.SortOption sort,
+                                                             int neighbours) {
+
+        final RankedLeaderboard.Neighbourhood neighbourhood = rankedLeaderboardService
+                .getRankedLeaderboard(puzzleId)
+                .getNeighbourhood(sort, userId, neighbours);
+
+        if (neighbourhood == null) {
+            throw new LeaderboardEntryNotFoundException();
+        }
+
+        return new LeaderboardRankResponse(
+                neighbourhood.rank(),
+                neighbourhood.numScores(),
+                neighbourhood.firstRank(),
+                neighbourhood.scores().stream()
+                        .map(LeaderboardService::mapScoreWithUserToLeaderboardEntry)
+                        .toList());
     }
 
     private static LeaderboardEntry mapScoreWithUserToLeaderboardEntry(ScoreWithUser scoreWithUser) {
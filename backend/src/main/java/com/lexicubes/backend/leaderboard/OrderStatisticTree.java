@@ -0,0 +1,277 @@
+package com.lexicubes.backend.leaderboard;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable sorted set that also finds elements by their index, as a weight-balanced binary
+ * tree whose nodes count the elements below them.
+ * <p>
+ * Adding or removing an element returns a new tree that shares all but the O(log n) nodes on the
+ * path to the element with the old one, so a tree can be read from any number of threads while
+ * newer versions of it are being built.
+ * <p>
+ * The tree is balanced as in Adams' "Implementing Sets Efficiently in a Functional Language",
+ * with the parameters proven correct by Hirai and Yamamoto.
+ *
+ * @param <E> the type of the elements
+ */
+final class OrderStatisticTree<E> {
+
+    /**
+     * The factor by which the size of one subtree may exceed the size of its sibling.
+     */
+    private static final int DELTA = 3;
+
+    /**
+     * The factor that decides between a single and a double rotation when rebalancing.
+     */
+    private static final int RATIO = 2;
+
+    private record Node<E>(E element, @Nullable Node<E> left, @Nullable Node<E> right, int size) {}
+
+    private final Comparator<? super E> comparator;
+
+    private final @Nullable Node<E> root;
+
+    private OrderStatisticTree(Comparator<? super E> comparator, @Nullable Node<E> root) {
+        this.comparator = comparator;
+        this.root = root;
+    }
+
+    /**
+     * {@return a tree of the given elements, which must be distinct and sorted by the comparator}
+     */
+    static <E> OrderStatisticTree<E> ofSorted(List<? extends E> elements, Comparator<? super E> comparator) {
+        return new OrderStatisticTree<>(comparator, build(elements, 0, elements.size()));
+    }
+
+    /**
+     * {@return the number of elements in the tree}
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * {@return the element at the given index}
+     */
+    E get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        Node<E> node = root;
+        while (true) {
+            final int leftSize = size(node.left());
+            if (index < leftSize) {
+                node = node.left();
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right();
+            } else {
+                return node.element();
+            }
+        }
+    }
+
+    /**
+     * Finds the index of an element, like {@link java.util.Arrays#binarySearch(Object[], Object, Comparator)}.
+     *
+     * @param element the element to search for
+     * @return the index of the element, if it is in the tree; otherwise
+     * {@code -(insertion point) - 1}, where the insertion point is the index of the first element
+     * greater than it
+     */
+    int indexOf(E element) {
+        Node<E> node = root;
+        int offset = 0;
+        while (node != null) {
+            final int comparison = comparator.compare(element, node.element());
+            if (comparison < 0) {
+                node = node.left();
+            } else if (comparison > 0) {
+                offset += size(node.left()) + 1;
+                node = node.right();
+            } else {
+                return offset + size(node.left());
+            }
+        }
+        return -(offset + 1);
+    }
+
+    /**
+     * {@return the element in the tree that compares equal to the given one, or null if there is none}
+     */
+    @Nullable E find(E element) {
+        Node<E> node = root;
+        while (node != null) {
+            final int comparison = comparator.compare(element, node.element());
+            if (comparison == 0) {
+                return node.element();
+            }
+            node = comparison < 0 ? node.left() : node.right();
+        }
+        return null;
+    }
+
+    /**
+     * {@return the elements from the given index, inclusive, to the other, exclusive}
+     */
+    List<E> subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From " + fromIndex + " to " + toIndex + " of " + size());
+        }
+
+        final List<E> elements = new ArrayList<>(toIndex - fromIndex);
+        collect(root, 0, fromIndex, toIndex, elements);
+        return Collections.unmodifiableList(elements);
+    }
+
+    /**
+     * {@return a tree with the given element added, replacing any element that compares equal to it}
+     */
+    OrderStatisticTree<E> with(E element) {
+        return new OrderStatisticTree<>(comparator, insert(root, element));
+    }
+
+    /**
+     * {@return a tree without the element that compares equal to the given one, if there is one}
+     */
+    OrderStatisticTree<E> without(E element) {
+        return new OrderStatisticTree<>(comparator, delete(root, element));
+    }
+
+    private static <E> @Nullable Node<E> build(List<? extends E> elements, int from, int to) {
+        if (from == to) {
+            return null;
+        }
+
+        final int middle = (from + to) >>> 1;
+        return node(elements.get(middle), build(elements, from, middle), build(elements, middle + 1, to));
+    }
+
+    private void collect(@Nullable Node<E> node, int offset, int fromIndex, int toIndex, List<E> elements) {
+        if (node == null) {
+            return;
+        }
+
+        final int index = offset + size(node.left());
+        if (fromIndex < index) {
+            collect(node.left(), offset, fromIndex, toIndex, elements);
+        }
+        if (fromIndex <= index && index < toIndex) {
+            elements.add(node.element());
+        }
+        if (index + 1 < toIndex) {
+            collect(node.right(), index + 1, fromIndex, toIndex, elements);
+        }
+    }
+
+    private Node<E> insert(@Nullable Node<E> node, E element) {
+        if (node == null) {
+            return new Node<>(element, null, null, 1);
+        }
+
+        final int comparison = comparator.compare(element, node.element());
+        if (comparison < 0) {
+            return balance(node.element(), insert(node.left(), element), node.right());
+        } else if (comparison > 0) {
+            return balance(node.element(), node.left(), insert(node.right(), element));
+        } else {
+            return new Node<>(element, node.left(), node.right(), node.size());
+        }
+    }
+
+    private @Nullable Node<E> delete(@Nullable Node<E> node, E element) {
+        if (node == null) {
+            return null;
+        }
+
+        final int comparison = comparator.compare(element, node.element());
+        if (comparison < 0) {
+            final Node<E> left = delete(node.left(), element);
+            return left == node.left() ? node : balance(node.element(), left, node.right());
+        } else if (comparison > 0) {
+            final Node<E> right = delete(node.right(), element);
+            return right == node.right() ? node : balance(node.element(), node.left(), right);
+        } else {
+            return glue(node.left(), node.right());
+        }
+    }
+
+    /**
+     * {@return the siblings of a deleted node joined into one balanced tree}
+     */
+    private static <E> @Nullable Node<E> glue(@Nullable Node<E> left, @Nullable Node<E> right) {
+        if (left == null) {
+            return right;
+        } else if (right == null) {
+            return left;
+        } else if (left.size() > right.size()) {
+            return balance(max(left), deleteMax(left), right);
+        } else {
+            return balance(min(right), left, deleteMin(right));
+        }
+    }
+
+    private static <E> E min(Node<E> node) {
+        while (node.left() != null) {
+            node = node.left();
+        }
+        return node.element();
+    }
+
+    private static <E> E max(Node<E> node) {
+        while (node.right() != null) {
+            node = node.right();
+        }
+        return node.element();
+    }
+
+    private static <E> @Nullable Node<E> deleteMin(Node<E> node) {
+        return node.left() == null ? node.right() : balance(node.element(), deleteMin(node.left()), node.right());
+    }
+
+    private static <E> @Nullable Node<E> deleteMax(Node<E> node) {
+        return node.right() == null ? node.left() : balance(node.element(), node.left(), deleteMax(node.right()));
+    }
+
+    /**
+     * {@return a node of the given element and subtrees, rotated if one subtree has become too
+     * heavy after a single element was added to or removed from either of them}
+     */
+    private static <E> Node<E> balance(E element, @Nullable Node<E> left, @Nullable Node<E> right) {
+        final int leftSize = size(left);
+        final int rightSize = size(right);
+        if (leftSize + rightSize <= 1) {
+            return node(element, left, right);
+        } else if (rightSize > DELTA * leftSize) {
+            return size(right.left()) < RATIO * size(right.right())
+                    ? node(right.element(), node(element, left, right.left()), right.right())
+                    : node(right.left().element(),
+                            node(element, left, right.left().left()),
+                            node(right.element(), right.left().right(), right.right()));
+        } else if (leftSize > DELTA * rightSize) {
+            return size(left.right()) < RATIO * size(left.left())
+                    ? node(left.element(), left.left(), node(element, left.right(), right))
+                    : node(left.right().element(),
+                            node(left.element(), left.left(), left.right().left()),
+                            node(element, left.right().right(), right));
+        } else {
+            return node(element, left, right);
+        }
+    }
+
+    private static <E> Node<E> node(E element, @Nullable Node<E> left, @Nullable Node<E> right) {
+        return new Node<>(element, left, right, size(left) + size(right) + 1);
+    }
+
+    private static int size(@Nullable Node<?> node) {
+        return node == null ? 0 : node.size();
+    }
+}
@@ -0,0 +1,230 @@
+package com.lexicubes.backend.leaderboard;
+
+import com.lexicubes.backend.score.ScoreWithUser;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The scores of a puzzle held in memory in the order of each of the leaderboard's sort options,
+ * so that the rank of any score and the page after any cursor are found in logarithmic time.
+ * <p>
+ * The orders and the index of scores by user are kept in immutable trees, which recording a score
+ * replaces with new versions sharing all but a logarithmic number of nodes with the old ones.
+ * Recording takes a lock, but reads never do, and always see the scores of a single point in time.
+ */
+public final class RankedLeaderboard {
+
+    /**
+     * The approximate number of bytes taken up by an empty leaderboard, which is counted so that
+     * the leaderboards of puzzles without scores still take up room in the cache.
+     */
+    private static final long BASE_SIZE_BYTES = 256;
+
+    /**
+     * The approximate number of bytes taken up by each score: the entry and its boxed IDs, the
+     * user's name, and a node in each order and in the index by user ID.
+     */
+    private static final long SCORE_SIZE_BYTES = 320;
+
+    /**
+     * The size below which a leaderboard is never considered to have outgrown the size it was
+     * loaded with, since the weight of a small leaderboard hardly matters.
+     */
+    private static final int MIN_OUTGROWN_SIZE = 1000;
+
+    private static final LeaderboardPageRequest.SortOption[] SORT_OPTIONS = LeaderboardPageRequest.SortOption.values();
+
+    private static final List<Comparator<ScoreWithUser>> COMPARATORS = Arrays.stream(SORT_OPTIONS)
+            .map(RankedLeaderboard::buildComparator)
+            .toList();
+
+    private static final Comparator<ScoreWithUser> BY_USER_ID = Comparator.comparing(ScoreWithUser::userId);
+
+    /**
+     * The scores ranked around the score of a user.
+     *
+     * @param rank      the 1-based position of the user's score in the leaderboard
+     * @param numScores the number of scores in the leaderboard
+     * @param firstRank the rank of the first of the scores
+     * @param scores    the scores from the highest to the lowest ranked, including the user's own
+     */
+    public record Neighbourhood(int rank, int numScores, int firstRank, List<ScoreWithUser> scores) {}
+
+    /**
+     * The scores at one point in time.
+     *
+     * @param orders   the scores in the order of each sort option, indexed by the option's ordinal
+     * @param byUserId the scores ordered by user ID
+     */
+    private record Snapshot(List<OrderStatisticTree<ScoreWithUser>> orders, OrderStatisticTree<ScoreWithUser> byUserId) {
+
+        private OrderStatisticTree<ScoreWithUser> getOrder(LeaderboardPageRequest.SortOption sort) {
+            return orders.get(sort.ordinal());
+        }
+
+        private @Nullable ScoreWithUser getScore(Long userId) {
+            return byUserId.find(new ScoreWithUser(null, userId, null, 0, 0, 0));
+        }
+    }
+
+    /**
+     * The latest scores, which are only replaced while holding the lock.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * The number of scores the leaderboard was loaded with, which is the size it was weighed by
+     * when it was cached.
+     */
+    private final int loadedSize;
+
+    public RankedLeaderboard(List<ScoreWithUser> scores) {
+        final Map<Long, ScoreWithUser> scoresByUserId = new HashMap<>(scores.size() * 2);
+        for (final ScoreWithUser score : scores) {
+            scoresByUserId.put(score.userId(), score);
+        }
+
+        final List<OrderStatisticTree<ScoreWithUser>> orders = new ArrayList<>(SORT_OPTIONS.length);
+        for (final LeaderboardPageRequest.SortOption sort : SORT_OPTIONS) {
+            final List<ScoreWithUser> order = new ArrayList<>(scoresByUserId.values());
+            order.sort(COMPARATORS.get(sort.ordinal()));
+            orders.add(OrderStatisticTree.ofSorted(order, COMPARATORS.get(sort.ordinal())));
+        }
+
+        final List<ScoreWithUser> byUserId = new ArrayList<>(scoresByUserId.values());
+        byUserId.sort(BY_USER_ID);
+
+        snapshot = new Snapshot(List.copyOf(orders), OrderStatisticTree.ofSorted(byUserId, BY_USER_ID));
+        loadedSize = byUserId.size();
+    }
+
+    /**
+     * {@return the number of scores in the leaderboard}
+     */
+    public int size() {
+        return snapshot.byUserId().size();
+    }
+
+    /**
+     * Gets the scores after a cursor, in the order of the cursor's sort option.
+     *
+     * @param after the cursor after which the scores start
+     * @param limit the maximum number of scores to get
+     * @return the scores
+     */
+    public List<ScoreWithUser> getScoresAfter(LeaderboardCursor after, int limit) {
+        final OrderStatisticTree<ScoreWithUser> order = snapshot.getOrder(after.sort());
+
+        final ScoreWithUser cursorScore = new ScoreWithUser(
+                after.scoreId(),
+                null,
+                null,
+                after.numPoints(),
+                after.numRequiredWordsFound(),
+                after.numBonusWordsFound());
+        final int index = order.indexOf(cursorScore);
+        final int from = index >= 0 ? index + 1 : -(index + 1);
+
+        return order.subList(from, Math.min(order.size(), from + Math.max(0, limit)));
+    }
+
+    /**
+     * Gets the rank of the score of a user, along with the scores ranked around it.
+     *
+     * @param sort       the order of the leaderboard
+     * @param userId     the ID of the user
+     * @param neighbours the maximum number of scores to get on either side of the user's score
+     * @return the user's rank and the scores around it, or null if the user has no score in the leaderboard
+     */
+    public @Nullable Neighbourhood getNeighbourhood(LeaderboardPageRequest.SortOption sort, Long userId, int neighbours) {
+        final Snapshot snapshot = this.snapshot;
+        final ScoreWithUser score = snapshot.getScore(userId);
+        if (score == null) {
+            return null;
+        }
+
+        final OrderStatisticTree<ScoreWithUser> order = snapshot.getOrder(sort);
+        final int index = order.indexOf(score);
+        final int from = Math.max(0, index - neighbours);
+        final int to = Math.min(order.size(), index + neighbours + 1);
+
+        return new Neighbourhood(index + 1, order.size(), from + 1, order.subList(from, to));
+    }
+
+    /**
+     * Records a submitted score. As in the database, the user's score keeps the highest value of
+     * each count they have submitted, so scores recorded out of order still end up the same.
+     *
+     * @param score the score, whose ID and user name are only used if the user has no score yet
+     */
+    public synchronized void record(ScoreWithUser score) {
+        final ScoreWithUser existingScore = snapshot.getScore(score.userId());
+        final ScoreWithUser mergedScore = existingScore == null ? score : new ScoreWithUser(
+                existingScore.scoreId(),
+                existingScore.userId(),
+                existingScore.userName(),
+                Math.max(existingScore.numPoints(), score.numPoints()),
+                Math.max(existingScore.numRequiredWordsFound(), score.numRequiredWordsFound()),
+                Math.max(existingScore.numBonusWordsFound(), score.numBonusWordsFound()));
+
+        if (mergedScore.equals(existingScore)) {
+            return;
+        }
+
+        final List<OrderStatisticTree<ScoreWithUser>> orders = new ArrayList<>(SORT_OPTIONS.length);
+        for (final OrderStatisticTree<ScoreWithUser> order : snapshot.orders()) {
+            orders.add((existingScore == null ? order : order.without(existingScore)).with(mergedScore));
+        }
+
+        snapshot = new Snapshot(List.copyOf(orders), snapshot.byUserId().with(mergedScore));
+    }
+
+    /**
+     * {@return whether the user has a score in the leaderboard}
+     */
+    public boolean contains(Long userId) {
+        return snapshot.getScore(userId) != null;
+    }
+
+    /**
+     * {@return whether the leaderboard has grown to at least twice the size it was loaded with}
+     */
+    public boolean hasOutgrownLoadedSize() {
+        return size() >= Math.max(2 * loadedSize, MIN_OUTGROWN_SIZE);
+    }
+
+    /**
+     * {@return the approximate number of bytes taken up by the leaderboard}
+     */
+    public long estimateSizeBytes() {
+        return BASE_SIZE_BYTES + SCORE_SIZE_BYTES * size();
+    }
+
+    /**
+     * Orders scores from the highest to the lowest by the columns of the given sort option, then
+     * by score ID, matching {@link LeaderboardCursor}.
+     */
+    private static Comparator<ScoreWithUser> buildComparator(LeaderboardPageRequest.SortOption sort) {
+        final Comparator<ScoreWithUser> byColumns = switch (sort) {
+            case NUM_POINTS -> Comparator.comparingInt(ScoreWithUser::numPoints)
+                    .thenComparingInt(ScoreWithUser::numRequiredWordsFound)
+                    .thenComparingInt(ScoreWithUser::numBonusWordsFound);
+
+            case NUM_REQUIRED_WORDS_FOUND -> Comparator.comparingInt(ScoreWithUser::numRequiredWordsFound)
+                    .thenComparingInt(ScoreWithUser::numPoints)
+                    .thenComparingInt(ScoreWithUser::numBonusWordsFound);
+
+            case NUM_BONUS_WORDS_FOUND -> Comparator.comparingInt(ScoreWithUser::numBonusWordsFound)
+                    .thenComparingInt(ScoreWithUser::numPoints)
+                    .thenComparingInt(ScoreWithUser::numRequiredWordsFound);
+        };
+
+        return byColumns.thenComparingLong(ScoreWithUser::scoreId).reversed();
+    }
+}
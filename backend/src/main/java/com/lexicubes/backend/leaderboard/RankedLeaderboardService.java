@@ -0,0 +1,116 @@
+package com.lexicubes.backend.leaderboard;
+
+import com.lexicubes.backend.score.ScoreRepository;
+import com.lexicubes.backend.score.ScoreWithUser;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the leaderboards of recently viewed puzzles in memory (in the {@code leaderboards}
+ * cache). A leaderboard is loaded from the database the first time it is needed, and scores
+ * submitted to this instance are then recorded into it in place.
+ * <p>
+ * Scores submitted to other instances only appear once the leaderboard expires from the cache
+ * and is loaded again, so the cache's {@code expire-after-write} bounds how stale it can be.
+ * <p>
+ * The cache only weighs a leaderboard when it is loaded, so a leaderboard that has since doubled
+ * in size is evicted, to be loaded and weighed again when it is next needed. Reloads therefore
+ * read each score a constant number of times on average, however large the leaderboard grows.
+ */
+@Service
+public class RankedLeaderboardService {
+
+    private final ScoreRepository scoreRepository;
+
+    private final Cache leaderboardCache;
+
+    public RankedLeaderboardService(ScoreRepository scoreRepository, CacheManager cacheManager) {
+        this.scoreRepository = scoreRepository;
+        this.leaderboardCache = Objects.requireNonNull(cacheManager.getCache("leaderboards"));
+    }
+
+    /**
+     * {@return the leaderboard of a puzzle, loading it from the database if it is not in memory}
+     */
+    public RankedLeaderboard getRankedLeaderboard(Long puzzleId) {
+        return Objects.requireNonNull(leaderboardCache.get(puzzleId, () ->
+                new RankedLeaderboard(scoreRepository.findScoresWithUsersByPuzzleId(puzzleId))));
+    }
+
+    /**
+     * Records a submitted score into the leaderboard of its puzzle, if the leaderboard is in
+     * memory. Within a transaction, the score is only recorded once the transaction commits.
+     *
+     * @param puzzleId the ID of the puzzle
+     * @param score    the submitted score, whose ID and user name are only used if the user has
+     *                 no score in the leaderboard yet
+     */
+    public void recordScore(Long puzzleId, ScoreWithUser score) {
+        final RankedLeaderboard leaderboard = leaderboardCache.get(puzzleId, RankedLeaderboard.class);
+        if (leaderboard == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(puzzleId, leaderboard, score);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(puzzleId, leaderboard, score);
+            }
+        });
+    }
+
+    /**
+     * Records scores that have already been written and committed into the leaderboard of their
+     * puzzle, if the leaderboard is in memory. The IDs and user names of the scores of users who
+     * have no score in the leaderboard yet are read back with a single query.
+     *
+     * @param puzzleId the ID of the puzzle
+     * @param scores   the written scores, whose IDs and user names are not needed
+     */
+    public void recordWrittenScores(Long puzzleId, List<ScoreWithUser> scores) {
+        final RankedLeaderboard leaderboard = leaderboardCache.get(puzzleId, RankedLeaderboard.class);
+        if (leaderboard == null) {
+            return;
+        }
+
+        final Set<Long> newUserIds = scores.stream()
+                .map(ScoreWithUser::userId)
+                .filter(userId -> !leaderboard.contains(userId))
+                .collect(Collectors.toSet());
+        final Map<Long, ScoreWithUser> savedScoresByUserId = newUserIds.isEmpty()
+                ? Map.of()
+                : scoreRepository.findScoresWithUsersByPuzzleIdAndUserIds(puzzleId, newUserIds).stream()
+                        .collect(Collectors.toMap(ScoreWithUser::userId, Function.identity()));
+
+        for (final ScoreWithUser score : scores) {
+            final ScoreWithUser savedScore = savedScoresByUserId.get(score.userId());
+            if (savedScore != null) {
+                record(puzzleId, leaderboard, savedScore);
+            } else if (!newUserIds.contains(score.userId())) {
+                record(puzzleId, leaderboard, score);
+            }
+        }
+    }
+
+    private void record(Long puzzleId, RankedLeaderboard leaderboard, ScoreWithUser scoreWithUser) {
+        leaderboard.record(scoreWithUser);
+        if (leaderboard.hasOutgrownLoadedSize()) {
+            leaderboardCache.evict(puzzleId);
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.lexicubes.backend.puzzle;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Determines which of the words found in a puzzle can always be formed, regardless of the
+ * order in which cubes are removed. All other words are bonus words.
+ * <p>
+ * A word can always be formed if any of its paths can be uncovered. A path can be uncovered
+ * if every cube blocking a face in the path can be removed, and a cube can be removed once
+ * every word with a path including that cube has been found. So the words that can always
+ * be formed are the smallest set closed under:
+ * <pre>
+ *     word is possible  &lt;=  some path of word has only removable blocking cubes
+ *     cube is removable &lt;=  every word with a path including cube is possible
+ * </pre>
+ * Any word whose only paths depend, directly or through other words, on the word itself is
+ * therefore never possible.
+ * <p>
+ * Rather than recursing through these dependencies for each word, the least fixpoint is
+ * computed in a single pass over an explicit dependency graph: each path and cube keeps a
+ * count of its unsatisfied dependencies, and is resolved as soon as the count reaches zero.
+ * Every path, cube, and dependency is visited once, so the classification takes time linear
+ * in the size of the graph.
+ * <p>
+ * The graph is immutable once built, so it can be kept around and reclassified with some of
+ * its paths removed (e.g. the paths through cubes the player has removed) without being
+ * rebuilt.
+ */
+final class BonusWordClassifier {
+
+    private static final int FACES_PER_CUBE = Puzzle.Cube.Side.values().length;
+
+    private final int cubeCount;
+
+    private final int wordCount;
+
+    /**
+     * The paths forming word {@code w} have the consecutive path indices from
+     * {@code wordPathOffsets[w]} (inclusive) to {@code wordPathOffsets[w + 1]} (exclusive).
+     */
+    private final int[] wordPathOffsets;
+
+    /**
+     * Maps a path index to the index of the word it forms.
+     */
+    private final int[] pathWords;
+
+    /**
+     * The distinct cubes with a face in path {@code p} are the cube indices stored in
+     * {@link #pathCubes} from {@code pathCubeOffsets[p]} (inclusive) to
+     * {@code pathCubeOffsets[p + 1]} (exclusive).
+     */
+    private final int[] pathCubeOffsets;
+
+    private final int[] pathCubes;
+
+    /**
+     * The distinct cubes with a face in any path of word {@code w} are the cube indices stored
+     * in {@link #wordCubes} from {@code wordCubeOffsets[w]} (inclusive) to
+     * {@code wordCubeOffsets[w + 1]} (exclusive).
+     */
+    private final int[] wordCubeOffsets;
+
+    private final int[] wordCubes;
+
+    /**
+     * The paths with a face blocked by cube {@code c} are the path indices stored in
+     * {@link #cubePaths} from {@code cubePathOffsets[c]} (inclusive) to
+     * {@code cubePathOffsets[c + 1]} (exclusive).
+     */
+    private final int[] cubePathOffsets;
+
+    private final int[] cubePaths;
+
+    /**
+     * Maps a path index to the number of distinct cubes blocking the path.
+     */
+    private final int[] pathBlockingCubeCounts;
+
+    /**
+     * Maps a cube index to the number of words including that cube.
+     */
+    private final int[] cubeWordCounts;
+
+    /**
+     * Builds the dependency graph between the given words and the cubes of a puzzle.
+     *
+     * @param pathsForWords       the paths (as face indices) forming each word, indexed by word
+     * @param cubeCount           the number of cubes in the puzzle
+     * @param blockingCubeOffsets the offsets into {@code blockingCubes} of the cubes directly
+     *                            blocking each face
+     * @param blockingCubes       the indices of the cubes directly blocking each face, grouped
+     *                            by face
+     */
+    BonusWordClassifier(List<List<int[]>> pathsForWords,
+                        int cubeCount,
+                        int[] blockingCubeOffsets,
+                        int[] blockingCubes) {
+        this.cubeCount = cubeCount;
+
+        wordCount = pathsForWords.size();
+        final int pathCount = pathsForWords.stream().mapToInt(List::size).sum();
+
+        wordPathOffsets = new int[wordCount + 1];
+        pathWords = new int[pathCount];
+        pathCubeOffsets = new int[pathCount + 1];
+        pathBlockingCubeCounts = new int[pathCount];
+        cubePathOffsets = new int[cubeCount + 1];
+
+        // Marks the cubes already counted for the current path
+        final int[] lastSeenBy = new int[cubeCount];
+        Arrays.fill(lastSeenBy, -1);
+        final IntArrayBuilder pathCubesBuilder = new IntArrayBuilder();
+
+        // First find the distinct cubes in each path and count the distinct blocking cubes of
+        // each path, then fill in the paths blocked by each cube (counting sort)
+        int path = 0;
+        for (int word = 0; word < wordCount; word++) {
+            wordPathOffsets[word] = path;
+            for (final int[] pathFaces : pathsForWords.get(word)) {
+                pathWords[path] = word;
+
+                pathCubeOffsets[path] = pathCubesBuilder.size();
+                for (final int face : pathFaces) {
+                    final int cube = face / FACES_PER_CUBE;
+                    if (lastSeenBy[cube] != path) {
+                        lastSeenBy[cube] = path;
+                        pathCubesBuilder.add(cube);
+                    }
+                }
+
+                for (final int face : pathFaces) {
+                    for (int i = blockingCubeOffsets[face]; i < blockingCubeOffsets[face + 1]; i++) {
+                        final int cube = blockingCubes[i];
+                        if (lastSeenBy[cube] != pathCount + path) {
+                            lastSeenBy[cube] = pathCount + path;
+                            pathBlockingCubeCounts[path]++;
+                            cubePathOffsets[cube + 1]++;
+                        }
+                    }
+                }
+                path++;
+            }
+        }
+        wordPathOffsets[wordCount] = pathCount;
+        pathCubeOffsets[pathCount] = pathCubesBuilder.size();
+        pathCubes = pathCubesBuilder.toArray();
+
+        for (int cube = 0; cube < cubeCount; cube++) {
+            cubePathOffsets[cube + 1] += cubePathOffsets[cube];
+        }
+
+        cubePaths = new int[cubePathOffsets[cubeCount]];
+        final int[] cubePathFillCounts = new int[cubeCount];
+        Arrays.fill(lastSeenBy, -1);
+
+        path = 0;
+        for (int word = 0; word < wordCount; word++) {
+            for (final int[] pathFaces : pathsForWords.get(word)) {
+                for (final int face : pathFaces) {
+                    for (int i = blockingCubeOffsets[face]; i < blockingCubeOffsets[face + 1]; i++) {
+                        final int cube = blockingCubes[i];
+                        if (lastSeenBy[cube] != path) {
+                            lastSeenBy[cube] = path;
+                            cubePaths[cubePathOffsets[cube] + cubePathFillCounts[cube]++] = path;
+                        }
+                    }
+                }
+                path++;
+            }
+        }
+
+        // The cubes included by each word are the union of the cubes in its paths
+        wordCubeOffsets = new int[wordCount + 1];
+        cubeWordCounts = new int[cubeCount];
+        Arrays.fill(lastSeenBy, -1);
+        final IntArrayBuilder wordCubesBuilder = new IntArrayBuilder();
+
+        for (int word = 0; word < wordCount; word++) {
+            wordCubeOffsets[word] = wordCubesBuilder.size();
+            for (path = wordPathOffsets[word]; path < wordPathOffsets[word + 1]; path++) {
+                for (int i = pathCubeOffsets[path]; i < pathCubeOffsets[path + 1]; i++) {
+                    final int cube = pathCubes[i];
+                    if (lastSeenBy[cube] != word) {
+                        lastSeenBy[cube] = word;
+                        wordCubesBuilder.add(cube);
+                        cubeWordCounts[cube]++;
+                    }
+                }
+            }
+        }
+        wordCubeOffsets[wordCount] = wordCubesBuilder.size();
+        wordCubes = wordCubesBuilder.toArray();
+    }
+
+    /**
+     * Determines which words can always be formed.
+     *
+     * @param pathsForWords       the paths (as face indices) forming each word, indexed by word
+     * @param cubeCount           the number of cubes in the puzzle
+     * @param blockingCubeOffsets the offsets into {@code blockingCubes} of the cubes directly
+     *                            blocking each face
+     * @param blockingCubes       the indices of the cubes directly blocking each face, grouped
+     *                            by face
+     * @return an array indexed by word, which is true if the word can always be formed, or
+     * false if it is a bonus word
+     */
+    static boolean[] findAlwaysPossibleWords(List<List<int[]>> pathsForWords,
+                                             int cubeCount,
+                                             int[] blockingCubeOffsets,
+                                             int[] blockingCubes) {
+        final BonusWordClassifier classifier = new BonusWordClassifier(
+                pathsForWords, cubeCount, blockingCubeOffsets, blockingCubes);
+        return classifier.findAlwaysPossibleWords(new boolean[classifier.getPathCount()]);
+    }
+
+    /**
+     * {@return the number of paths in the graph, numbered consecutively word by word}
+     */
+    int getPathCount() {
+        return pathWords.length;
+    }
+
+    /**
+     * {@return the index of the first path of the given word}
+     * The paths of word {@code w} are numbered from {@code getFirstPath(w)} (inclusive) to
+     * {@code getFirstPath(w + 1)} (exclusive).
+     */
+    int getFirstPath(int word) {
+        return wordPathOffsets[word];
+    }
+
+    /**
+     * {@return the approximate number of bytes taken up by the graph}
+     */
+    long estimateSizeBytes() {
+        return (long) Integer.BYTES * (wordPathOffsets.length
+                + pathWords.length
+                + pathCubeOffsets.length
+                + pathCubes.length
+                + wordCubeOffsets.length
+                + wordCubes.length
+                + cubePathOffsets.length
+                + cubePaths.length
+                + pathBlockingCubeCounts.length
+                + cubeWordCounts.length);
+    }
+
+    /**
+     * Determines which words can always be formed once the given paths are no longer
+     * possible. Cubes that are only included by removed paths become removable straight away,
+     * so removing all paths through a cube has the same effect as removing the cube itself.
+     *
+     * @param isPathRemoved an array indexed by path, which is true for removed paths
+     * @return an array indexed by word, which is true if the word can always be formed using
+     * its remaining paths, or false if it is a bonus word or has no remaining paths
+     */
+    boolean[] findAlwaysPossibleWords(boolean[] isPathRemoved) {
+        final int[] pathBlockingCubeCounts = this.pathBlockingCubeCounts.clone();
+        final int[] cubeWordCounts = this.cubeWordCounts.clone();
+        final int[] lastSeenBy = new int[cubeCount];
+        Arrays.fill(lastSeenBy, -1);
+
+        // A word with removed paths might no longer include some of its cubes
+        for (int word = 0; word < wordCount; word++) {
+            if (!hasRemovedPath(word, isPathRemoved)) {
+                continue;
+            }
+
+            for (int path = wordPathOffsets[word]; path < wordPathOffsets[word + 1]; path++) {
+                if (!isPathRemoved[path]) {
+                    for (int i = pathCubeOffsets[path]; i < pathCubeOffsets[path + 1]; i++) {
+                        lastSeenBy[pathCubes[i]] = word;
+                    }
+                }
+            }
+            for (int i = wordCubeOffsets[word]; i < wordCubeOffsets[word + 1]; i++) {
+                if (lastSeenBy[wordCubes[i]] != word) {
+                    cubeWordCounts[wordCubes[i]]--;
+                }
+            }
+        }
+
+        return new Propagation(pathBlockingCubeCounts, cubeWordCounts, isPathRemoved).run();
+    }
+
+    private boolean hasRemovedPath(int word, boolean[] isPathRemoved) {
+        for (int path = wordPathOffsets[word]; path < wordPathOffsets[word + 1]; path++) {
+            if (isPathRemoved[path]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The working state of a single classification.
+     */
+    private final class Propagation {
+
+        /**
+         * Maps a path index to the number of distinct cubes blocking the path that are not
+         * yet known to be removable.
+         */
+        private final int[] pathBlockingCubeCounts;
+
+        /**
+         * Maps a cube index to the number of words including that cube that are not yet known
+         * to be possible.
+         */
+        private final int[] cubeWordCounts;
+
+        private final boolean[] isPathRemoved;
+
+        private final boolean[] isWordPossible;
+
+        /**
+         * The possible words whose cubes have not been updated yet.
+         */
+        private final int[] wordQueue;
+
+        private int wordQueueHead = 0;
+
+        private int wordQueueTail = 0;
+
+        private Propagation(int[] pathBlockingCubeCounts, int[] cubeWordCounts, boolean[] isPathRemoved) {
+            this.pathBlockingCubeCounts = pathBlockingCubeCounts;
+            this.cubeWordCounts = cubeWordCounts;
+            this.isPathRemoved = isPathRemoved;
+
+            isWordPossible = new boolean[wordCount];
+            wordQueue = new int[wordCount];
+        }
+
+        private boolean[] run() {
+            // Unblocked paths and cubes not included in any word can be resolved straight away
+            for (int path = 0; path < pathWords.length; path++) {
+                if (pathBlockingCubeCounts[path] == 0 && !isPathRemoved[path]) {
+                    markWordPossible(pathWords[path]);
+                }
+            }
+            for (int cube = 0; cube < cubeCount; cube++) {
+                if (cubeWordCounts[cube] == 0) {
+                    markCubeRemovable(cube);
+                }
+            }
+
+            while (wordQueueHead < wordQueueTail) {
+                final int word = wordQueue[wordQueueHead++];
+                for (int i = wordCubeOffsets[word]; i < wordCubeOffsets[word + 1]; i++) {
+                    final int cube = wordCubes[i];
+                    if (--cubeWordCounts[cube] == 0) {
+                        markCubeRemovable(cube);
+                    }
+                }
+            }
+
+            return isWordPossible;
+        }
+
+        private void markCubeRemovable(int cube) {
+            for (int i = cubePathOffsets[cube]; i < cubePathOffsets[cube + 1]; i++) {
+                final int path = cubePaths[i];
+                if (--pathBlockingCubeCounts[path] == 0 && !isPathRemoved[path]) {
+                    markWordPossible(pathWords[path]);
+                }
+            }
+        }
+
+        private void markWordPossible(int word) {
+            if (!isWordPossible[word]) {
+                isWordPossible[word] = true;
+                wordQueue[wordQueueTail++] = word;
+            }
+        }
+    }
+
+    /**
+     * A minimal growable array of primitive ints.
+     */
+    private static final class IntArrayBuilder {
+
+        private int[] array = new int[64];
+
+        private int size = 0;
+
+        private void add(int value) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+            }
+            array[size++] = value;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(array, size);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.lexicubes.backend.puzzle;
+
+import com.lexicubes.backend.scheduling.SchedulerLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Keeps daily puzzles generated for a rolling window of upcoming days, so that they are never
+ * generated on demand. When several instances are running, only the one holding the
+ * {@value #LEASE_NAME} lease generates; the others skip the run.
+ */
+@Component
+@ConditionalOnProperty(name = "app.daily-puzzle-scheduler.enabled", havingValue = "true")
+public class DailyPuzzleScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyPuzzleScheduler.class);
+
+    static final String LEASE_NAME = "daily-puzzle-generation";
+
+    private final PuzzleGenerator puzzleGenerator;
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+
+    private final int daysAhead;
+
+    private final Duration leaseDuration;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public DailyPuzzleScheduler(PuzzleGenerator puzzleGenerator,
+                                SchedulerLeaseRepository schedulerLeaseRepository,
+                                @Value("${app.daily-puzzle-scheduler.days-ahead}") int daysAhead,
+                                @Value("${app.daily-puzzle-scheduler.lease-duration}") Duration leaseDuration) {
+
+        this.puzzleGenerator = puzzleGenerator;
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.daysAhead = daysAhead;
+        this.leaseDuration = leaseDuration;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.daily-puzzle-scheduler.initial-delay}",
+            fixedDelayString = "${app.daily-puzzle-scheduler.interval}")
+    public void generateUpcomingDailyPuzzles() {
+        if (!schedulerLeaseRepository.tryAcquire(LEASE_NAME, instanceId, leaseDuration.toSeconds())) {
+            logger.debug("Skipping daily puzzle generation, the lease is held by another instance");
+            return;
+        }
+
+        try {
+            puzzleGenerator.generateAndSaveDailyPuzzles(puzzleGenerator.getNextDailyPuzzleDate(), daysAhead);
+        } catch (RuntimeException e) {
+            logger.error("Failed to generate upcoming daily puzzles", e);
+        } finally {
+            schedulerLeaseRepository.release(LEASE_NAME, instanceId);
+        }
+    }
+}
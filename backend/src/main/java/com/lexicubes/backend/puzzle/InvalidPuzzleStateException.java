@@ -0,0 +1,7 @@
+package com.lexicubes.backend.puzzle;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Invalid puzzle state")
+public class InvalidPuzzleStateException extends RuntimeException {}
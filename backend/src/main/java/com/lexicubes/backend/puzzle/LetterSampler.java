@@ -0,0 +1,119 @@
+package com.lexicubes.backend.puzzle;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.SplittableRandom;
+
+/**
+ * Samples letters in [a-z] from a fixed weighted distribution in constant time, using the alias
+ * method (Vose's variant).
+ * <p>
+ * The distribution is split into one column per letter, each of equal total probability. A
+ * column holds part of its own letter's probability and tops up the rest with a single other
+ * letter (its alias), so a sample takes one uniformly chosen column and one biased coin flip,
+ * rather than a scan over the cumulative weights.
+ * <p>
+ * The sampler is immutable, so it can be shared between threads; each caller supplies its own
+ * random number generator.
+ */
+final class LetterSampler {
+
+    private final double[] probabilities;
+
+    private final int[] aliases;
+
+    private LetterSampler(double[] probabilities, int[] aliases) {
+        this.probabilities = probabilities;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Builds a sampler for the given letter weights, which need not sum to one.
+     *
+     * @param weights the weight of each letter, starting at 'a' (at most 26, all non-negative)
+     * @return the sampler
+     */
+    static LetterSampler of(double[] weights) {
+        if (weights.length == 0 || weights.length > 26) {
+            throw new IllegalArgumentException("Expected between 1 and 26 letter weights");
+        }
+
+        double totalWeight = 0;
+        for (final double weight : weights) {
+            if (!(weight >= 0)) {
+                throw new IllegalArgumentException("Letter weights must not be negative");
+            }
+            totalWeight += weight;
+        }
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("At least one letter weight must be positive");
+        }
+
+        final int count = weights.length;
+        final double[] probabilities = new double[count];
+        final int[] aliases = new int[count];
+
+        // Scale the weights so that a column is exactly full at 1, then repeatedly top up an
+        // underfull column from an overfull one
+        final double[] scaled = new double[count];
+        final Deque<Integer> small = new ArrayDeque<>();
+        final Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < count; i++) {
+            scaled[i] = weights[i] * count / totalWeight;
+            (scaled[i] < 1 ? small : large).push(i);
+        }
+
+        while (!small.isEmpty() && !large.isEmpty()) {
+            final int underfull = small.pop();
+            final int overfull = large.pop();
+
+            probabilities[underfull] = scaled[underfull];
+            aliases[underfull] = overfull;
+
+            scaled[overfull] -= 1 - scaled[underfull];
+            (scaled[overfull] < 1 ? small : large).push(overfull);
+        }
+
+        // Whatever is left is full up to rounding error
+        for (final int i : large) {
+            probabilities[i] = 1;
+            aliases[i] = i;
+        }
+        for (final int i : small) {
+            probabilities[i] = 1;
+            aliases[i] = i;
+        }
+
+        return new LetterSampler(probabilities, aliases);
+    }
+
+    /**
+     * Samples a letter.
+     *
+     * @param random the random number generator to sample with
+     * @return a lowercase letter in [a-z]
+     */
+    char sample(SplittableRandom random) {
+        final int column = random.nextInt(probabilities.length);
+        final int letter = random.nextDouble() < probabilities[column] ? column : aliases[column];
+        return (char) ('a' + letter);
+    }
+
+    /**
+     * {@return the probability of sampling the given letter}
+     */
+    double getProbability(char letter) {
+        final int index = letter - 'a';
+        if (index < 0 || index >= probabilities.length) {
+            return 0;
+        }
+
+        double probability = probabilities[index];
+        for (int column = 0; column < aliases.length; column++) {
+            if (aliases[column] == index) {
+                probability += 1 - probabilities[column];
+            }
+        }
+        return probability / probabilities.length;
+    }
+}
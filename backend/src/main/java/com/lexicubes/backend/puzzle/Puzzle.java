@@ -9,7 +9,6 @@ import org.springframework.data.relational.core.mapping.Table;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * A puzzle is viewed in isometric perspective and consists of cubes. Each cube has a
@@ -22,6 +21,10 @@ import java.util.stream.Stream;
 @Table("puzzles")
 public class Puzzle {
 
+    private static final int FACES_PER_CUBE = Cube.Side.values().length;
+
+    private static final int VERTICES_PER_FACE = 4;
+
     /**
      * Represents a cube at some coordinate in a puzzle.
      * <p>
@@ -40,32 +43,26 @@ public class Puzzle {
                 scope = Puzzle.Cube.Face.class)
         public static class Face {
 
-            private record Edge(Point start, Point end) {
-
-                private record Point(int x, int y, int z) {}
-
-                private boolean isTouching(Edge edge) {
-                    return start.equals(edge.start) || start.equals(edge.end) ||
-                            end.equals(edge.start) || end.equals(edge.end);
-                }
-            }
-
-            private static final Map<Side, List<Edge.Point>> FACE_VERTICES = Map.of(
-                    Side.TOP, List.of(
-                            new Edge.Point(0, 1, 0),
-                            new Edge.Point(0, 1, 1),
-                            new Edge.Point(1, 1, 1),
-                            new Edge.Point(1, 1, 0)),
-                    Side.LEFT, List.of(
-                            new Edge.Point(0, 0, 1),
-                            new Edge.Point(1, 0, 1),
-                            new Edge.Point(1, 1, 1),
-                            new Edge.Point(0, 1, 1)),
-                    Side.RIGHT, List.of(
-                            new Edge.Point(1, 0, 0),
-                            new Edge.Point(1, 0, 1),
-                            new Edge.Point(1, 1, 1),
-                            new Edge.Point(1, 1, 0)));
+            /**
+             * The (x, y, z) offsets of the four vertices of a face on each side of a cube,
+             * relative to the cube's coordinate, indexed by {@link Side#ordinal()}.
+             */
+            private static final int[][][] FACE_VERTICES = {
+                    { // TOP
+                            {0, 1, 0},
+                            {0, 1, 1},
+                            {1, 1, 1},
+                            {1, 1, 0}},
+                    { // LEFT
+                            {0, 0, 1},
+                            {1, 0, 1},
+                            {1, 1, 1},
+                            {0, 1, 1}},
+                    { // RIGHT
+                            {1, 0, 0},
+                            {1, 0, 1},
+                            {1, 1, 1},
+                            {1, 1, 0}}};
 
             private final int id;
 
@@ -75,11 +72,18 @@ public class Puzzle {
 
             private Cube cube;
 
-            @JsonIgnore
-            private final List<Edge> edges;
+            /**
+             * The puzzle this face belongs to, set once the puzzle has resolved its neighbours.
+             */
+            @Nullable
+            private Puzzle puzzle;
 
-            @JsonIgnore
-            private final Set<Face> neighbours;
+            /**
+             * The index of this face in {@link #puzzle}.
+             *
+             * @see Puzzle#getFace(int)
+             */
+            private int index;
 
             @JsonCreator
             private Face(@JsonProperty int id,
@@ -93,8 +97,6 @@ public class Puzzle {
                 this.id = id;
                 this.letter = letter;
                 this.side = side;
-                this.edges = new ArrayList<>();
-                this.neighbours = new HashSet<>();
             }
 
             private Face(Cube cube, Side side, char letter) {
@@ -120,30 +122,22 @@ public class Puzzle {
 
             private void setCube(Cube cube) {
                 this.cube = cube;
-
-                final List<Edge.Point> vertices = FACE_VERTICES.get(side).stream()
-                        .map(point -> new Edge.Point(
-                                point.x() + cube.getX(),
-                                point.y() + cube.getY(),
-                                point.z() + cube.getZ()))
-                        .toList();
-
-                edges.clear();
-                for (int i = 0; i < vertices.size(); i++) {
-                    edges.add(new Edge(vertices.get(i), vertices.get((i + 1) % vertices.size())));
-                }
             }
 
+            /**
+             * {@return all faces sharing an edge or corner with this face}
+             */
+            @JsonIgnore
             public Set<Face> getNeighbours() {
-                return Collections.unmodifiableSet(neighbours);
-            }
-
-            private void addNeighbour(Face neighbour) {
-                neighbours.add(neighbour);
-            }
+                if (puzzle == null) {
+                    return Collections.emptySet();
+                }
 
-            private boolean isTouching(Face face) {
-                return edges.stream().anyMatch(edge -> face.edges.stream().anyMatch(edge::isTouching));
+                final Set<Face> neighbours = new HashSet<>();
+                for (int i = puzzle.neighbourOffsets[index]; i < puzzle.neighbourOffsets[index + 1]; i++) {
+                    neighbours.add(puzzle.faces[puzzle.neighbours[i]]);
+                }
+                return Collections.unmodifiableSet(neighbours);
             }
 
             @Override
@@ -214,6 +208,13 @@ public class Puzzle {
             this.rightFace = new Face(this, Side.RIGHT, rightFaceLetter);
         }
 
+        /**
+         * {@return a copy of this cube whose faces do not belong to any puzzle yet}
+         */
+        private Cube copy() {
+            return new Cube(id, x, y, z, topFace.getLetter(), leftFace.getLetter(), rightFace.getLetter());
+        }
+
         public int getId() {
             return id;
         }
@@ -272,10 +273,11 @@ public class Puzzle {
     /**
      * Wrapper around a list of {@link Cube}s.
      * This is necessary to prevent Spring Data from inferring a one-to-many relationship,
-     * forcing usage of our custom converter that serializes the cubes to JSON.
+     * forcing usage of our custom converters that store the cubes in binary.
      *
-     * @see com.lexicubes.backend.puzzle.converters.PuzzleCubesToJsonConverter
-     * @see com.lexicubes.backend.puzzle.converters.JsonToPuzzleCubesConverter
+     * @see PuzzleCubesCodec
+     * @see com.lexicubes.backend.puzzle.converters.PuzzleCubesToBinaryConverter
+     * @see com.lexicubes.backend.puzzle.converters.BinaryToPuzzleCubesConverter
      */
     public record Cubes(List<Cube> list) {}
 
@@ -287,6 +289,13 @@ public class Puzzle {
 
     private final boolean isDaily;
 
+    /**
+     * The seed the puzzle was generated from, if it is a daily puzzle generated since seeds
+     * were stored.
+     */
+    @Nullable
+    private final Long seed;
+
     private final Cubes cubes;
 
     @Transient
@@ -301,22 +310,61 @@ public class Puzzle {
     @Transient
     private final int lengthZ;
 
+    /**
+     * All faces in the puzzle, indexed densely: the faces of the cube at position {@code i}
+     * of the cube list have indices {@code 3i} (top), {@code 3i + 1} (left), and
+     * {@code 3i + 2} (right).
+     */
+    @Transient
+    private final Cube.Face[] faces;
+
+    /**
+     * The face adjacency graph in compressed sparse row form. The neighbours of the face with
+     * index {@code f} are the face indices stored in {@link #neighbours} from
+     * {@code neighbourOffsets[f]} (inclusive) to {@code neighbourOffsets[f + 1]} (exclusive).
+     */
+    @Transient
+    private final int[] neighbourOffsets;
+
+    @Transient
+    private final int[] neighbours;
+
+    /**
+     * The cubes directly blocking visibility of each face in compressed sparse row form. The
+     * cubes blocking the face with index {@code f} are the cube indices (positions in the cube
+     * list) stored in {@link #blockingCubes} from {@code blockingCubeOffsets[f]} (inclusive)
+     * to {@code blockingCubeOffsets[f + 1]} (exclusive).
+     */
+    @Transient
+    private final int[] blockingCubeOffsets;
+
+    @Transient
+    private final int[] blockingCubes;
+
     public static Puzzle of(List<Cube> cubes) {
-        return Puzzle.of(LocalDate.now(), false, cubes);
+        return Puzzle.of(LocalDate.now(), false, null, cubes);
     }
 
-    public static Puzzle of(LocalDate publishedDate, boolean isDaily, List<Cube> cubes) {
-        return new Puzzle(null, publishedDate, isDaily, new Cubes(cubes));
+    /**
+     * Creates a puzzle from copies of the given cubes, since the faces of a cube can only belong
+     * to one puzzle and the same cubes are often used to build several (e.g. while generating).
+     */
+    public static Puzzle of(LocalDate publishedDate, boolean isDaily, @Nullable Long seed, List<Cube> cubes) {
+        return new Puzzle(null, publishedDate, isDaily, seed, new Cubes(cubes.stream().map(Cube::copy).toList()));
     }
 
-    public Puzzle(@Nullable Long id, LocalDate publishedDate, boolean isDaily, Cubes cubes) {
+    public Puzzle(@Nullable Long id, LocalDate publishedDate, boolean isDaily, @Nullable Long seed, Cubes cubes) {
         if (cubes.list().stream().map(Cube::getId).distinct().count() != cubes.list().size()) {
             throw new IllegalArgumentException("Cube IDs must be unique");
         }
+        if (cubes.list().stream().anyMatch(cube -> cube.getTopFace().puzzle != null)) {
+            throw new IllegalArgumentException("Cubes must not belong to another puzzle");
+        }
 
         this.id = id;
         this.publishedDate = publishedDate;
         this.isDaily = isDaily;
+        this.seed = seed;
         this.cubes = cubes;
 
         lengthX = cubes.list().stream().mapToInt(Cube::getX).max().orElse(-1) + 1;
@@ -331,7 +379,24 @@ public class Puzzle {
             throw new IllegalArgumentException("Cube coordinates must be unique");
         }
 
-        resolveNeighboursForCubeFaces();
+        faces = new Cube.Face[cubes.list().size() * FACES_PER_CUBE];
+        for (int i = 0; i < cubes.list().size(); i++) {
+            final Cube cube = cubes.list().get(i);
+            faces[i * FACES_PER_CUBE + Cube.Side.TOP.ordinal()] = cube.getTopFace();
+            faces[i * FACES_PER_CUBE + Cube.Side.LEFT.ordinal()] = cube.getLeftFace();
+            faces[i * FACES_PER_CUBE + Cube.Side.RIGHT.ordinal()] = cube.getRightFace();
+        }
+
+        neighbourOffsets = new int[faces.length + 1];
+        neighbours = resolveNeighboursForCubeFaces();
+
+        blockingCubeOffsets = new int[faces.length + 1];
+        blockingCubes = resolveBlockingCubesForCubeFaces();
+
+        for (int i = 0; i < faces.length; i++) {
+            faces[i].puzzle = this;
+            faces[i].index = i;
+        }
     }
 
     public @Nullable Long getId() {
@@ -346,6 +411,10 @@ public class Puzzle {
         return isDaily;
     }
 
+    public @Nullable Long getSeed() {
+        return seed;
+    }
+
     public List<Cube> getCubes() {
         return Collections.unmodifiableList(cubes.list());
     }
@@ -369,6 +438,90 @@ public class Puzzle {
         return lengthZ;
     }
 
+    /**
+     * {@return the number of faces in the puzzle (three per cube)}
+     */
+    public int getFaceCount() {
+        return faces.length;
+    }
+
+    /**
+     * Returns the face with the given index. The faces of the cube at position {@code i}
+     * of {@link #getCubes()} have indices {@code 3i} (top), {@code 3i + 1} (left), and
+     * {@code 3i + 2} (right).
+     *
+     * @param faceIndex the index of the face
+     * @return the face
+     */
+    public Cube.Face getFace(int faceIndex) {
+        return faces[faceIndex];
+    }
+
+    /**
+     * Returns the index of the given face. The face may belong to this puzzle or to an equal
+     * copy of it (e.g. the same puzzle loaded separately from the database).
+     *
+     * @param face the face to get the index of
+     * @return the index of the face in this puzzle
+     * @throws IllegalArgumentException if the puzzle has no such face
+     * @see #getFace(int)
+     */
+    public int getFaceIndex(Cube.Face face) {
+        if (face.puzzle == this) {
+            return face.index;
+        }
+
+        final Cube cube = face.getCube();
+        final Cube.Face ownFace = getCubeAtCoordinate(cube.getX(), cube.getY(), cube.getZ())
+                .map(ownCube -> switch (face.getSide()) {
+                    case TOP -> ownCube.getTopFace();
+                    case LEFT -> ownCube.getLeftFace();
+                    case RIGHT -> ownCube.getRightFace();
+                })
+                .filter(face::equals)
+                .orElseThrow(() -> new IllegalArgumentException("Face does not belong to this puzzle"));
+        return ownFace.index;
+    }
+
+    /**
+     * Returns the offsets into {@link #getFaceNeighbours()} of each face's neighbours. The
+     * neighbours of face {@code f} are stored from {@code offsets[f]} (inclusive) to
+     * {@code offsets[f + 1]} (exclusive). The returned array must not be modified.
+     */
+    int[] getFaceNeighbourOffsets() {
+        return neighbourOffsets;
+    }
+
+    /**
+     * Returns the face indices of every face's neighbours, grouped by face.
+     * The returned array must not be modified.
+     *
+     * @see #getFaceNeighbourOffsets()
+     */
+    int[] getFaceNeighbours() {
+        return neighbours;
+    }
+
+    /**
+     * Returns the offsets into {@link #getFaceBlockingCubes()} of the cubes blocking each face.
+     * The cubes blocking face {@code f} are stored from {@code offsets[f]} (inclusive) to
+     * {@code offsets[f + 1]} (exclusive). The returned array must not be modified.
+     */
+    int[] getFaceBlockingCubeOffsets() {
+        return blockingCubeOffsets;
+    }
+
+    /**
+     * Returns the indices of the cubes directly blocking visibility of every face, grouped by
+     * face. These are the cubes that must be removed before a face is fully visible and
+     * considered "in play". The returned array must not be modified.
+     *
+     * @see #getFaceBlockingCubeOffsets()
+     */
+    int[] getFaceBlockingCubes() {
+        return blockingCubes;
+    }
+
     public boolean isWithinBounds(int x, int y, int z) {
         return x >= 0 && y >= 0 && z >= 0 && x < lengthX && y < lengthY && z < lengthZ;
     }
@@ -386,17 +539,172 @@ public class Puzzle {
         return x * lengthY * lengthZ + y * lengthZ + z;
     }
 
-    private void resolveNeighboursForCubeFaces() {
-        final List<Cube.Face> allFaces = cubes.list().stream()
-                .flatMap(cube -> Stream.of(cube.getTopFace(), cube.getLeftFace(), cube.getRightFace()))
-                .toList();
+    /**
+     * Two faces are neighbours if they share an edge or corner, i.e. at least one vertex.
+     * Rather than comparing every pair of faces, each face's vertices are hashed to find the
+     * other faces touching them, so the graph is built in time linear in the number of faces.
+     *
+     * @return the neighbour face indices, grouped by face according to {@link #neighbourOffsets}
+     */
+    private int[] resolveNeighboursForCubeFaces() {
+        final VertexIndex vertexIndex = new VertexIndex(faces.length * VERTICES_PER_FACE);
+        final int[] faceVertices = new int[faces.length * VERTICES_PER_FACE];
+
+        for (int face = 0; face < faces.length; face++) {
+            final Cube cube = faces[face].getCube();
+            final int[][] vertexOffsets = Cube.Face.FACE_VERTICES[faces[face].getSide().ordinal()];
+            for (int vertex = 0; vertex < VERTICES_PER_FACE; vertex++) {
+                faceVertices[face * VERTICES_PER_FACE + vertex] = vertexIndex.getOrAdd(
+                        cube.getX() + vertexOffsets[vertex][0],
+                        cube.getY() + vertexOffsets[vertex][1],
+                        cube.getZ() + vertexOffsets[vertex][2]);
+            }
+        }
+
+        // Group faces by vertex (counting sort), so that we can look up all faces touching a vertex
+        final int[] vertexFaceOffsets = new int[vertexIndex.size() + 1];
+        for (final int vertex : faceVertices) {
+            vertexFaceOffsets[vertex + 1]++;
+        }
+        for (int vertex = 0; vertex < vertexIndex.size(); vertex++) {
+            vertexFaceOffsets[vertex + 1] += vertexFaceOffsets[vertex];
+        }
+        final int[] vertexFaces = new int[faceVertices.length];
+        final int[] vertexFillCounts = new int[vertexIndex.size()];
+        for (int i = 0; i < faceVertices.length; i++) {
+            final int vertex = faceVertices[i];
+            vertexFaces[vertexFaceOffsets[vertex] + vertexFillCounts[vertex]++] = i / VERTICES_PER_FACE;
+        }
+
+        // The neighbours of a face are all other faces touching any of its vertices.
+        // lastSeenBy marks faces already added as a neighbour of the current face.
+        final int[] lastSeenBy = new int[faces.length];
+        Arrays.fill(lastSeenBy, -1);
+        int[] neighbours = new int[faces.length * 8];
+        int neighbourCount = 0;
+
+        for (int face = 0; face < faces.length; face++) {
+            neighbourOffsets[face] = neighbourCount;
+            lastSeenBy[face] = face;
+
+            for (int vertex = 0; vertex < VERTICES_PER_FACE; vertex++) {
+                final int vertexId = faceVertices[face * VERTICES_PER_FACE + vertex];
+                for (int i = vertexFaceOffsets[vertexId]; i < vertexFaceOffsets[vertexId + 1]; i++) {
+                    final int otherFace = vertexFaces[i];
+                    if (lastSeenBy[otherFace] != face) {
+                        lastSeenBy[otherFace] = face;
+                        if (neighbourCount == neighbours.length) {
+                            neighbours = Arrays.copyOf(neighbours, neighbours.length * 2);
+                        }
+                        neighbours[neighbourCount++] = otherFace;
+                    }
+                }
+            }
+        }
+        neighbourOffsets[faces.length] = neighbourCount;
+
+        return Arrays.copyOf(neighbours, neighbourCount);
+    }
+
+    /**
+     * Finds the cubes directly blocking visibility of each face, i.e. the cubes in front of
+     * any of the face's vertices along the isometric viewing direction.
+     *
+     * @return the blocking cube indices, grouped by face according to {@link #blockingCubeOffsets}
+     */
+    private int[] resolveBlockingCubesForCubeFaces() {
+        final Map<Cube, Integer> cubeIndices = new IdentityHashMap<>();
+        for (int i = 0; i < cubes.list().size(); i++) {
+            cubeIndices.put(cubes.list().get(i), i);
+        }
 
-        for (final Cube.Face face : allFaces) {
-            for (final Cube.Face otherFace : allFaces) {
-                if (face != otherFace && face.isTouching(otherFace)) {
-                    face.addNeighbour(otherFace);
+        // lastSeenBy marks cubes already added as blocking the current face
+        final int[] lastSeenBy = new int[cubes.list().size()];
+        Arrays.fill(lastSeenBy, -1);
+        int[] blockingCubes = new int[faces.length];
+        int blockingCubeCount = 0;
+
+        for (int face = 0; face < faces.length; face++) {
+            blockingCubeOffsets[face] = blockingCubeCount;
+
+            final Cube cube = faces[face].getCube();
+            // A cube blocks a face if it lies on the isometric ray from any of the face's vertices
+            final int[][] vertexOffsets = Cube.Face.FACE_VERTICES[faces[face].getSide().ordinal()];
+            for (final int[] offset : vertexOffsets) {
+                for (final Cube blockingCube : getCubesBlockingCoordinate(
+                        cube.getX() + offset[0], cube.getY() + offset[1], cube.getZ() + offset[2])) {
+                    final int blockingCubeIndex = cubeIndices.get(blockingCube);
+                    if (lastSeenBy[blockingCubeIndex] != face) {
+                        lastSeenBy[blockingCubeIndex] = face;
+                        if (blockingCubeCount == blockingCubes.length) {
+                            blockingCubes = Arrays.copyOf(blockingCubes, Math.max(1, blockingCubes.length * 2));
+                        }
+                        blockingCubes[blockingCubeCount++] = blockingCubeIndex;
+                    }
                 }
             }
         }
+        blockingCubeOffsets[faces.length] = blockingCubeCount;
+
+        return Arrays.copyOf(blockingCubes, blockingCubeCount);
+    }
+
+    /**
+     * Finds cubes that occlude visibility along an isometric ray from the given coordinate pointed
+     * towards the camera/screen. In isometric projection, occlusion happens along diagonal rays
+     * with equal x, y, and z increments.
+     *
+     * @param x the starting x coordinate of the ray
+     * @param y the starting y coordinate of the ray
+     * @param z the starting z coordinate of the ray
+     * @return all cubes blocking the ray
+     */
+    private List<Cube> getCubesBlockingCoordinate(int x, int y, int z) {
+        final List<Cube> cubes = new ArrayList<>();
+        for (int i = 0; isWithinBounds(x + i, y + i, z + i); i++) {
+            getCubeAtCoordinate(x + i, y + i, z + i).ifPresent(cubes::add);
+        }
+        return cubes;
+    }
+
+    /**
+     * A spatial hash assigning consecutive IDs to distinct vertex coordinates, using open
+     * addressing over primitive arrays.
+     */
+    private static final class VertexIndex {
+
+        private final long[] keys;
+
+        private final int[] ids;
+
+        private int size = 0;
+
+        private VertexIndex(int maxVertices) {
+            final int capacity = Integer.highestOneBit(Math.max(maxVertices, 1) * 2) * 2;
+            keys = new long[capacity];
+            ids = new int[capacity];
+            Arrays.fill(ids, -1);
+        }
+
+        private int getOrAdd(int x, int y, int z) {
+            final long key = ((long) x << 42) | ((long) y << 21) | z;
+            final int mask = keys.length - 1;
+
+            int slot = Long.hashCode(key * 0x9e3779b97f4a7c15L) & mask;
+            while (ids[slot] != -1) {
+                if (keys[slot] == key) {
+                    return ids[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            keys[slot] = key;
+            ids[slot] = size;
+            return size++;
+        }
+
+        private int size() {
+            return size;
+        }
     }
 }
@@ -0,0 +1,223 @@
+package com.lexicubes.backend.puzzle;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+import java.util.function.LongFunction;
+
+/**
+ * Searches for a good puzzle by generating candidate puzzles in parallel, solving each one,
+ * and keeping the candidate whose {@link PuzzleQuality} scores best against the configured
+ * targets.
+ * <p>
+ * The search stops once every candidate has been evaluated or the time budget runs out,
+ * whichever is first. Candidates that have not finished by then are abandoned (interrupting
+ * their solves), but at least one candidate is always evaluated. Candidates that cannot be
+ * solved within the solver's default budget are skipped. The candidates are evaluated on an
+ * executor owned by the search, so that abandoning them never interrupts threads shared with
+ * other work, such as those of the common pool.
+ * <p>
+ * Each candidate is generated from its own seed, drawn in order from the seed of the search, so
+ * the candidates of a search are the same however they are scheduled, and the chosen puzzle can
+ * be regenerated from {@link Result#seed()}.
+ */
+@Service
+public class PuzzleCandidateSearch {
+
+    private static final Logger logger = LoggerFactory.getLogger(PuzzleCandidateSearch.class);
+
+    /**
+     * The best candidate found by a search.
+     *
+     * @param seed           the seed the candidate was generated from
+     * @param cubes          the cubes of the candidate
+     * @param solutions      the solutions of the candidate
+     * @param quality        the quality of the candidate
+     * @param score          the score of the candidate against the targets
+     * @param evaluatedCount the number of candidates evaluated by the search
+     * @param elapsed        how long the search took
+     */
+    public record Result(long seed,
+                         List<Puzzle.Cube> cubes,
+                         List<PuzzleSolver.PuzzleSolution> solutions,
+                         PuzzleQuality quality,
+                         double score,
+                         int evaluatedCount,
+                         Duration elapsed) {
+
+        /**
+         * {@return the number of candidates evaluated per second}
+         */
+        public double getCandidatesPerSecond() {
+            final double seconds = elapsed.toNanos() / 1e9;
+            return seconds == 0 ? evaluatedCount : evaluatedCount / seconds;
+        }
+    }
+
+    private record Candidate(long seed,
+                             List<Puzzle.Cube> cubes,
+                             List<PuzzleSolver.PuzzleSolution> solutions,
+                             PuzzleQuality quality,
+                             double score) {}
+
+    private final PuzzleSolver puzzleSolver;
+
+    /**
+     * Evaluates the candidates, and is shut down along with the search.
+     */
+    private final ExecutorService executor;
+
+    private final int candidateCount;
+
+    private final Duration timeBudget;
+
+    private final PuzzleQuality.Targets targets;
+
+    @Autowired
+    public PuzzleCandidateSearch(PuzzleSolver puzzleSolver,
+                                 @Value("${app.puzzle-generator.search.candidates:64}") int candidateCount,
+                                 @Value("${app.puzzle-generator.search.time-budget:10s}") Duration timeBudget,
+                                 @Value("${app.puzzle-generator.search.min-required-words:60}") int minRequiredWordCount,
+                                 @Value("${app.puzzle-generator.search.bonus-ratio:0.9}") double bonusRatio,
+                                 @Value("${app.puzzle-generator.search.min-longest-word-length:10}") int minLongestWordLength,
+                                 @Value("${app.puzzle-generator.search.min-distinct-letters:16}") int minDistinctLetterCount) {
+
+        this(puzzleSolver, Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(),
+                Thread.ofPlatform().name("puzzle-candidate-search-", 0).daemon().factory()),
+                candidateCount, timeBudget, new PuzzleQuality.Targets(
+                minRequiredWordCount,
+                bonusRatio,
+                minLongestWordLength,
+                minDistinctLetterCount));
+    }
+
+    public PuzzleCandidateSearch(PuzzleSolver puzzleSolver,
+                                 ExecutorService executor,
+                                 int candidateCount,
+                                 Duration timeBudget,
+                                 PuzzleQuality.Targets targets) {
+
+        if (candidateCount < 1) {
+            throw new IllegalArgumentException("At least one candidate must be searched");
+        }
+
+        this.puzzleSolver = puzzleSolver;
+        this.executor = executor;
+        this.candidateCount = candidateCount;
+        this.timeBudget = timeBudget;
+        this.targets = targets;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Searches for the best puzzle among candidates with cubes from the given generator.
+     *
+     * @param seed           the seed to draw the seeds of the candidates from
+     * @param cubesGenerator generates the cubes of a candidate puzzle from its seed (called
+     *                       concurrently, and expected to be deterministic)
+     * @return the best candidate found
+     */
+    public Result search(long seed, LongFunction<List<Puzzle.Cube>> cubesGenerator) {
+        final long startTime = System.nanoTime();
+        final long deadline = startTime + timeBudget.toNanos();
+
+        final CompletionService<Candidate> completionService = new ExecutorCompletionService<>(executor);
+        final List<Future<Candidate>> futures = new ArrayList<>(candidateCount);
+        final SplittableRandom seeds = new SplittableRandom(seed);
+        for (int i = 0; i < candidateCount; i++) {
+            final long candidateSeed = seeds.nextLong();
+            futures.add(completionService.submit(() ->
+                    evaluateCandidate(candidateSeed, cubesGenerator.apply(candidateSeed))));
+        }
+
+        Candidate best = null;
+        int evaluatedCount = 0;
+        try {
+            while (evaluatedCount < candidateCount) {
+                final Future<Candidate> future = best == null
+                        ? completionService.take()
+                        : completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (future == null) {
+                    break;
+                }
+
+                final Candidate candidate = future.get();
+                evaluatedCount++;
+                if (candidate != null && (best == null || isBetter(candidate, best))) {
+                    best = candidate;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching for a puzzle", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to evaluate a candidate puzzle", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        if (best == null) {
+            throw new PuzzleTooLargeException("None of the candidate puzzles could be solved within the search budget");
+        }
+
+        final Result result = new Result(
+                best.seed(),
+                best.cubes(),
+                best.solutions(),
+                best.quality(),
+                best.score(),
+                evaluatedCount,
+                Duration.ofNanos(System.nanoTime() - startTime));
+
+        logger.info("Evaluated {} candidate puzzles in {} ms ({} per second), best scored {} with {}",
+                result.evaluatedCount(),
+                result.elapsed().toMillis(),
+                String.format("%.1f", result.getCandidatesPerSecond()),
+                String.format("%.3f", result.score()),
+                result.quality());
+
+        return result;
+    }
+
+    /**
+     * Ties are broken by seed, so that which of two equally scored candidates is chosen does not
+     * depend on which finished first.
+     */
+    private static boolean isBetter(Candidate candidate, Candidate best) {
+        final int comparison = Double.compare(candidate.score(), best.score());
+        return comparison > 0 || comparison == 0 && candidate.seed() < best.seed();
+    }
+
+    /**
+     * {@return the evaluated candidate, or null if it could not be solved within the budget}
+     */
+    private Candidate evaluateCandidate(long seed, List<Puzzle.Cube> cubes) {
+        return switch (puzzleSolver.trySolve(Puzzle.of(cubes))) {
+            case SolveOutcome.Solved solved -> {
+                final PuzzleQuality quality = PuzzleQuality.of(cubes, solved.solutions());
+                yield new Candidate(seed, cubes, solved.solutions(), quality, quality.score(targets));
+            }
+            case SolveOutcome.BudgetExceeded budgetExceeded -> {
+                // Abandoned candidates are interrupted once the search is over, which is expected
+                if (budgetExceeded.reason() != SolveOutcome.Reason.INTERRUPTED) {
+                    logger.warn("Skipping candidate puzzle generated from seed {}: {}", seed, budgetExceeded.message());
+                }
+                yield null;
+            }
+        };
+    }
+}
@@ -1,56 +1,108 @@
 package com.lexicubes.backend.puzzle;
 
+import org.jetbrains.annotations.Nullable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 public class PuzzleController {
 
+    /**
+     * The time zone furthest behind UTC. A daily puzzle is in the past once its date has
+     * ended here, since it has then ended everywhere.
+     */
+    private static final ZoneOffset LATEST_TIME_ZONE = ZoneOffset.ofHours(-12);
+
+    private static final CacheControl PAST_DAILY_PUZZLE_CACHE_CONTROL = CacheControl
+            .maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable();
+
+    public record PuzzleStateRequestBody(List<Integer> removedCubeIds) {}
+
     private final PuzzleRepository puzzleRepository;
     private final PuzzleGenerator puzzleGenerator;
-    private final PuzzleSolver puzzleSolver;
+    private final PuzzleResponseService puzzleResponseService;
+    private final PuzzleStateService puzzleStateService;
 
     public PuzzleController(PuzzleRepository puzzleRepository,
                             PuzzleGenerator puzzleGenerator,
-                            PuzzleSolver puzzleSolver) {
+                            PuzzleResponseService puzzleResponseService,
+                            PuzzleStateService puzzleStateService) {
 
         this.puzzleRepository = puzzleRepository;
         this.puzzleGenerator = puzzleGenerator;
-        this.puzzleSolver = puzzleSolver;
+        this.puzzleResponseService = puzzleResponseService;
+        this.puzzleStateService = puzzleStateService;
     }
 
     @GetMapping("/api/puzzles/{id}")
-    public PuzzleResponse getPuzzle(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getPuzzle(@PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                            @Nullable String acceptEncoding) {
+
+        final Optional<Puzzle> puzzle = puzzleRepository.findById(id);
+        if (puzzle.isEmpty()) {
+            throw new PuzzleNotFoundException();
+        }
+
+        return toPuzzleResponseEntity(puzzle.get(), acceptEncoding);
+    }
+
+    @PostMapping("/api/puzzles/{id}/state")
+    public PuzzleStateResponse getPuzzleState(@PathVariable Long id,
+                                              @RequestBody PuzzleStateRequestBody requestBody) {
+
         final Optional<Puzzle> puzzle = puzzleRepository.findById(id);
         if (puzzle.isEmpty()) {
             throw new PuzzleNotFoundException();
         }
 
-        final List<PuzzleSolver.PuzzleSolution> solutions = puzzleSolver.solve(puzzle.get());
+        final List<Integer> removedCubeIds = Optional.ofNullable(requestBody.removedCubeIds()).orElse(List.of());
 
-        return PuzzleMapper.toPuzzleResponse(puzzle.get(), solutions);
+        final Set<Integer> cubeIds = puzzle.get().getCubes().stream()
+                .map(Puzzle.Cube::getId)
+                .collect(Collectors.toSet());
+        if (!cubeIds.containsAll(removedCubeIds)) {
+            throw new InvalidPuzzleStateException();
+        }
+
+        final List<PuzzleSolver.PuzzleSolution> solutions = puzzleStateService.getStateGraph(puzzle.get())
+                .getSolutionsAfterRemovingCubes(removedCubeIds);
+
+        return PuzzleMapper.toPuzzleStateResponse(puzzle.get(), removedCubeIds, solutions);
     }
 
     @GetMapping("/api/puzzles/daily/{date}")
-    public PuzzleResponse getDailyPuzzle(@PathVariable @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
+    public ResponseEntity<byte[]> getDailyPuzzle(@PathVariable @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                 @Nullable String acceptEncoding) {
+
         final Optional<Puzzle> puzzle = puzzleRepository.findDailyByPublishedDate(date);
         if (puzzle.isEmpty()) {
             throw new PuzzleNotFoundException();
         }
 
-        final List<PuzzleSolver.PuzzleSolution> solutions = puzzleSolver.solve(puzzle.get());
-
-        return PuzzleMapper.toPuzzleResponse(puzzle.get(), solutions);
+        return toPuzzleResponseEntity(puzzle.get(), acceptEncoding);
     }
 
     @PostMapping("/api/admin/puzzles/daily")
@@ -65,4 +117,48 @@ public class PuzzleController {
 
         return ResponseEntity.created(location).build();
     }
+
+    /**
+     * Builds the response for the given puzzle from its pre-serialized form, compressed if the
+     * client accepts gzip. The response carries an entity tag, so that requests with a matching
+     * {@code If-None-Match} header are answered with 304 Not Modified and no body.
+     */
+    private ResponseEntity<byte[]> toPuzzleResponseEntity(Puzzle puzzle, @Nullable String acceptEncoding) {
+        final SerializedPuzzleResponse response = puzzleResponseService.getSerializedPuzzleResponse(puzzle);
+
+        final ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(isPastDailyPuzzle(puzzle) ? PAST_DAILY_PUZZLE_CACHE_CONTROL : CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (isGzipAccepted(acceptEncoding)) {
+            return responseBuilder
+                    .eTag(response.gzippedETag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(response.gzippedJson());
+        }
+
+        return responseBuilder
+                .eTag(response.eTag())
+                .body(response.json());
+    }
+
+    private static boolean isPastDailyPuzzle(Puzzle puzzle) {
+        return puzzle.isDaily() && puzzle.getPublishedDate().isBefore(LocalDate.now(LATEST_TIME_ZONE));
+    }
+
+    private static boolean isGzipAccepted(@Nullable String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (final String coding : acceptEncoding.split(",")) {
+            final String[] codingParts = coding.split(";");
+            if (codingParts[0].trim().equalsIgnoreCase("gzip")) {
+                return codingParts.length == 1 || !codingParts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+
+        return false;
+    }
 }
@@ -0,0 +1,114 @@
+package com.lexicubes.backend.puzzle;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes the cubes of a puzzle into the compact binary form stored in the {@code puzzles.cubes}
+ * column. The encoding is:
+ * <ol>
+ *     <li>the format version (one byte), and the number of cubes, followed by for each cube:</li>
+ *     <li>the difference between its ID and one more than the previous cube's ID (zigzag encoded),</li>
+ *     <li>its x, y, and z coordinates,</li>
+ *     <li>the letters of its top, left, and right faces, packed five bits each into two bytes.</li>
+ * </ol>
+ * Counts, IDs and coordinates are written as variable-length integers (see {@link VarInts}).
+ * Cubes are usually numbered consecutively, so each cube of a typical puzzle takes six bytes.
+ * Face IDs are not stored, since they are derived from the cube IDs.
+ */
+public final class PuzzleCubesCodec {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int BITS_PER_LETTER = 5;
+
+    private static final int LETTER_MASK = (1 << BITS_PER_LETTER) - 1;
+
+    private PuzzleCubesCodec() {}
+
+    /**
+     * Encodes the given cubes.
+     *
+     * @param cubes the cubes to encode
+     * @return the encoded cubes
+     */
+    public static byte[] encode(Puzzle.Cubes cubes) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(2 + 6 * cubes.list().size());
+        out.write(FORMAT_VERSION);
+        VarInts.write(out, cubes.list().size());
+
+        int previousId = -1;
+        for (final Puzzle.Cube cube : cubes.list()) {
+            final int idDelta = cube.getId() - previousId - 1;
+            VarInts.write(out, (idDelta << 1) ^ (idDelta >> 31));
+            previousId = cube.getId();
+
+            VarInts.write(out, cube.getX());
+            VarInts.write(out, cube.getY());
+            VarInts.write(out, cube.getZ());
+
+            final int letters = (cube.getTopFace().getLetter() - 'a') << (2 * BITS_PER_LETTER)
+                    | (cube.getLeftFace().getLetter() - 'a') << BITS_PER_LETTER
+                    | (cube.getRightFace().getLetter() - 'a');
+            out.write(letters >>> Byte.SIZE);
+            out.write(letters);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes cubes previously encoded by {@link #encode(Puzzle.Cubes)}.
+     *
+     * @param encoded the encoded cubes
+     * @return the decoded cubes
+     * @throws IllegalArgumentException if the encoding is malformed or in an unsupported format
+     */
+    public static Puzzle.Cubes decode(byte[] encoded) {
+        final ByteBuffer in = ByteBuffer.wrap(encoded);
+        try {
+            final int formatVersion = in.get();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported cubes format version: " + formatVersion);
+            }
+
+            final int cubeCount = VarInts.read(in);
+            if (cubeCount < 0 || cubeCount > in.remaining()) {
+                throw new IllegalArgumentException("Invalid cube count: " + cubeCount);
+            }
+
+            final List<Puzzle.Cube> cubes = new ArrayList<>(cubeCount);
+            int previousId = -1;
+            for (int i = 0; i < cubeCount; i++) {
+                final int zigzagIdDelta = VarInts.read(in);
+                final int id = previousId + 1 + ((zigzagIdDelta >>> 1) ^ -(zigzagIdDelta & 1));
+                previousId = id;
+
+                final int x = VarInts.read(in);
+                final int y = VarInts.read(in);
+                final int z = VarInts.read(in);
+
+                final int letters = (in.get() & 0xff) << Byte.SIZE | (in.get() & 0xff);
+                cubes.add(new Puzzle.Cube(id, x, y, z,
+                        toLetter(letters >>> (2 * BITS_PER_LETTER)),
+                        toLetter(letters >>> BITS_PER_LETTER),
+                        toLetter(letters)));
+            }
+
+            if (in.hasRemaining()) {
+                throw new IllegalArgumentException("Unexpected data after cubes");
+            }
+
+            return new Puzzle.Cubes(cubes);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated cubes", e);
+        }
+    }
+
+    private static char toLetter(int bits) {
+        return (char) ('a' + (bits & LETTER_MASK));
+    }
+}
@@ -1,63 +1,189 @@
 package com.lexicubes.backend.puzzle;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
-import java.util.Random;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
 
 @Service
 public class PuzzleGenerator {
 
+    private static final Logger logger = LoggerFactory.getLogger(PuzzleGenerator.class);
+
+    private static final PuzzleShape DAILY_PUZZLE_SHAPE = PuzzleShape.pyramid(3);
+
+    private static final String DAILY_SEED_ALGORITHM = "HmacSHA256";
+
     private final PuzzleRepository puzzleRepository;
 
-    private final Random random;
+    private final PuzzleSolutionsService puzzleSolutionsService;
+
+    private final PuzzleCandidateSearch puzzleCandidateSearch;
+
+    private final TransactionTemplate serializableTransaction;
+
+    private final SecretKeySpec dailySeedKey;
+
+    public PuzzleGenerator(PuzzleRepository puzzleRepository,
+                           PuzzleSolutionsService puzzleSolutionsService,
+                           PuzzleCandidateSearch puzzleCandidateSearch,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.puzzle-generator.seed-salt}") String seedSalt) {
+
+        if (seedSalt.isBlank()) {
+            throw new IllegalArgumentException("Daily puzzle seed salt must not be blank");
+        }
 
-    public PuzzleGenerator(PuzzleRepository puzzleRepository) {
         this.puzzleRepository = puzzleRepository;
-        random = new Random();
+        this.puzzleSolutionsService = puzzleSolutionsService;
+        this.puzzleCandidateSearch = puzzleCandidateSearch;
+        this.dailySeedKey = new SecretKeySpec(seedSalt.getBytes(StandardCharsets.UTF_8), DAILY_SEED_ALGORITHM);
+        serializableTransaction = new TransactionTemplate(transactionManager);
+        serializableTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
-    public Puzzle generateAndSaveDailyPuzzle() {
+    /**
+     * {@return the date of the next daily puzzle to be published}
+     * Daily puzzles are published at midnight in the earliest time zone (UTC+14), and the next
+     * one is considered published up to an hour early.
+     */
+    public LocalDate getNextDailyPuzzleDate() {
         final ZonedDateTime currentTime = ZonedDateTime.now(ZoneId.of("UTC+14:00"));
-        final LocalDate date = currentTime.plusHours(1).toLocalDate();
+        return currentTime.plusHours(1).toLocalDate();
+    }
 
-        final Optional<Puzzle> existingPuzzle = puzzleRepository.findDailyByPublishedDate(date);
-        return existingPuzzle.orElseGet(() -> puzzleRepository.save(Puzzle.of(date, true, generatePyramidPuzzleCubes(3))));
+    public Puzzle generateAndSaveDailyPuzzle() {
+        final LocalDate date = getNextDailyPuzzleDate();
+        generateAndSaveDailyPuzzles(date, 1);
+        return puzzleRepository.findDailyByPublishedDate(date).orElseThrow();
     }
 
-    public List<Puzzle.Cube> generatePyramidPuzzleCubes(int size) {
-        final List<Puzzle.Cube> cubes = new ArrayList<>();
+    /**
+     * Generates and saves daily puzzles for any of the given days that do not have one yet.
+     * <p>
+     * Candidates are searched for outside any transaction, as that takes up to the search's time
+     * budget per puzzle. The new puzzles are then inserted in a single batch, within a
+     * serializable transaction that checks again for dates that have been filled in meanwhile.
+     * Candidates are solved to be scored anyway, so the solutions of the chosen ones are stored
+     * with them, rather than found by whichever request first reads each puzzle.
+     *
+     * @param fromDate the first date to generate a puzzle for
+     * @param dayCount the number of consecutive days to generate puzzles for
+     * @return the number of puzzles that were generated and saved
+     */
+    public int generateAndSaveDailyPuzzles(LocalDate fromDate, int dayCount) {
+        final LocalDate toDate = fromDate.plusDays(dayCount - 1);
+        final List<LocalDate> missingDates = findMissingDailyPuzzleDates(fromDate, toDate);
+        if (missingDates.isEmpty()) {
+            return 0;
+        }
 
-        int cubeId = 0;
-        for (int y = 0; y < size; y++) {
-            for (int x = 0; x < size - y; x++) {
-                for (int z = 0; z < size - y; z++) {
-                    cubes.add(new Puzzle.Cube(cubeId++, x, y, z,
-                            getRandomLetter(), getRandomLetter(), getRandomLetter()));
-                }
+        final Map<LocalDate, PuzzleCandidateSearch.Result> results = new TreeMap<>();
+        for (final LocalDate date : missingDates) {
+            final PuzzleCandidateSearch.Result result = puzzleCandidateSearch.search(
+                    getDailySeed(date),
+                    seed -> generatePuzzleCubes(DAILY_PUZZLE_SHAPE, seed));
+            logger.info("Chose the daily puzzle for {} generated from seed {}", date, result.seed());
+            results.put(date, result);
+        }
+
+        final Integer savedCount = serializableTransaction.execute(status -> {
+            results.keySet().retainAll(findMissingDailyPuzzleDates(fromDate, toDate));
+
+            final List<Puzzle> puzzles = new ArrayList<>(results.size());
+            results.forEach((date, result) -> puzzles.add(Puzzle.of(date, true, result.seed(), result.cubes())));
+
+            for (final Puzzle puzzle : puzzleRepository.saveAll(puzzles)) {
+                puzzleSolutionsService.save(puzzle, results.get(puzzle.getPublishedDate()).solutions());
             }
+            return puzzles.size();
+        });
+
+        logger.info("Generated {} daily puzzles between {} and {}", savedCount, fromDate, toDate);
+        return savedCount;
+    }
+
+    private List<LocalDate> findMissingDailyPuzzleDates(LocalDate fromDate, LocalDate toDate) {
+        final Set<LocalDate> existingDates = new HashSet<>(puzzleRepository.findDailyPublishedDatesBetween(fromDate, toDate));
+        return fromDate.datesUntil(toDate.plusDays(1))
+                .filter(date -> !existingDates.contains(date))
+                .toList();
+    }
+
+    /**
+     * {@return the seed that the candidate puzzles for the given date are generated from}
+     * The seed is an HMAC of the date keyed with the secret seed salt, so that the boards of
+     * future dates cannot be generated ahead of time by anyone without the salt.
+     */
+    public long getDailySeed(LocalDate date) {
+        try {
+            final Mac mac = Mac.getInstance(DAILY_SEED_ALGORITHM);
+            mac.init(dailySeedKey);
+            final byte[] hash = mac.doFinal(ByteBuffer.allocate(Long.BYTES).putLong(date.toEpochDay()).array());
+            return ByteBuffer.wrap(hash).getLong();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to derive the daily puzzle seed", e);
         }
+    }
 
-        return cubes;
+    /**
+     * Generates the cubes of a pyramid puzzle with random letters.
+     */
+    public static List<Puzzle.Cube> generatePyramidPuzzleCubes(int size) {
+        return generatePuzzleCubes(PuzzleShape.pyramid(size), new SplittableRandom());
     }
 
-    private char getRandomLetter() {
-        double randomNumber = random.nextDouble();
-        for (int i = 0; i < LETTER_FREQUENCY.length; i++) {
-            randomNumber -= LETTER_FREQUENCY[i];
-            if (randomNumber <= 0) {
-                return (char) ('a' + i);
-            }
+    /**
+     * Generates the cubes of a pyramid puzzle with letters drawn from the given seed.
+     *
+     * @see #generatePuzzleCubes(PuzzleShape, long)
+     */
+    public static List<Puzzle.Cube> generatePyramidPuzzleCubes(int size, long seed) {
+        return generatePuzzleCubes(PuzzleShape.pyramid(size), seed);
+    }
+
+    /**
+     * Generates the cubes of a puzzle of the given shape, with the shape (if randomized) and the
+     * letters drawn from the given seed. The same shape and seed always give the same cubes, so
+     * any generated puzzle can be regenerated from its seed (see
+     * {@link PuzzleCandidateSearch.Result#seed()}).
+     */
+    public static List<Puzzle.Cube> generatePuzzleCubes(PuzzleShape shape, long seed) {
+        return generatePuzzleCubes(shape, new SplittableRandom(seed));
+    }
+
+    private static List<Puzzle.Cube> generatePuzzleCubes(PuzzleShape shape, SplittableRandom random) {
+        final List<PuzzleShape.Position> positions = shape.getPositions(random);
+        final List<Puzzle.Cube> cubes = new ArrayList<>(positions.size());
+
+        int cubeId = 0;
+        for (final PuzzleShape.Position position : positions) {
+            cubes.add(new Puzzle.Cube(cubeId++, position.x(), position.y(), position.z(),
+                    LETTER_SAMPLER.sample(random),
+                    LETTER_SAMPLER.sample(random),
+                    LETTER_SAMPLER.sample(random)));
         }
-        return 'z';
+
+        return cubes;
     }
 
     /**
@@ -92,4 +218,6 @@ public class PuzzleGenerator {
             0.0160, // y
             0.0044  // z
     };
+
+    private static final LetterSampler LETTER_SAMPLER = LetterSampler.of(LETTER_FREQUENCY);
 }
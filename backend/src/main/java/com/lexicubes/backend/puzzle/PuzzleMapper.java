@@ -1,5 +1,6 @@
 package com.lexicubes.backend.puzzle;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 
@@ -32,6 +33,21 @@ public class PuzzleMapper {
                 puzzleResponseSolutions);
     }
 
+    public static PuzzleStateResponse toPuzzleStateResponse(Puzzle puzzle,
+                                                            Collection<Integer> removedCubeIds,
+                                                            List<PuzzleSolver.PuzzleSolution> solutions) {
+
+        final List<PuzzleResponse.Solution> puzzleResponseSolutions = solutions.stream()
+                .map(PuzzleMapper::toPuzzleResponseSolution)
+                .sorted(Comparator.comparing(PuzzleResponse.Solution::word))
+                .toList();
+
+        return new PuzzleStateResponse(
+                puzzle.getId(),
+                removedCubeIds.stream().sorted().distinct().toList(),
+                puzzleResponseSolutions);
+    }
+
     public static PuzzleResponse.Cube toPuzzleResponseCube(Puzzle.Cube cube) {
         return new PuzzleResponse.Cube(
                 cube.getId(),
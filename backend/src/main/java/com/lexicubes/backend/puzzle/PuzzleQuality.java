@@ -0,0 +1,90 @@
+package com.lexicubes.backend.puzzle;
+
+import java.util.List;
+
+/**
+ * Measures of how good a puzzle is to play.
+ *
+ * @param requiredWordCount   the number of required (non-bonus) words
+ * @param bonusWordCount      the number of bonus words
+ * @param longestWordLength   the length of the longest word, bonus or not
+ * @param distinctLetterCount the number of distinct letters on the faces of the puzzle
+ */
+public record PuzzleQuality(int requiredWordCount,
+                            int bonusWordCount,
+                            int longestWordLength,
+                            int distinctLetterCount) {
+
+    /**
+     * Measures the quality of a puzzle from its cubes and solutions.
+     *
+     * @param cubes     the cubes of the puzzle
+     * @param solutions the solutions of the puzzle
+     * @return the quality of the puzzle
+     */
+    public static PuzzleQuality of(List<Puzzle.Cube> cubes, List<PuzzleSolver.PuzzleSolution> solutions) {
+        int requiredWordCount = 0;
+        int longestWordLength = 0;
+        for (final PuzzleSolver.PuzzleSolution solution : solutions) {
+            if (!solution.isBonus()) {
+                requiredWordCount++;
+            }
+            longestWordLength = Math.max(longestWordLength, solution.word().length());
+        }
+
+        int letterMask = 0;
+        for (final Puzzle.Cube cube : cubes) {
+            letterMask |= 1 << (cube.getTopFace().getLetter() - 'a');
+            letterMask |= 1 << (cube.getLeftFace().getLetter() - 'a');
+            letterMask |= 1 << (cube.getRightFace().getLetter() - 'a');
+        }
+
+        return new PuzzleQuality(
+                requiredWordCount,
+                solutions.size() - requiredWordCount,
+                longestWordLength,
+                Integer.bitCount(letterMask));
+    }
+
+    /**
+     * {@return the fraction of all words that are bonus words, or 0 if there are no words}
+     */
+    public double getBonusRatio() {
+        final int wordCount = requiredWordCount + bonusWordCount;
+        return wordCount == 0 ? 0 : (double) bonusWordCount / wordCount;
+    }
+
+    /**
+     * Targets for the quality of generated puzzles.
+     *
+     * @param minRequiredWordCount   the minimum number of required words
+     * @param bonusRatio             the ideal fraction of all words that are bonus words
+     * @param minLongestWordLength   the minimum length of the longest word
+     * @param minDistinctLetterCount the minimum number of distinct letters
+     */
+    public record Targets(int minRequiredWordCount,
+                          double bonusRatio,
+                          int minLongestWordLength,
+                          int minDistinctLetterCount) {}
+
+    /**
+     * Scores this quality against the given targets. A puzzle meeting every minimum and with
+     * exactly the target bonus ratio scores 0, and each target missed lowers the score by how
+     * far it was missed, relative to the target. Higher scores are better.
+     *
+     * @param targets the targets to score against
+     * @return the score, which is at most 0
+     */
+    public double score(Targets targets) {
+        final double penalty = getShortfall(requiredWordCount, targets.minRequiredWordCount())
+                + Math.abs(getBonusRatio() - targets.bonusRatio())
+                + getShortfall(longestWordLength, targets.minLongestWordLength())
+                + getShortfall(distinctLetterCount, targets.minDistinctLetterCount());
+
+        return penalty == 0 ? 0 : -penalty;
+    }
+
+    private static double getShortfall(int actual, int minimum) {
+        return minimum <= 0 ? 0 : Math.max(0, minimum - actual) / (double) minimum;
+    }
+}
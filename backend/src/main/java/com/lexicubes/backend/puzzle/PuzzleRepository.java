@@ -8,6 +8,7 @@ import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public interface PuzzleRepository extends CrudRepository<Puzzle, Long> {
@@ -24,11 +25,22 @@ public interface PuzzleRepository extends CrudRepository<Puzzle, Long> {
     })
     <S extends Puzzle> @NotNull S save(@NotNull S entity);
 
+    /**
+     * Inserts new puzzles in a single batch. Misses for their publication dates may have been
+     * cached, so the whole daily puzzle cache is evicted.
+     */
     @Override
-    @Cacheable(cacheNames = "puzzle")
+    @CacheEvict(cacheNames = "dailyPuzzleByPublishedDate", allEntries = true)
+    <S extends Puzzle> @NotNull Iterable<S> saveAll(@NotNull Iterable<S> entities);
+
+    @Override
+    @Cacheable(cacheNames = "puzzle", sync = true)
     @NotNull Optional<Puzzle> findById(@NotNull Long id);
 
     @Query("SELECT * FROM puzzles WHERE is_daily = TRUE AND published_date = :publishedDate LIMIT 1")
-    @Cacheable(cacheNames = "dailyPuzzleByPublishedDate")
+    @Cacheable(cacheNames = "dailyPuzzleByPublishedDate", sync = true)
     @NotNull Optional<Puzzle> findDailyByPublishedDate(@NotNull LocalDate publishedDate);
+
+    @Query("SELECT published_date FROM puzzles WHERE is_daily = TRUE AND published_date BETWEEN :fromDate AND :toDate")
+    @NotNull List<LocalDate> findDailyPublishedDatesBetween(@NotNull LocalDate fromDate, @NotNull LocalDate toDate);
 }
@@ -0,0 +1,47 @@
+package com.lexicubes.backend.puzzle;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serializes puzzle responses once per puzzle. Published puzzles never change, so a response
+ * only has to be rebuilt when the puzzle's solutions change with the dictionary, which is part
+ * of the cache key.
+ */
+@Service
+public class PuzzleResponseService {
+
+    private final PuzzleSolutionsService puzzleSolutionsService;
+
+    private final ObjectMapper objectMapper;
+
+    public PuzzleResponseService(PuzzleSolutionsService puzzleSolutionsService, ObjectMapper objectMapper) {
+        this.puzzleSolutionsService = puzzleSolutionsService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Gets the serialized response for the given puzzle, including its solutions.
+     *
+     * @param puzzle the puzzle
+     * @return the serialized response
+     */
+    @Cacheable(
+            cacheNames = "puzzleResponses",
+            key = "{#puzzle.id, @puzzleSolver.dictionaryVersion}",
+            condition = "#puzzle.id != null",
+            sync = true)
+    public SerializedPuzzleResponse getSerializedPuzzleResponse(Puzzle puzzle) {
+        final PuzzleResponse puzzleResponse = PuzzleMapper.toPuzzleResponse(
+                puzzle,
+                puzzleSolutionsService.getSolutions(puzzle));
+
+        try {
+            return SerializedPuzzleResponse.of(objectMapper.writeValueAsBytes(puzzleResponse));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.lexicubes.backend.puzzle;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * The arrangement of the cubes in a puzzle, independent of the letters on them.
+ * <p>
+ * Every shape is stacked: each cube rests either on the ground ({@code y = 0}) or on another
+ * cube, and all coordinates are non-negative. Cube IDs are assigned in the order of
+ * {@link #getPositions(SplittableRandom)}.
+ */
+@FunctionalInterface
+public interface PuzzleShape {
+
+    record Position(int x, int y, int z) {}
+
+    /**
+     * Returns the positions of the cubes in this shape.
+     *
+     * @param random the random number generator to use for shapes that are randomized (fixed
+     *               shapes do not draw from it)
+     * @return the positions of the cubes, each distinct
+     */
+    List<Position> getPositions(SplittableRandom random);
+
+    /**
+     * A square pyramid whose bottom layer is {@code size} by {@code size} cubes, with each layer
+     * one cube smaller than the one below, aligned at the back corner.
+     */
+    static PuzzleShape pyramid(int size) {
+        requirePositive(size, "size");
+        return random -> {
+            final List<Position> positions = new ArrayList<>();
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size - y; x++) {
+                    for (int z = 0; z < size - y; z++) {
+                        positions.add(new Position(x, y, z));
+                    }
+                }
+            }
+            return positions;
+        };
+    }
+
+    /**
+     * A staircase {@code depth} cubes deep, descending towards the viewer along x, with the
+     * first of its {@code steps} steps {@code steps} cubes tall and the last one cube tall.
+     */
+    static PuzzleShape stairs(int steps, int depth) {
+        requirePositive(steps, "steps");
+        requirePositive(depth, "depth");
+        return random -> {
+            final List<Position> positions = new ArrayList<>();
+            for (int y = 0; y < steps; y++) {
+                for (int x = 0; x < steps - y; x++) {
+                    for (int z = 0; z < depth; z++) {
+                        positions.add(new Position(x, y, z));
+                    }
+                }
+            }
+            return positions;
+        };
+    }
+
+    /**
+     * A wall one cube thick, {@code width} cubes wide along x and {@code height} cubes tall.
+     */
+    static PuzzleShape wall(int width, int height) {
+        return tower(width, 1, height);
+    }
+
+    /**
+     * A solid box of {@code width} by {@code depth} cubes on the ground and {@code height}
+     * cubes tall.
+     */
+    static PuzzleShape tower(int width, int depth, int height) {
+        requirePositive(width, "width");
+        requirePositive(depth, "depth");
+        requirePositive(height, "height");
+        return random -> {
+            final List<Position> positions = new ArrayList<>();
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    for (int z = 0; z < depth; z++) {
+                        positions.add(new Position(x, y, z));
+                    }
+                }
+            }
+            return positions;
+        };
+    }
+
+    /**
+     * A random connected set of {@code cubeCount} cubes, grown one cube at a time from a single
+     * cube on the ground. Each new cube is chosen uniformly from the free positions that touch
+     * a face of an existing cube and are on the ground or directly on top of another cube.
+     */
+    static PuzzleShape randomConnected(int cubeCount) {
+        requirePositive(cubeCount, "cubeCount");
+        return random -> {
+            final Set<Position> occupied = new HashSet<>();
+            final List<Position> positions = new ArrayList<>(cubeCount);
+
+            final List<Position> candidates = new ArrayList<>();
+            final Set<Position> candidateSet = new HashSet<>();
+            candidates.add(new Position(0, 0, 0));
+            candidateSet.add(candidates.get(0));
+
+            while (positions.size() < cubeCount) {
+                // Swap the chosen candidate with the last one to remove it in constant time
+                final int index = random.nextInt(candidates.size());
+                final Position position = candidates.get(index);
+                candidates.set(index, candidates.get(candidates.size() - 1));
+                candidates.remove(candidates.size() - 1);
+                candidateSet.remove(position);
+
+                occupied.add(position);
+                positions.add(position);
+
+                for (final Position neighbour : List.of(
+                        new Position(position.x() - 1, position.y(), position.z()),
+                        new Position(position.x() + 1, position.y(), position.z()),
+                        new Position(position.x(), position.y(), position.z() - 1),
+                        new Position(position.x(), position.y(), position.z() + 1),
+                        new Position(position.x(), position.y() + 1, position.z()))) {
+                    final boolean isSupported = neighbour.y() == 0 || occupied.contains(
+                            new Position(neighbour.x(), neighbour.y() - 1, neighbour.z()));
+                    if (isSupported && !occupied.contains(neighbour) && candidateSet.add(neighbour)) {
+                        candidates.add(neighbour);
+                    }
+                }
+            }
+
+            return translateToOrigin(positions);
+        };
+    }
+
+    private static List<Position> translateToOrigin(List<Position> positions) {
+        final int minX = positions.stream().mapToInt(Position::x).min().orElse(0);
+        final int minZ = positions.stream().mapToInt(Position::z).min().orElse(0);
+        return positions.stream()
+                .map(position -> new Position(position.x() - minX, position.y(), position.z() - minZ))
+                .toList();
+    }
+
+    private static void requirePositive(int value, String name) {
+        if (value < 1) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+    }
+}
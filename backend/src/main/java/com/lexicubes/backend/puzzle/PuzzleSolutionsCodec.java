@@ -0,0 +1,121 @@
+package com.lexicubes.backend.puzzle;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Encodes the solutions of a puzzle into a compact binary form for storage alongside the puzzle.
+ * <p>
+ * Faces are stored by their index in the puzzle (see {@link Puzzle#getFaceIndex(Puzzle.Cube.Face)}),
+ * so the encoding can only be decoded against the puzzle it was encoded from. The encoding is:
+ * <ol>
+ *     <li>the format version (one byte), and the number of solutions, followed by for each solution:</li>
+ *     <li>the length of the word and its (ASCII) letters,</li>
+ *     <li>whether the word is a bonus word (one byte),</li>
+ *     <li>the number of paths, and the face indices of each path (one per letter of the word).</li>
+ * </ol>
+ * All counts and face indices are written as unsigned variable-length integers (seven bits per
+ * byte), so almost every face index takes a single byte. The faces of a solution are not stored,
+ * as they are exactly the faces of its paths.
+ */
+final class PuzzleSolutionsCodec {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private PuzzleSolutionsCodec() {}
+
+    /**
+     * Encodes the given solutions of the given puzzle.
+     *
+     * @param puzzle    the puzzle the solutions are for
+     * @param solutions the solutions to encode
+     * @return the encoded solutions
+     */
+    static byte[] encode(Puzzle puzzle, List<PuzzleSolver.PuzzleSolution> solutions) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(FORMAT_VERSION);
+        VarInts.write(out, solutions.size());
+
+        for (final PuzzleSolver.PuzzleSolution solution : solutions) {
+            final byte[] word = solution.word().getBytes(StandardCharsets.US_ASCII);
+            VarInts.write(out, word.length);
+            out.writeBytes(word);
+            out.write(solution.isBonus() ? 1 : 0);
+
+            VarInts.write(out, solution.paths().size());
+            for (final List<Puzzle.Cube.Face> path : solution.paths()) {
+                if (path.size() != word.length) {
+                    throw new IllegalArgumentException("Path of " + solution.word() + " has " + path.size() + " faces");
+                }
+                for (final Puzzle.Cube.Face face : path) {
+                    VarInts.write(out, puzzle.getFaceIndex(face));
+                }
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes solutions previously encoded by {@link #encode(Puzzle, List)} for the given puzzle.
+     *
+     * @param puzzle  the puzzle the solutions were encoded for
+     * @param encoded the encoded solutions
+     * @return the decoded solutions
+     * @throws IllegalArgumentException if the encoding is malformed, is in an unsupported format,
+     *                                  or refers to faces not in the puzzle
+     */
+    static List<PuzzleSolver.PuzzleSolution> decode(Puzzle puzzle, byte[] encoded) {
+        final ByteBuffer in = ByteBuffer.wrap(encoded);
+        try {
+            final int formatVersion = in.get();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported solutions format version: " + formatVersion);
+            }
+
+            final int solutionCount = VarInts.read(in);
+            final List<PuzzleSolver.PuzzleSolution> solutions = new ArrayList<>(solutionCount);
+            for (int i = 0; i < solutionCount; i++) {
+                final byte[] word = new byte[VarInts.read(in)];
+                in.get(word);
+                final boolean isBonus = in.get() != 0;
+
+                final int pathCount = VarInts.read(in);
+                final List<List<Puzzle.Cube.Face>> paths = new ArrayList<>(pathCount);
+                final Set<Puzzle.Cube.Face> faces = new HashSet<>();
+                for (int j = 0; j < pathCount; j++) {
+                    final Puzzle.Cube.Face[] path = new Puzzle.Cube.Face[word.length];
+                    for (int k = 0; k < word.length; k++) {
+                        path[k] = getFace(puzzle, VarInts.read(in));
+                    }
+                    paths.add(List.of(path));
+                    faces.addAll(paths.getLast());
+                }
+
+                solutions.add(new PuzzleSolver.PuzzleSolution(
+                        new String(word, StandardCharsets.US_ASCII),
+                        Set.copyOf(faces),
+                        List.copyOf(paths),
+                        isBonus));
+            }
+
+            if (in.hasRemaining()) {
+                throw new IllegalArgumentException("Unexpected data after solutions");
+            }
+
+            return solutions;
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException("Truncated solutions", e);
+        }
+    }
+
+    private static Puzzle.Cube.Face getFace(Puzzle puzzle, int index) {
+        if (index >= puzzle.getFaceCount()) {
+            throw new IllegalArgumentException("Puzzle has no face with index " + index);
+        }
+        return puzzle.getFace(index);
+    }
+}
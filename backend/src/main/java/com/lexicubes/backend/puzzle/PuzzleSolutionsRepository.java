@@ -0,0 +1,21 @@
+package com.lexicubes.backend.puzzle;
+
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.Repository;
+
+import java.util.Optional;
+
+public interface PuzzleSolutionsRepository extends Repository<StoredPuzzleSolutions, Long> {
+
+    Optional<StoredPuzzleSolutions> findById(Long puzzleId);
+
+    @Modifying
+    @Query("""
+            INSERT INTO puzzle_solutions (puzzle_id, dictionary_version, solutions)
+            VALUES (:puzzleId, :dictionaryVersion, :solutions) AS submitted
+            ON DUPLICATE KEY UPDATE dictionary_version = submitted.dictionary_version,
+                                    solutions = submitted.solutions
+            """)
+    void save(Long puzzleId, int dictionaryVersion, byte[] solutions);
+}
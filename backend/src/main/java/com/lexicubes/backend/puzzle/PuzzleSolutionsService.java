@@ -0,0 +1,115 @@
+package com.lexicubes.backend.puzzle;
+
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Provides the solutions of puzzles, which are found by the {@link PuzzleSolver} when a puzzle is
+ * generated and stored alongside it, so that reading a puzzle does not have to solve it again.
+ */
+@Service
+public class PuzzleSolutionsService {
+
+    /**
+     * The approximate size of an object header, an object reference and a list (or set) object,
+     * assuming a 64-bit JVM with compressed references.
+     */
+    private static final int OBJECT_HEADER_BYTES = 16;
+
+    private static final int REFERENCE_BYTES = 4;
+
+    private static final int COLLECTION_BYTES = 2 * OBJECT_HEADER_BYTES;
+
+    private final PuzzleSolver puzzleSolver;
+
+    private final PuzzleSolutionsRepository puzzleSolutionsRepository;
+
+    public PuzzleSolutionsService(PuzzleSolver puzzleSolver, PuzzleSolutionsRepository puzzleSolutionsRepository) {
+        this.puzzleSolver = puzzleSolver;
+        this.puzzleSolutionsRepository = puzzleSolutionsRepository;
+    }
+
+    /**
+     * Gets the solutions of the given puzzle, loading them from the database if they have been
+     * stored for the current dictionary. Otherwise, the puzzle is solved and its solutions are
+     * stored, replacing any stored for an earlier dictionary.
+     *
+     * @param puzzle the puzzle
+     * @return the list of puzzle solutions
+     */
+    @Cacheable(cacheNames = "puzzleSolutions", key = "#puzzle.id", condition = "#puzzle.id != null", sync = true)
+    public List<PuzzleSolver.PuzzleSolution> getSolutions(Puzzle puzzle) {
+        if (puzzle.getId() == null) {
+            return puzzleSolver.solve(puzzle);
+        }
+
+        final Optional<StoredPuzzleSolutions> storedSolutions = puzzleSolutionsRepository.findById(puzzle.getId());
+        if (storedSolutions.isPresent()
+                && storedSolutions.get().getDictionaryVersion() == puzzleSolver.getDictionaryVersion()) {
+            try {
+                return PuzzleSolutionsCodec.decode(puzzle, storedSolutions.get().getSolutions());
+            } catch (IllegalArgumentException e) {
+                // Stored in a format this version cannot read, so solve the puzzle again
+            }
+        }
+
+        return solveAndSave(puzzle);
+    }
+
+    /**
+     * Estimates the number of bytes taken up by the given solutions, for bounding the size of the
+     * solutions cache. The faces are not counted, since they belong to the puzzle.
+     *
+     * @param solutions the solutions
+     * @return the approximate size of the solutions in bytes
+     */
+    public static long estimateSizeBytes(List<PuzzleSolver.PuzzleSolution> solutions) {
+        long size = COLLECTION_BYTES + (long) REFERENCE_BYTES * solutions.size();
+        for (final PuzzleSolver.PuzzleSolution solution : solutions) {
+            final int wordLength = solution.word().length();
+            size += OBJECT_HEADER_BYTES + 3 * REFERENCE_BYTES
+                    + 2 * OBJECT_HEADER_BYTES + wordLength
+                    + COLLECTION_BYTES + 2L * REFERENCE_BYTES * solution.faces().size()
+                    + COLLECTION_BYTES + (long) solution.paths().size()
+                    * (REFERENCE_BYTES + COLLECTION_BYTES + (long) REFERENCE_BYTES * wordLength);
+        }
+        return size;
+    }
+
+    /**
+     * Solves the given (saved) puzzle and stores its solutions for the current dictionary.
+     *
+     * @param puzzle the puzzle, which must have been saved
+     * @return the list of puzzle solutions
+     */
+    @CachePut(cacheNames = "puzzleSolutions", key = "#puzzle.id")
+    public List<PuzzleSolver.PuzzleSolution> solveAndSave(Puzzle puzzle) {
+        return save(puzzle, puzzleSolver.solve(puzzle));
+    }
+
+    /**
+     * Stores the given solutions of the given (saved) puzzle, which must have been found with
+     * the current dictionary.
+     *
+     * @param puzzle    the puzzle, which must have been saved
+     * @param solutions the solutions of the puzzle
+     * @return the solutions
+     */
+    @CachePut(cacheNames = "puzzleSolutions", key = "#puzzle.id")
+    public List<PuzzleSolver.PuzzleSolution> save(Puzzle puzzle, List<PuzzleSolver.PuzzleSolution> solutions) {
+        if (puzzle.getId() == null) {
+            throw new IllegalArgumentException("Puzzle must be saved before its solutions");
+        }
+
+        puzzleSolutionsRepository.save(
+                puzzle.getId(),
+                puzzleSolver.getDictionaryVersion(),
+                PuzzleSolutionsCodec.encode(puzzle, solutions));
+
+        return solutions;
+    }
+}
@@ -1,67 +1,135 @@
 package com.lexicubes.backend.puzzle;
 
-import org.springframework.cache.annotation.Cacheable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class PuzzleSolver {
 
     private static final String WORD_LIST_RESOURCE_NAME = "wordlists/common.txt";
 
+    private static final String COMPILED_DICTIONARY_RESOURCE_NAME = "wordlists/common.dawg";
+
+    /**
+     * The maximum number of idle {@link SolveContext}s kept around for reuse.
+     */
+    private static final int MAX_POOLED_SOLVE_CONTEXTS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The default minimum number of cubes a puzzle must have to be solved in parallel,
+     * when parallel solving is enabled.
+     */
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 50;
+
+    /**
+     * The number of tasks each worker thread should get when solving in parallel. Having more
+     * tasks than threads lets idle threads steal work when some subtrees turn out to be larger
+     * than others.
+     */
+    private static final int PARALLEL_TASKS_PER_THREAD = 4;
+
+    /**
+     * The default maximum number of path extensions explored by a single solve.
+     */
+    private static final long DEFAULT_MAX_SEARCH_NODES = 50_000_000;
+
     /**
-     * The root node of a trie storing the dictionary of valid words.
+     * The default maximum number of paths recorded by a single solve.
      */
-    private final TrieNode wordTrie;
+    private static final int DEFAULT_MAX_PATHS = 1_000_000;
 
     /**
-     * The current path being explored by {@link #explorePaths(Puzzle.Cube.Face, TrieNode)}.
+     * The default time limit of a single solve, in seconds.
      */
-    private final List<Puzzle.Cube.Face> path;
+    private static final int DEFAULT_TIME_LIMIT_SECONDS = 5;
 
     /**
-     * Used by {@link #explorePaths(Puzzle.Cube.Face, TrieNode)} to track which cubes
-     * have been removed from consideration for extending the current path. Multiple
-     * faces in the current path may have the same cube blocking it, in which case
-     * this multiset will contain multiple instances of that cube.
+     * A trie storing the dictionary of valid words.
+     * The trie is immutable, so it is safely shared by all solves.
      */
-    private final Multiset<Puzzle.Cube> unusableCubes;
+    private final WordTrie wordTrie;
 
     /**
-     * Maps a valid word to all the paths that form it.
+     * Idle solve contexts that can be reused by subsequent solves.
+     * Each concurrent solve takes its own context from this pool, so solves never share
+     * working state.
      */
-    private final Map<String, List<List<Puzzle.Cube.Face>>> pathsForWord;
+    private final BlockingQueue<SolveContext> solveContextPool;
 
     /**
-     * Maps a cube to all the valid words with a path including that cube.
+     * Whether path exploration of large puzzles is split across the common fork-join pool.
      */
-    private final Map<Puzzle.Cube, Set<String>> wordsIncludingCube;
+    private final boolean isParallelEnabled;
 
     /**
-     * Memoization cache for {@link #getCubesBlockingFace(Puzzle.Cube.Face)}.
+     * The minimum number of cubes a puzzle must have to be solved in parallel. Smaller puzzles
+     * are always solved on the calling thread, since splitting them costs more than it saves.
      */
-    private final Map<Puzzle.Cube.Face, Set<Puzzle.Cube>> cubesBlockingFace;
+    private final int parallelThreshold;
 
     /**
-     * Used by {@link #isWordAlwaysPossible(String)} and {@link #canRemoveCube(Puzzle.Cube)}
-     * to track the current words we are trying to uncover paths for. This lets us detect
-     * when removing a cube would require us to form a word that we are in the midst of
-     * trying to uncover (which would indicate a circular dependency).
+     * The budget of solves that are not given one, i.e. calls to {@link #solve(Puzzle)} and
+     * {@link #trySolve(Puzzle)}.
      */
-    private final Set<String> wordsBeingUncovered;
+    private final SolveBudget defaultBudget;
 
     /**
-     * The current puzzle being solved.
+     * The time taken by each solve, by whether it found every word or which limit of its budget
+     * it reached.
      */
-    private Puzzle puzzle;
+    private final Timer solvedTimer;
+
+    private final Map<SolveOutcome.Reason, Timer> budgetExceededTimers;
+
+    /**
+     * The number of path extensions explored by each solve.
+     */
+    private final DistributionSummary searchNodesSummary;
+
+    /**
+     * The number of path extensions that continued a word in the dictionary (hits) or did not
+     * (misses), across all solves.
+     */
+    private final Counter trieHitCounter;
+
+    private final Counter trieMissCounter;
+
+    /**
+     * The number of words and paths found by each successful solve.
+     */
+    private final DistributionSummary wordsSummary;
+
+    private final DistributionSummary pathsSummary;
+
+    /**
+     * The time taken to classify the words found by each successful solve as bonus words.
+     */
+    private final Timer classificationTimer;
 
     /**
      * Represents a valid word found in the puzzle.
@@ -73,266 +141,828 @@ public class PuzzleSolver {
      *
      * @param word    the word that was found in the puzzle
      * @param faces   all the faces from any path forming the word
+     * @param paths   every path forming the word, as the faces spelling it in order
      * @param isBonus whether the word is a bonus word
      */
     public record PuzzleSolution(String word,
                                  Set<Puzzle.Cube.Face> faces,
+                                 List<List<Puzzle.Cube.Face>> paths,
                                  boolean isBonus) {}
 
     public PuzzleSolver() {
-        wordTrie = new TrieNode();
-        loadWordTrie();
-
-        path = new ArrayList<>();
-        unusableCubes = new Multiset<>();
-        pathsForWord = new HashMap<>();
-        wordsIncludingCube = new HashMap<>();
-        cubesBlockingFace = new HashMap<>();
-        wordsBeingUncovered = new HashSet<>();
+        this(false, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public PuzzleSolver(boolean isParallelEnabled, int parallelThreshold) {
+        this(isParallelEnabled,
+                parallelThreshold,
+                new SolveBudget(DEFAULT_MAX_SEARCH_NODES, DEFAULT_MAX_PATHS, Duration.ofSeconds(DEFAULT_TIME_LIMIT_SECONDS)),
+                new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public PuzzleSolver(@Value("${app.puzzle-solver.parallel.enabled:false}") boolean isParallelEnabled,
+                        @Value("${app.puzzle-solver.parallel.threshold:" + DEFAULT_PARALLEL_THRESHOLD + "}") int parallelThreshold,
+                        @Value("${app.puzzle-solver.max-search-nodes:" + DEFAULT_MAX_SEARCH_NODES + "}") long maxSearchNodes,
+                        @Value("${app.puzzle-solver.max-paths:" + DEFAULT_MAX_PATHS + "}") int maxPaths,
+                        @Value("${app.puzzle-solver.time-limit:" + DEFAULT_TIME_LIMIT_SECONDS + "s}") Duration timeLimit,
+                        MeterRegistry meterRegistry) {
+        this(isParallelEnabled, parallelThreshold, new SolveBudget(maxSearchNodes, maxPaths, timeLimit), meterRegistry);
+    }
+
+    public PuzzleSolver(boolean isParallelEnabled,
+                        int parallelThreshold,
+                        SolveBudget defaultBudget,
+                        MeterRegistry meterRegistry) {
+        wordTrie = loadWordTrie();
+
+        solveContextPool = new ArrayBlockingQueue<>(MAX_POOLED_SOLVE_CONTEXTS);
+
+        this.isParallelEnabled = isParallelEnabled;
+        this.parallelThreshold = parallelThreshold;
+        this.defaultBudget = defaultBudget;
+
+        solvedTimer = buildSolveTimer("solved", "none", meterRegistry);
+        budgetExceededTimers = new EnumMap<>(SolveOutcome.Reason.class);
+        for (final SolveOutcome.Reason reason : SolveOutcome.Reason.values()) {
+            budgetExceededTimers.put(reason, buildSolveTimer("budget_exceeded", reason.name().toLowerCase(), meterRegistry));
+        }
+        searchNodesSummary = DistributionSummary.builder("puzzle.solver.search.nodes")
+                .description("Path extensions explored per solve")
+                .baseUnit("nodes")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1_000.0)
+                .maximumExpectedValue(Math.max(1_000.0, defaultBudget.maxSearchNodes()))
+                .register(meterRegistry);
+        trieHitCounter = buildTrieLookupCounter("hit", meterRegistry);
+        trieMissCounter = buildTrieLookupCounter("miss", meterRegistry);
+        wordsSummary = DistributionSummary.builder("puzzle.solver.words")
+                .description("Words found per solve")
+                .baseUnit("words")
+                .register(meterRegistry);
+        pathsSummary = DistributionSummary.builder("puzzle.solver.paths")
+                .description("Paths found per solve")
+                .baseUnit("paths")
+                .register(meterRegistry);
+        classificationTimer = Timer.builder("puzzle.solver.classification")
+                .description("Time taken to find the bonus words of a solved puzzle")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(1))
+                .register(meterRegistry);
     }
 
     /**
-     * Solves the given puzzle, finding all valid words that can be formed.
+     * Solves the given puzzle within the default budget, finding all valid words that can be
+     * formed.
      *
      * @param puzzle the puzzle to solve
      * @return the list of puzzle solutions
+     * @throws PuzzleTooLargeException if solving the puzzle exceeds the default budget
      */
-    @Cacheable(cacheNames = "puzzleSolutions", key = "#puzzle.id", unless = "#puzzle.id == null")
     public List<PuzzleSolution> solve(Puzzle puzzle) {
-        this.puzzle = puzzle;
-        resetState();
-
-        for (final Puzzle.Cube cube : puzzle.getCubes()) {
-            explorePaths(cube.getTopFace(), wordTrie);
-            explorePaths(cube.getLeftFace(), wordTrie);
-            explorePaths(cube.getRightFace(), wordTrie);
-        }
-
-        final List<PuzzleSolution> solutions = buildSolutionsList();
-
-        this.puzzle = null;
-        resetState();
-
-        return solutions;
+        return trySolve(puzzle).getSolutionsOrThrow();
     }
 
     /**
-     * Resets all the working state.
+     * Solves the given puzzle within the default budget.
+     *
+     * @param puzzle the puzzle to solve
+     * @return the puzzle solutions, or which limit of the budget the solve reached
      */
-    private void resetState() {
-        path.clear();
-        unusableCubes.clear();
-        pathsForWord.clear();
-        wordsIncludingCube.clear();
-        cubesBlockingFace.clear();
-        wordsBeingUncovered.clear();
+    public SolveOutcome trySolve(Puzzle puzzle) {
+        return trySolve(puzzle, defaultBudget);
     }
 
     /**
-     * Builds the final list of solutions from the discovered word paths.
+     * Solves the given puzzle within the given budget, finding all valid words that can be
+     * formed. The solve also stops early if the calling thread is interrupted, leaving the
+     * thread's interrupt status set.
+     * <p>
+     * The budget is checked each time a chunk of search nodes is taken from it, rather than
+     * for every node, so a solve may run for up to a few milliseconds past its time limit.
      *
-     * @return the list of puzzle solutions
+     * @param puzzle the puzzle to solve
+     * @param budget the limits on the solve
+     * @return the puzzle solutions, or which limit of the budget the solve reached
      */
-    private List<PuzzleSolution> buildSolutionsList() {
-        final List<PuzzleSolution> solutions = new ArrayList<>();
-
-        for (final Map.Entry<String, List<List<Puzzle.Cube.Face>>> entry : pathsForWord.entrySet()) {
-            final String word = entry.getKey();
-            final List<List<Puzzle.Cube.Face>> paths = entry.getValue();
-
-            final boolean isBonus = !isWordAlwaysPossible(word);
-            final Set<Puzzle.Cube.Face> faces = paths.stream()
-                    .flatMap(Collection::stream)
-                    .collect(Collectors.toSet());
+    public SolveOutcome trySolve(Puzzle puzzle, SolveBudget budget) {
+        final long startTime = System.nanoTime();
+        final SearchBudget searchBudget = new SearchBudget(budget, puzzle.getCubes().size(), startTime, Thread.currentThread());
+
+        final List<PuzzleSolution> solutions;
+        try {
+            solutions = isParallelEnabled && puzzle.getCubes().size() >= parallelThreshold
+                    ? solveInParallel(puzzle, searchBudget)
+                    : solveSequentially(puzzle, searchBudget);
+        } catch (RuntimeException e) {
+            // In a parallel solve, the exception may be rethrown by the fork-join pool as a copy
+            final SolveOutcome.BudgetExceeded budgetExceeded = searchBudget.exceeded;
+            if (budgetExceeded == null) {
+                throw e;
+            }
 
-            solutions.add(new PuzzleSolution(word, faces, isBonus));
+            budgetExceededTimers.get(budgetExceeded.reason()).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            recordSearch(searchBudget);
+            return budgetExceeded;
         }
 
-        return solutions;
+        solvedTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        recordSearch(searchBudget);
+        wordsSummary.record(solutions.size());
+        pathsSummary.record(solutions.stream().mapToInt(solution -> solution.paths().size()).sum());
+        return new SolveOutcome.Solved(solutions);
     }
 
     /**
-     * Recursively explores all possible paths starting from the given face, backtracking
-     * when a path yields no valid solutions.
-     *
-     * @param face     the face to continue exploring the current path from
-     * @param trieNode the node in the dictionary trie representing the current path explored so far
+     * {@return the version of the dictionary used to find words}
+     * Solutions found with a different dictionary version may include different words.
      */
-    private void explorePaths(Puzzle.Cube.Face face, TrieNode trieNode) {
+    public int getDictionaryVersion() {
+        return wordTrie.getVersion();
+    }
 
-        // Check if the current face continues a valid path in our dictionary
-        final TrieNode childTrieNode = trieNode.getChild(face.getLetter());
-        if (childTrieNode == null) {
-            return;
+    private List<PuzzleSolution> solveSequentially(Puzzle puzzle, SearchBudget budget) {
+        final SolveContext context = acquireSolveContext();
+        try {
+            context.prepare(puzzle, budget);
+            context.explorePaths(0, puzzle.getFaceCount());
+            return buildSolutions(context);
+        } finally {
+            releaseSolveContext(context);
         }
+    }
 
-        path.add(face);
+    /**
+     * Solves the given puzzle by splitting path exploration across the common fork-join pool.
+     * The paths starting from each face form an independent subtree of the search, so the faces
+     * are divided into ranges that are explored by separate tasks, each with its own context.
+     * The found words of each range are then merged in face order, so the result is identical
+     * to that of a sequential solve.
+     *
+     * @param puzzle the puzzle to solve
+     * @param budget the search budget shared by all tasks
+     * @return the list of puzzle solutions
+     */
+    private List<PuzzleSolution> solveInParallel(Puzzle puzzle, SearchBudget budget) {
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        final int leafSize = Math.max(1, puzzle.getFaceCount() / (pool.getParallelism() * PARALLEL_TASKS_PER_THREAD));
+
+        final ExplorePathsTask task = new ExplorePathsTask(puzzle, budget, 0, puzzle.getFaceCount(), leafSize);
+        pool.execute(task);
+
+        // Waiting with invoke() would hide an interrupt from the tasks until they finish, since
+        // the pool clears the interrupt status of an outside thread while it waits
+        final SolveContext context;
+        try {
+            context = task.get();
+        } catch (InterruptedException e) {
+            final BudgetExceededException exception = budget.interrupt();
+            task.quietlyJoin();
+            Thread.currentThread().interrupt();
+            throw exception;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
 
-        if (childTrieNode.isEnd()) {
-            recordFoundWord();
+        try {
+            return buildSolutions(context);
+        } finally {
+            releaseSolveContext(context);
         }
+    }
 
-        // There may be cubes in front of the current face blocking its visibility.
-        // Therefore, for the current path to be valid (i.e. using only faces visible to the player),
-        // we must remove these cubes from consideration when searching for neighbouring faces.
-        final Set<Puzzle.Cube> cubesBlockingFace = getCubesBlockingFace(face);
-        unusableCubes.addAll(cubesBlockingFace);
+    /**
+     * Records the search statistics of a finished (or failed) solve.
+     */
+    private void recordSearch(SearchBudget budget) {
+        final long visitedNodes = budget.visitedNodes.get();
+        final long trieMisses = budget.trieMisses.get();
+        searchNodesSummary.record(visitedNodes);
+        trieHitCounter.increment(visitedNodes - trieMisses);
+        trieMissCounter.increment(trieMisses);
+    }
 
-        for (final Puzzle.Cube.Face neighbour : face.getNeighbours()) {
-            if (!unusableCubes.contains(neighbour.getCube()) && !path.contains(neighbour)) {
-                explorePaths(neighbour, childTrieNode);
-            }
-        }
+    private static Timer buildSolveTimer(String outcome, String reason, MeterRegistry meterRegistry) {
+        return Timer.builder("puzzle.solver.solve")
+                .description("Time taken to find all the words in a puzzle")
+                .tag("outcome", outcome)
+                .tag("reason", reason)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(1))
+                .register(meterRegistry);
+    }
 
-        unusableCubes.removeAll(cubesBlockingFace);
-        path.removeLast();
+    private static Counter buildTrieLookupCounter(String result, MeterRegistry meterRegistry) {
+        return Counter.builder("puzzle.solver.trie.lookups")
+                .description("Dictionary lookups made while extending paths")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     /**
-     * Records the current path as a valid word found during path exploration.
+     * {@return an idle solve context from the pool, or a new one if the pool is empty}
      */
-    private void recordFoundWord() {
-        final String word = convertPathToWord(path);
-        final List<Puzzle.Cube.Face> pathCopy = List.copyOf(path);
-        pathsForWord.computeIfAbsent(word, k -> new ArrayList<>()).add(pathCopy);
+    private SolveContext acquireSolveContext() {
+        final SolveContext context = solveContextPool.poll();
+        return context != null ? context : new SolveContext(wordTrie);
+    }
 
-        for (final Puzzle.Cube.Face faceInPath : path) {
-            wordsIncludingCube.computeIfAbsent(faceInPath.getCube(), k -> new HashSet<>()).add(word);
-        }
+    /**
+     * Resets the given solve context and returns it to the pool. If the pool is already
+     * full, the context is dropped and left for garbage collection.
+     */
+    private void releaseSolveContext(SolveContext context) {
+        context.reset();
+        solveContextPool.offer(context);
     }
 
     /**
-     * Get all cubes in the given puzzle that directly block visibility of the given face.
-     * These are the cubes that must be removed before the face is fully visible and considered
-     * "in play".
-     *
-     * @param face the face to check the visibility of
-     * @return the set of cubes that block visibility of the face
+     * Loads the dictionary compiled at build time by the {@code compileDictionary} Gradle task.
+     * <p>
+     * When the app runs from an exploded directory (as it does in the Docker image), the compiled
+     * dictionary is memory-mapped rather than read onto the heap. When it is packaged inside a jar,
+     * it is read from the jar instead. If no compiled dictionary is available (e.g. when running
+     * outside of Gradle), the dictionary is built from the plain word list.
      */
-    private Set<Puzzle.Cube> getCubesBlockingFace(Puzzle.Cube.Face face) {
-        if (!cubesBlockingFace.containsKey(face)) {
-            final Puzzle.Cube cube = face.getCube();
-            final Set<Puzzle.Cube> cubes = new HashSet<>();
-
-            switch (face.getSide()) {
-                case TOP -> {
-                    cubes.addAll(getCubesBlockingCoordinate(cube.getX(), cube.getY() + 1, cube.getZ()));
-                    cubes.addAll(getCubesBlockingCoordinate(cube.getX() + 1, cube.getY() + 1, cube.getZ()));
-                    cubes.addAll(getCubesBlockingCoordinate(cube.getX(), cube.getY() + 1, cube.getZ() + 1));
-                    cubes.addAll(getCubesBlockingCoordinate(cube.getX() + 1, cube.getY() + 1, cube.getZ() + 1));
-                }
-                case LEFT -> {
-                    cubes.addAll(getCubesBlockingCoordinate(cube.getX(), cube.getY(), cube.getZ() + 1));
-                    cubes.addAll(getCubesBlockingCoordinate(cube.getX() + 1, cube.getY(), cube.getZ() + 1));
-                    cubes.addAll(getCubesBlockingCoordinate(cube.getX() + 1, cube.getY() + 1, cube.getZ() + 1));
-                    cubes.addAll(getCubesBlockingCoordinate(cube.getX(), cube.getY() + 1, cube.getZ() + 1));
-                }
-                case RIGHT -> {
-                    cubes.addAll(getCubesBlockingCoordinate(cube.getX() + 1, cube.getY(), cube.getZ()));
-                    cubes.addAll(getCubesBlockingCoordinate(cube.getX() + 1, cube.getY(), cube.getZ() + 1));
-                    cubes.addAll(getCubesBlockingCoordinate(cube.getX() + 1, cube.getY() + 1, cube.getZ() + 1));
-                    cubes.addAll(getCubesBlockingCoordinate(cube.getX() + 1, cube.getY() + 1, cube.getZ()));
+    private WordTrie loadWordTrie() {
+        final ClassLoader classLoader = getClass().getClassLoader();
+        try {
+            final URL compiledDictionary = classLoader.getResource(COMPILED_DICTIONARY_RESOURCE_NAME);
+            if (compiledDictionary != null && compiledDictionary.getProtocol().equals("file")) {
+                return WordTrie.map(Path.of(compiledDictionary.toURI()));
+            }
+            if (compiledDictionary != null) {
+                try (final InputStream inputStream = compiledDictionary.openStream()) {
+                    return WordTrie.read(inputStream);
                 }
             }
 
-            cubesBlockingFace.put(face, Set.copyOf(cubes));
+            final InputStream wordList = classLoader.getResourceAsStream(WORD_LIST_RESOURCE_NAME);
+            try (final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    Objects.requireNonNull(wordList), StandardCharsets.US_ASCII))) {
+                return WordTrie.of(reader.lines()::iterator);
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new RuntimeException(e);
         }
-        return cubesBlockingFace.get(face);
     }
 
     /**
-     * Finds cubes that occlude visibility along an isometric ray from the given coordinate pointed
-     * towards the camera/screen. In isometric projection, occlusion happens along diagonal rays
-     * with equal x, y, and z increments.
+     * Builds solutions from the paths forming each word found by the given context, using
+     * {@link BonusWordClassifier} to determine which words are bonus words.
      *
-     * @param x the starting x coordinate of the ray
-     * @param y the starting y coordinate of the ray
-     * @param z the starting z coordinate of the ray
-     * @return all cubes blocking the ray
+     * @param context the context that explored all paths in its puzzle
+     * @return the list of puzzle solutions
      */
-    private List<Puzzle.Cube> getCubesBlockingCoordinate(int x, int y, int z) {
-        final List<Puzzle.Cube> cubes = new ArrayList<>();
-        for (int i = 0; puzzle.isWithinBounds(x + i, y + i, z + i); i++) {
-            puzzle.getCubeAtCoordinate(x + i, y + i, z + i).ifPresent(cubes::add);
+    private List<PuzzleSolution> buildSolutions(SolveContext context) {
+        final Puzzle puzzle = context.puzzle;
+        final List<String> words = new ArrayList<>(context.pathsForWord.keySet());
+        final List<List<int[]>> pathsForWords = words.stream().map(context.pathsForWord::get).toList();
+
+        final boolean[] isWordAlwaysPossible = classificationTimer.record(() -> BonusWordClassifier.findAlwaysPossibleWords(
+                pathsForWords,
+                puzzle.getCubes().size(),
+                puzzle.getFaceBlockingCubeOffsets(),
+                puzzle.getFaceBlockingCubes()));
+
+        final List<PuzzleSolution> solutions = new ArrayList<>();
+        for (int i = 0; i < words.size(); i++) {
+            final Set<Puzzle.Cube.Face> faces = new HashSet<>();
+            final List<List<Puzzle.Cube.Face>> paths = new ArrayList<>();
+            for (final int[] path : pathsForWords.get(i)) {
+                final Puzzle.Cube.Face[] pathFaces = new Puzzle.Cube.Face[path.length];
+                for (int j = 0; j < path.length; j++) {
+                    pathFaces[j] = puzzle.getFace(path[j]);
+                }
+                faces.addAll(Arrays.asList(pathFaces));
+                paths.add(List.of(pathFaces));
+            }
+
+            solutions.add(new PuzzleSolution(words.get(i), Set.copyOf(faces), List.copyOf(paths), !isWordAlwaysPossible[i]));
         }
-        return cubes;
+
+        return solutions;
     }
 
     /**
-     * Determines if it is possible to uncover a path that spells the given word, without
-     * removing any cubes that themselves depend on the removal of:
-     * <ul>
-     *      <li>
-     *          cubes in said path, or
-     *      </li>
-     *      <li>
-     *          cubes in the paths of any other words that must be found in order to
-     *          remove cubes blocking said path.
-     *      </li>
-     * </ul>
-     * If true, then it is guaranteed that this word can always be formed, regardless of
-     * the order in which cubes are removed. Otherwise, this word is considered a bonus word.
-     *
-     * @param word the word to check
-     * @return true if it is possible to uncover a path that spells the word, false if not
+     * Explores all paths starting from a range of faces, returning a context holding the words
+     * found. Ranges larger than the leaf size are split in half, with the left half forked so
+     * that idle threads can steal it.
      */
-    private boolean isWordAlwaysPossible(String word) {
-        wordsBeingUncovered.add(word);
+    private final class ExplorePathsTask extends RecursiveTask<SolveContext> {
+
+        private final Puzzle puzzle;
+
+        private final SearchBudget budget;
+
+        private final int fromFace;
 
-        final List<List<Puzzle.Cube.Face>> paths = Objects.requireNonNull(pathsForWord.get(word));
-        final boolean isPossible = paths.stream().anyMatch(this::isPathAlwaysPossible);
+        private final int toFace;
 
-        wordsBeingUncovered.remove(word);
+        private final int leafSize;
 
-        return isPossible;
+        private ExplorePathsTask(Puzzle puzzle, SearchBudget budget, int fromFace, int toFace, int leafSize) {
+            this.puzzle = puzzle;
+            this.budget = budget;
+            this.fromFace = fromFace;
+            this.toFace = toFace;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected SolveContext compute() {
+            if (toFace - fromFace <= leafSize) {
+                final SolveContext context = acquireSolveContext();
+                context.prepare(puzzle, budget);
+                context.explorePaths(fromFace, toFace);
+                return context;
+            }
+
+            final int midFace = (fromFace + toFace) >>> 1;
+            final ExplorePathsTask left = new ExplorePathsTask(puzzle, budget, fromFace, midFace, leafSize);
+            left.fork();
+            final SolveContext right = new ExplorePathsTask(puzzle, budget, midFace, toFace, leafSize).compute();
+            final SolveContext merged = left.join();
+
+            merged.mergeFoundWords(right);
+            releaseSolveContext(right);
+            return merged;
+        }
     }
 
     /**
-     * Determines if it is possible to uncover the given path, following the criteria
-     * outlined in {@link #isWordAlwaysPossible(String)}.
-     *
-     * @param path the path to check
-     * @return true if the path can be uncovered, false if not
+     * The number of search nodes and recorded paths a single solve may still use, and how long
+     * it may still run for. It is shared by all the contexts of a parallel solve, which take
+     * allowances from it in chunks, so that the hot loop only counts down a local field. The
+     * time limit and the interrupt status of the solving thread are checked with each chunk.
+     * <p>
+     * The contexts also add up the nodes they visited here once they finish exploring, so that
+     * the whole solve can be recorded in the solver's metrics.
      */
-    private boolean isPathAlwaysPossible(List<Puzzle.Cube.Face> path) {
-        final Set<Puzzle.Cube> cubesToRemove = new HashSet<>();
-        for (final Puzzle.Cube.Face face : path) {
-            cubesToRemove.addAll(cubesBlockingFace.getOrDefault(face, Collections.emptySet()));
+    private static final class SearchBudget {
+
+        private static final long NODE_CHUNK_SIZE = 1 << 16;
+
+        private static final long PATH_CHUNK_SIZE = 1 << 10;
+
+        private final SolveBudget budget;
+
+        private final int cubeCount;
+
+        private final long startTime;
+
+        private final long timeLimitNanos;
+
+        /**
+         * The thread that called {@link #trySolve(Puzzle, SolveBudget)}, which is the one that
+         * gets interrupted even when the search runs on other threads.
+         */
+        private final Thread solvingThread;
+
+        private final AtomicLong remainingNodes;
+
+        private final AtomicLong remainingPaths;
+
+        private final AtomicLong visitedNodes = new AtomicLong();
+
+        private final AtomicLong trieMisses = new AtomicLong();
+
+        /**
+         * The limit reached by the first context to run out, which makes any other contexts
+         * stop the next time they take from the budget.
+         */
+        @Nullable
+        private volatile SolveOutcome.BudgetExceeded exceeded;
+
+        private SearchBudget(SolveBudget budget, int cubeCount, long startTime, Thread solvingThread) {
+            this.budget = budget;
+            this.cubeCount = cubeCount;
+            this.startTime = startTime;
+            this.solvingThread = solvingThread;
+            timeLimitNanos = toNanosSaturated(budget.timeLimit());
+            remainingNodes = new AtomicLong(budget.maxSearchNodes());
+            remainingPaths = new AtomicLong(budget.maxPaths());
+        }
+
+        /**
+         * {@return the number of nodes taken from the budget}
+         *
+         * @throws BudgetExceededException if the budget is used up
+         */
+        private long takeNodes() {
+            if (exceeded != null) {
+                throw new BudgetExceededException();
+            }
+            if (solvingThread.isInterrupted()) {
+                throw interrupt();
+            }
+            if (System.nanoTime() - startTime > timeLimitNanos) {
+                throw exceed(SolveOutcome.Reason.TIME_LIMIT, String.format(
+                        "Solving a puzzle with %d cubes took longer than %d ms", cubeCount, budget.timeLimit().toMillis()));
+            }
+
+            final long nodes = take(remainingNodes, NODE_CHUNK_SIZE);
+            if (nodes == 0) {
+                throw exceed(SolveOutcome.Reason.SEARCH_NODES, String.format(
+                        "Solving a puzzle with %d cubes explored more than %d nodes", cubeCount, budget.maxSearchNodes()));
+            }
+            return nodes;
+        }
+
+        /**
+         * {@return the number of paths taken from the budget}
+         *
+         * @throws BudgetExceededException if the budget is used up
+         */
+        private long takePaths() {
+            final long paths = take(remainingPaths, PATH_CHUNK_SIZE);
+            if (paths == 0) {
+                throw exceed(SolveOutcome.Reason.PATHS, String.format(
+                        "Solving a puzzle with %d cubes found more than %d paths", cubeCount, budget.maxPaths()));
+            }
+            return paths;
+        }
+
+        private BudgetExceededException interrupt() {
+            return exceed(SolveOutcome.Reason.INTERRUPTED, String.format(
+                    "Solving a puzzle with %d cubes was interrupted", cubeCount));
+        }
+
+        private BudgetExceededException exceed(SolveOutcome.Reason reason, String message) {
+            if (exceeded == null) {
+                exceeded = new SolveOutcome.BudgetExceeded(reason, message);
+            }
+            return new BudgetExceededException();
+        }
+
+        private static long take(AtomicLong remaining, long chunkSize) {
+            final long available = remaining.getAndAdd(-chunkSize);
+            return Math.max(0, Math.min(chunkSize, available));
+        }
+
+        private static long toNanosSaturated(Duration duration) {
+            try {
+                return duration.toNanos();
+            } catch (ArithmeticException e) {
+                return Long.MAX_VALUE;
+            }
         }
-        return cubesToRemove.stream().allMatch(this::canRemoveCube);
     }
 
     /**
-     * Determines if it is possible to remove the given cube by finding all words with a
-     * solution including that cube. If removing the cube requires a word whose solution
-     * depends on the removal of that cube itself, then it is not possible to remove the
-     * cube (circular dependency) and this method returns false.
-     *
-     * @param cube the cube to check
-     * @return true if the cube can be removed, false if not
+     * Unwinds path exploration once the budget is used up. The outcome itself is recorded in
+     * {@link SearchBudget#exceeded}, so the exception carries no stack trace.
      */
-    private boolean canRemoveCube(Puzzle.Cube cube) {
-        return wordsIncludingCube.getOrDefault(cube, Collections.emptySet()).stream()
-                .allMatch(word -> !wordsBeingUncovered.contains(word) && isWordAlwaysPossible(word));
+    private static final class BudgetExceededException extends RuntimeException {
+
+        private BudgetExceededException() {
+            super(null, null, false, false);
+        }
     }
 
     /**
-     * {@return the word formed by the given path}
+     * Holds all the working state for a single call to {@link #trySolve(Puzzle, SolveBudget)},
+     * or for one range of faces explored by an {@link ExplorePathsTask}.
+     * <p>
+     * A context is only ever used by one thread at a time. Contexts are pooled and reused
+     * so that the arrays and collections backing the working state don't have to be
+     * reallocated and regrown for every solve.
+     * <p>
+     * Path exploration works entirely on dense integer indices rather than on {@link Puzzle.Cube}
+     * and {@link Puzzle.Cube.Face} objects. The cube at position {@code i} in the puzzle's cube
+     * list has index {@code i}, and its faces have indices {@code 3i} (top), {@code 3i + 1} (left),
+     * and {@code 3i + 2} (right). This lets the search use flat arrays and bitsets, so nothing
+     * is allocated per visited face except when a word is found.
      */
-    private static String convertPathToWord(List<Puzzle.Cube.Face> path) {
-        final char[] wordChars = new char[path.size()];
-        for (int i = 0; i < wordChars.length; i++) {
-            wordChars[i] = path.get(i).getLetter();
+    private static final class SolveContext {
+
+        private static final int FACES_PER_CUBE = Puzzle.Cube.Side.values().length;
+
+        /**
+         * The shared dictionary trie.
+         */
+        private final WordTrie wordTrie;
+
+        /**
+         * Maps a valid word to all the paths (as face indices) that form it, in the order the
+         * words were first found.
+         */
+        private final Map<String, List<int[]>> pathsForWord;
+
+        /**
+         * The current puzzle being solved.
+         */
+        private Puzzle puzzle;
+
+        private SearchBudget budget;
+
+        /**
+         * The number of nodes and paths left of those taken from the budget. When either runs
+         * out, more are taken from the budget.
+         */
+        private long nodeAllowance;
+
+        private long pathAllowance;
+
+        /**
+         * The number of path extensions tried, and the number of those that did not continue a
+         * word in the dictionary, since this context was prepared.
+         */
+        private long visitedNodeCount;
+
+        private long trieMissCount;
+
+        private int cubeCount;
+
+        private int faceCount;
+
+        /**
+         * Maps a face index to the letter on that face.
+         */
+        private char[] faceLetters;
+
+        /**
+         * The neighbours of face {@code f} are the face indices stored in {@link #neighbourFaces}
+         * from {@code neighbourOffsets[f]} (inclusive) to {@code neighbourOffsets[f + 1]} (exclusive).
+         * Both arrays are owned by the current puzzle.
+         *
+         * @see Puzzle#getFaceNeighbourOffsets()
+         */
+        private int[] neighbourOffsets;
+
+        private int[] neighbourFaces;
+
+        /**
+         * The cubes that directly block visibility of face {@code f} are the cube indices stored in
+         * {@link #blockingCubes} from {@code blockingCubeOffsets[f]} (inclusive) to
+         * {@code blockingCubeOffsets[f + 1]} (exclusive). Both arrays are owned by the current puzzle.
+         *
+         * @see Puzzle#getFaceBlockingCubeOffsets()
+         */
+        private int[] blockingCubeOffsets;
+
+        private int[] blockingCubes;
+
+        /**
+         * A bitset of the faces in the current path.
+         */
+        private long[] facesInPath;
+
+        /**
+         * Maps a cube index to the number of faces in the current path that the cube is blocking.
+         * A cube with a non-zero count cannot be used to extend the current path.
+         */
+        private int[] cubeOcclusionCounts;
+
+        /**
+         * The faces in the current path, which doubles as the explicit stack used by
+         * {@link #explorePaths(int)}. Position {@code i} of each of the path arrays describes
+         * the {@code i}-th face in the path.
+         */
+        private int[] pathFaces;
+
+        /**
+         * The trie node reached after spelling the letters of the path up to and including
+         * each face.
+         */
+        private int[] pathTrieNodes;
+
+        /**
+         * The position in {@link #neighbourFaces} of the next neighbour to try extending the
+         * path with from each face.
+         */
+        private int[] pathNeighbourCursors;
+
+        private char[] pathLetters;
+
+        private int pathLength;
+
+        private SolveContext(WordTrie wordTrie) {
+            this.wordTrie = wordTrie;
+
+            pathsForWord = new LinkedHashMap<>();
+
+            faceLetters = new char[0];
+            neighbourOffsets = new int[1];
+            neighbourFaces = new int[0];
+            blockingCubeOffsets = new int[1];
+            blockingCubes = new int[0];
+            facesInPath = new long[0];
+            cubeOcclusionCounts = new int[0];
+            pathFaces = new int[0];
+            pathTrieNodes = new int[0];
+            pathNeighbourCursors = new int[0];
+            pathLetters = new char[0];
         }
-        return new String(wordChars);
-    }
 
-    private void loadWordTrie() {
-        final URL wordList = getClass().getClassLoader().getResource(WORD_LIST_RESOURCE_NAME);
-        try (final Stream<String> lines = Files.lines(Path.of(Objects.requireNonNull(wordList).toURI()))) {
-            lines.forEach(wordTrie::insert);
-        } catch (IOException | URISyntaxException e) {
-            throw new RuntimeException(e);
+        /**
+         * Prepares this context to explore paths in the given puzzle.
+         */
+        private void prepare(Puzzle puzzle, SearchBudget budget) {
+            this.puzzle = puzzle;
+            this.budget = budget;
+            nodeAllowance = 0;
+            pathAllowance = 0;
+            visitedNodeCount = 0;
+            trieMissCount = 0;
+            indexPuzzle();
+        }
+
+        /**
+         * Explores all paths starting from each face in the given range, in order. The nodes
+         * visited are then added to the budget, even if it runs out.
+         *
+         * @param fromFace the index of the first face to start from (inclusive)
+         * @param toFace   the index of the last face to start from (exclusive)
+         */
+        private void explorePaths(int fromFace, int toFace) {
+            try {
+                for (int face = fromFace; face < toFace; face++) {
+                    explorePaths(face);
+                }
+            } finally {
+                budget.visitedNodes.addAndGet(visitedNodeCount);
+                budget.trieMisses.addAndGet(trieMissCount);
+            }
+        }
+
+        /**
+         * Adds the words found by another context exploring the same puzzle to this context.
+         * The other context's paths are appended after this context's paths, so merging the
+         * contexts of consecutive face ranges in order gives the same paths, in the same order,
+         * as exploring the whole range in one context.
+         *
+         * @param other the context to merge into this one
+         */
+        private void mergeFoundWords(SolveContext other) {
+            other.pathsForWord.forEach((word, paths) ->
+                    pathsForWord.computeIfAbsent(word, k -> new ArrayList<>()).addAll(paths));
+        }
+
+        /**
+         * Resets all the working state. The backing arrays are kept for the next solve.
+         */
+        private void reset() {
+            // Unwinds the path left behind if exploration stopped early, which clears the bitset
+            // of faces in the path and the occlusion counts
+            while (pathLength > 0) {
+                popFace();
+            }
+
+            puzzle = null;
+            budget = null;
+            neighbourOffsets = new int[1];
+            neighbourFaces = new int[0];
+            blockingCubeOffsets = new int[1];
+            blockingCubes = new int[0];
+            pathsForWord.clear();
+        }
+
+        /**
+         * Prepares the tables used during path exploration. Cubes and faces use the puzzle's own
+         * dense indices, neighbour table, and blocking cube table.
+         */
+        private void indexPuzzle() {
+            cubeCount = puzzle.getCubes().size();
+            faceCount = puzzle.getFaceCount();
+            ensureCapacity();
+
+            neighbourOffsets = puzzle.getFaceNeighbourOffsets();
+            neighbourFaces = puzzle.getFaceNeighbours();
+            blockingCubeOffsets = puzzle.getFaceBlockingCubeOffsets();
+            blockingCubes = puzzle.getFaceBlockingCubes();
+
+            for (int face = 0; face < faceCount; face++) {
+                faceLetters[face] = puzzle.getFace(face).getLetter();
+            }
+        }
+
+        /**
+         * Grows the backing arrays if they are too small for the current puzzle.
+         */
+        private void ensureCapacity() {
+            if (faceLetters.length < faceCount) {
+                faceLetters = new char[faceCount];
+                facesInPath = new long[(faceCount + Long.SIZE - 1) / Long.SIZE];
+                pathFaces = new int[faceCount];
+                pathTrieNodes = new int[faceCount];
+                pathNeighbourCursors = new int[faceCount];
+                pathLetters = new char[faceCount];
+            }
+            if (cubeOcclusionCounts.length < cubeCount) {
+                cubeOcclusionCounts = new int[cubeCount];
+            }
+        }
+
+        /**
+         * Explores all possible paths starting from the given face, backtracking when a path
+         * yields no valid solutions. The search is depth-first, using the path arrays as an
+         * explicit stack rather than recursing.
+         *
+         * @param startFace the index of the face to start exploring paths from
+         */
+        private void explorePaths(int startFace) {
+            if (!pushFace(startFace, wordTrie.getRoot())) {
+                return;
+            }
+
+            while (pathLength > 0) {
+                final int top = pathLength - 1;
+                final int cursor = pathNeighbourCursors[top];
+
+                if (cursor == neighbourOffsets[pathFaces[top] + 1]) {
+                    popFace();
+                    continue;
+                }
+
+                pathNeighbourCursors[top] = cursor + 1;
+
+                final int neighbour = neighbourFaces[cursor];
+                if (cubeOcclusionCounts[neighbour / FACES_PER_CUBE] == 0 && !isFaceInPath(neighbour)) {
+                    pushFace(neighbour, pathTrieNodes[top]);
+                }
+            }
+        }
+
+        /**
+         * Extends the current path with the given face, if doing so continues a valid path
+         * in our dictionary.
+         *
+         * @param face     the index of the face to extend the current path with
+         * @param trieNode the node in the dictionary trie representing the current path explored so far
+         * @return true if the path was extended, false if not
+         */
+        private boolean pushFace(int face, int trieNode) {
+            if (--nodeAllowance < 0) {
+                nodeAllowance = budget.takeNodes() - 1;
+            }
+
+            visitedNodeCount++;
+            final int childTrieNode = wordTrie.getChild(trieNode, faceLetters[face]);
+            if (childTrieNode == WordTrie.NO_NODE) {
+                trieMissCount++;
+                return false;
+            }
+
+            pathFaces[pathLength] = face;
+            pathTrieNodes[pathLength] = childTrieNode;
+            pathNeighbourCursors[pathLength] = neighbourOffsets[face];
+            pathLetters[pathLength] = faceLetters[face];
+            pathLength++;
+            facesInPath[face / Long.SIZE] |= 1L << face;
+
+            // There may be cubes in front of the current face blocking its visibility.
+            // Therefore, for the current path to be valid (i.e. using only faces visible to the player),
+            // we must remove these cubes from consideration when searching for neighbouring faces.
+            for (int i = blockingCubeOffsets[face]; i < blockingCubeOffsets[face + 1]; i++) {
+                cubeOcclusionCounts[blockingCubes[i]]++;
+            }
+
+            // Recorded once the face is fully pushed, so that running out of paths here leaves
+            // a path that reset() can unwind
+            if (wordTrie.isEnd(childTrieNode)) {
+                recordFoundWord();
+            }
+
+            return true;
+        }
+
+        /**
+         * Removes the last face from the current path, undoing {@link #pushFace(int, int)}.
+         */
+        private void popFace() {
+            pathLength--;
+            final int face = pathFaces[pathLength];
+            facesInPath[face / Long.SIZE] &= ~(1L << face);
+
+            for (int i = blockingCubeOffsets[face]; i < blockingCubeOffsets[face + 1]; i++) {
+                cubeOcclusionCounts[blockingCubes[i]]--;
+            }
+        }
+
+        private boolean isFaceInPath(int face) {
+            return (facesInPath[face / Long.SIZE] & (1L << face)) != 0;
+        }
+
+        /**
+         * Records the current path as a valid word found during path exploration.
+         */
+        private void recordFoundWord() {
+            if (--pathAllowance < 0) {
+                pathAllowance = budget.takePaths() - 1;
+            }
+
+            final String word = new String(pathLetters, 0, pathLength);
+            final int[] pathCopy = Arrays.copyOf(pathFaces, pathLength);
+            pathsForWord.computeIfAbsent(word, k -> new ArrayList<>()).add(pathCopy);
         }
     }
 }
@@ -0,0 +1,185 @@
+package com.lexicubes.backend.puzzle;
+
+import java.util.*;
+
+/**
+ * The solutions of a puzzle, indexed so that the solutions remaining after any set of cubes
+ * has been removed can be found without solving the board again.
+ * <p>
+ * Removing cubes never makes new paths possible, since the paths in the full solution already
+ * assume that the cubes blocking them have been removed. So the solutions remaining after
+ * removing some cubes are the full solutions, less any paths through the removed cubes. The
+ * remaining words are then reclassified: removed cubes no longer block anything, so words that
+ * depended on their removal may have become required, while words that other words depended
+ * on may have lost their paths.
+ * <p>
+ * Each state only touches the paths through the removed cubes and reruns the (linear) bonus
+ * word classification over the prebuilt dependency graph, and solutions not affected by the
+ * removed cubes are reused as they are. A graph is immutable, so it can be cached and shared.
+ */
+public final class PuzzleStateGraph {
+
+    private static final int FACES_PER_CUBE = Puzzle.Cube.Side.values().length;
+
+    /**
+     * The approximate size of a {@link HashMap} entry with boxed integer key and value.
+     */
+    private static final int ESTIMATED_MAP_ENTRY_BYTES = 64;
+
+    private final List<PuzzleSolver.PuzzleSolution> solutions;
+
+    private final Map<Integer, Integer> cubeIndicesById;
+
+    private final BonusWordClassifier classifier;
+
+    /**
+     * The paths with a face on cube {@code c} are the path indices (as numbered by
+     * {@link #classifier}) stored in {@link #cubePaths} from {@code cubePathOffsets[c]}
+     * (inclusive) to {@code cubePathOffsets[c + 1]} (exclusive).
+     */
+    private final int[] cubePathOffsets;
+
+    private final int[] cubePaths;
+
+    /**
+     * Indexes the given solutions of the given puzzle.
+     *
+     * @param puzzle    the puzzle
+     * @param solutions the full solutions of the puzzle, as returned by {@link PuzzleSolver#solve(Puzzle)}
+     */
+    public PuzzleStateGraph(Puzzle puzzle, List<PuzzleSolver.PuzzleSolution> solutions) {
+        this.solutions = List.copyOf(solutions);
+
+        final int cubeCount = puzzle.getCubes().size();
+        cubeIndicesById = new HashMap<>();
+        for (int cube = 0; cube < cubeCount; cube++) {
+            cubeIndicesById.put(puzzle.getCubes().get(cube).getId(), cube);
+        }
+
+        final List<List<int[]>> pathsForWords = new ArrayList<>();
+        for (final PuzzleSolver.PuzzleSolution solution : this.solutions) {
+            final List<int[]> paths = new ArrayList<>();
+            for (final List<Puzzle.Cube.Face> path : solution.paths()) {
+                paths.add(path.stream().mapToInt(puzzle::getFaceIndex).toArray());
+            }
+            pathsForWords.add(paths);
+        }
+
+        classifier = new BonusWordClassifier(
+                pathsForWords,
+                cubeCount,
+                puzzle.getFaceBlockingCubeOffsets(),
+                puzzle.getFaceBlockingCubes());
+
+        // Group paths by the cubes they include (counting sort), counting each path once per cube
+        final int[] lastSeenBy = new int[cubeCount];
+        Arrays.fill(lastSeenBy, -1);
+        cubePathOffsets = new int[cubeCount + 1];
+        forEachPathCube(pathsForWords, lastSeenBy, (path, cube) -> cubePathOffsets[cube + 1]++);
+        for (int cube = 0; cube < cubeCount; cube++) {
+            cubePathOffsets[cube + 1] += cubePathOffsets[cube];
+        }
+
+        cubePaths = new int[cubePathOffsets[cubeCount]];
+        final int[] cubePathFillCounts = new int[cubeCount];
+        Arrays.fill(lastSeenBy, -1);
+        forEachPathCube(pathsForWords, lastSeenBy,
+                (path, cube) -> cubePaths[cubePathOffsets[cube] + cubePathFillCounts[cube]++] = path);
+    }
+
+    private interface PathCubeConsumer {
+        void accept(int path, int cube);
+    }
+
+    /**
+     * Calls the consumer once for each distinct cube in each path.
+     */
+    private static void forEachPathCube(List<List<int[]>> pathsForWords, int[] lastSeenBy, PathCubeConsumer consumer) {
+        int path = 0;
+        for (final List<int[]> paths : pathsForWords) {
+            for (final int[] pathFaces : paths) {
+                for (final int face : pathFaces) {
+                    final int cube = face / FACES_PER_CUBE;
+                    if (lastSeenBy[cube] != path) {
+                        lastSeenBy[cube] = path;
+                        consumer.accept(path, cube);
+                    }
+                }
+                path++;
+            }
+        }
+    }
+
+    /**
+     * {@return the approximate number of bytes taken up by the graph}
+     * The solutions themselves are not counted, since they are shared with the cached full
+     * solutions of the puzzle.
+     */
+    public long estimateSizeBytes() {
+        return classifier.estimateSizeBytes()
+                + (long) Integer.BYTES * (cubePathOffsets.length + cubePaths.length)
+                + (long) ESTIMATED_MAP_ENTRY_BYTES * cubeIndicesById.size();
+    }
+
+    /**
+     * Finds the words that can still be formed after the given cubes have been removed, and
+     * which of them are still required.
+     *
+     * @param removedCubeIds the IDs of the cubes that have been removed
+     * @return the solutions still formable, each with only its remaining paths
+     * @throws IllegalArgumentException if any of the cube IDs are not in the puzzle
+     */
+    public List<PuzzleSolver.PuzzleSolution> getSolutionsAfterRemovingCubes(Collection<Integer> removedCubeIds) {
+        final boolean[] isPathRemoved = new boolean[classifier.getPathCount()];
+        for (final Integer cubeId : removedCubeIds) {
+            final Integer cube = cubeIndicesById.get(cubeId);
+            if (cube == null) {
+                throw new IllegalArgumentException("Puzzle has no cube with ID " + cubeId);
+            }
+            for (int i = cubePathOffsets[cube]; i < cubePathOffsets[cube + 1]; i++) {
+                isPathRemoved[cubePaths[i]] = true;
+            }
+        }
+
+        final boolean[] isWordAlwaysPossible = classifier.findAlwaysPossibleWords(isPathRemoved);
+
+        final List<PuzzleSolver.PuzzleSolution> remainingSolutions = new ArrayList<>();
+        for (int word = 0; word < solutions.size(); word++) {
+            final PuzzleSolver.PuzzleSolution solution = solutions.get(word);
+            final int firstPath = classifier.getFirstPath(word);
+
+            final int pathCount = solution.paths().size();
+            final boolean isBonus = !isWordAlwaysPossible[word];
+
+            int remainingPathCount = 0;
+            for (int i = 0; i < pathCount; i++) {
+                if (!isPathRemoved[firstPath + i]) {
+                    remainingPathCount++;
+                }
+            }
+
+            if (remainingPathCount == 0) {
+                continue;
+            }
+
+            if (remainingPathCount == pathCount) {
+                remainingSolutions.add(solution.isBonus() == isBonus ? solution : new PuzzleSolver.PuzzleSolution(
+                        solution.word(), solution.faces(), solution.paths(), isBonus));
+                continue;
+            }
+
+            final List<List<Puzzle.Cube.Face>> remainingPaths = new ArrayList<>(remainingPathCount);
+            final Set<Puzzle.Cube.Face> faces = new HashSet<>();
+            for (int i = 0; i < pathCount; i++) {
+                if (!isPathRemoved[firstPath + i]) {
+                    remainingPaths.add(solution.paths().get(i));
+                    faces.addAll(solution.paths().get(i));
+                }
+            }
+            remainingSolutions.add(new PuzzleSolver.PuzzleSolution(
+                    solution.word(), Set.copyOf(faces), List.copyOf(remainingPaths), isBonus));
+        }
+
+        return remainingSolutions;
+    }
+}
@@ -0,0 +1,7 @@
+package com.lexicubes.backend.puzzle;
+
+import java.util.List;
+
+public record PuzzleStateResponse(Long puzzleId,
+                                  List<Integer> removedCubeIds,
+                                  List<PuzzleResponse.Solution> solutions) {}
@@ -0,0 +1,26 @@
+package com.lexicubes.backend.puzzle;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PuzzleStateService {
+
+    private final PuzzleSolutionsService puzzleSolutionsService;
+
+    public PuzzleStateService(PuzzleSolutionsService puzzleSolutionsService) {
+        this.puzzleSolutionsService = puzzleSolutionsService;
+    }
+
+    /**
+     * Builds the state graph of the given puzzle from its (cached or stored) full solution, which can
+     * then be used to find the solutions remaining after removing any set of cubes.
+     *
+     * @param puzzle the puzzle
+     * @return the state graph of the puzzle
+     */
+    @Cacheable(cacheNames = "puzzleStateGraphs", key = "#puzzle.id", condition = "#puzzle.id != null", sync = true)
+    public PuzzleStateGraph getStateGraph(Puzzle puzzle) {
+        return new PuzzleStateGraph(puzzle, puzzleSolutionsService.getSolutions(puzzle));
+    }
+}
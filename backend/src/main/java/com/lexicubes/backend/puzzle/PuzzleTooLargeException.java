@@ -0,0 +1,18 @@
+package com.lexicubes.backend.puzzle;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when solving a puzzle exceeds the solver's budget, i.e. the puzzle has too many paths
+ * to explore or record in reasonable time and memory, or the solve was interrupted.
+ *
+ * @see SolveOutcome.BudgetExceeded
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Puzzle could not be solved within the search budget")
+public class PuzzleTooLargeException extends RuntimeException {
+
+    public PuzzleTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,72 @@
+package com.lexicubes.backend.puzzle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A puzzle response serialized to JSON, along with its gzip-compressed form and an entity tag
+ * identifying its content, so that it can be served repeatedly without mapping, serializing or
+ * compressing it again.
+ *
+ * @param json        the JSON response body
+ * @param gzippedJson the gzip-compressed JSON response body
+ * @param eTag        a strong entity tag (without quotes) derived from the content of the JSON
+ */
+public record SerializedPuzzleResponse(byte[] json, byte[] gzippedJson, String eTag) {
+
+    /**
+     * The number of bytes of the SHA-256 digest of the content used for the entity tag.
+     */
+    private static final int ETAG_DIGEST_BYTES = 16;
+
+    /**
+     * Compresses the given JSON and derives its entity tag.
+     *
+     * @param json the JSON response body
+     * @return the serialized response
+     */
+    public static SerializedPuzzleResponse of(byte[] json) {
+        return new SerializedPuzzleResponse(json, gzip(json), computeETag(json));
+    }
+
+    /**
+     * {@return the entity tag of the gzip-compressed form}
+     * A strong entity tag identifies a single representation, so the compressed form has
+     * its own tag.
+     */
+    public String gzippedETag() {
+        return eTag + "-gzip";
+    }
+
+    /**
+     * {@return the approximate number of bytes taken up by the response}
+     */
+    public long estimateSizeBytes() {
+        return json.length + gzippedJson.length + 2L * eTag.length();
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (final GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String computeETag(byte[] bytes) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, ETAG_DIGEST_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.lexicubes.backend.puzzle;
+
+import java.time.Duration;
+
+/**
+ * The limits on a single call to {@link PuzzleSolver#trySolve(Puzzle, SolveBudget)}. A solve
+ * that reaches any of them stops early with a {@link SolveOutcome.BudgetExceeded} outcome.
+ *
+ * @param maxSearchNodes the maximum number of path extensions explored (across all tasks, when
+ *                       solving in parallel)
+ * @param maxPaths       the maximum number of paths recorded, which bounds the memory taken up
+ *                       by the solutions
+ * @param timeLimit      how long the solve may run for, from when it starts
+ */
+public record SolveBudget(long maxSearchNodes, int maxPaths, Duration timeLimit) {
+
+    public SolveBudget {
+        if (maxSearchNodes < 1 || maxPaths < 1) {
+            throw new IllegalArgumentException("Search node and path limits must be positive");
+        }
+        if (timeLimit.isNegative() || timeLimit.isZero()) {
+            throw new IllegalArgumentException("Time limit must be positive");
+        }
+    }
+}
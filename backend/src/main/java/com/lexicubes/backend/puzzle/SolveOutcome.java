@@ -0,0 +1,48 @@
+package com.lexicubes.backend.puzzle;
+
+import java.util.List;
+
+/**
+ * The outcome of {@link PuzzleSolver#trySolve(Puzzle, SolveBudget)}: either every word in the
+ * puzzle was found, or the solve stopped early because it ran out of budget.
+ */
+public sealed interface SolveOutcome {
+
+    /**
+     * Why a solve stopped before finding every word.
+     */
+    enum Reason {
+        SEARCH_NODES,
+        PATHS,
+        TIME_LIMIT,
+        INTERRUPTED
+    }
+
+    /**
+     * A complete solve.
+     *
+     * @param solutions every word that can be formed in the puzzle
+     */
+    record Solved(List<PuzzleSolver.PuzzleSolution> solutions) implements SolveOutcome {}
+
+    /**
+     * A solve that stopped early. No solutions are kept, since a partial list of words cannot
+     * be classified into required and bonus words.
+     *
+     * @param reason  the limit that was reached
+     * @param message a description of the limit, for logging
+     */
+    record BudgetExceeded(Reason reason, String message) implements SolveOutcome {}
+
+    /**
+     * {@return the solutions of a complete solve}
+     *
+     * @throws PuzzleTooLargeException if the solve ran out of budget
+     */
+    default List<PuzzleSolver.PuzzleSolution> getSolutionsOrThrow() {
+        return switch (this) {
+            case Solved solved -> solved.solutions();
+            case BudgetExceeded budgetExceeded -> throw new PuzzleTooLargeException(budgetExceeded.message());
+        };
+    }
+}
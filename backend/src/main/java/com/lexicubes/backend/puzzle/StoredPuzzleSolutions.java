@@ -0,0 +1,38 @@
+package com.lexicubes.backend.puzzle;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * The solutions of a puzzle as stored in the database, encoded by {@link PuzzleSolutionsCodec}.
+ * The solutions are only valid for the dictionary they were found with, so they are tagged with
+ * its version (see {@link WordTrie#getVersion()}).
+ */
+@Table("puzzle_solutions")
+public class StoredPuzzleSolutions {
+
+    @Id
+    private final Long puzzleId;
+
+    private final int dictionaryVersion;
+
+    private final byte[] solutions;
+
+    public StoredPuzzleSolutions(Long puzzleId, int dictionaryVersion, byte[] solutions) {
+        this.puzzleId = puzzleId;
+        this.dictionaryVersion = dictionaryVersion;
+        this.solutions = solutions;
+    }
+
+    public Long getPuzzleId() {
+        return puzzleId;
+    }
+
+    public int getDictionaryVersion() {
+        return dictionaryVersion;
+    }
+
+    public byte[] getSolutions() {
+        return solutions;
+    }
+}
@@ -0,0 +1,38 @@
+package com.lexicubes.backend.puzzle;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes unsigned variable-length integers, stored seven bits per byte (least
+ * significant group first) with the high bit of each byte marking that another byte follows.
+ * Values below 128 take a single byte.
+ */
+final class VarInts {
+
+    private VarInts() {}
+
+    static void write(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the integer does
+     * @throws IllegalArgumentException          if the integer is longer than five bytes
+     */
+    static int read(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            final byte b = in.get();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable-length integer");
+    }
+}
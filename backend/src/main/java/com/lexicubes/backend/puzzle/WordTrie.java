@@ -0,0 +1,387 @@
+package com.lexicubes.backend.puzzle;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * An immutable trie that stores strings containing only lowercase chars in the range [a-z].
+ * <p>
+ * The trie is minimized into a directed acyclic word graph (DAWG), where nodes with identical
+ * subtrees (e.g. the shared "-ing" and "-tion" suffixes of many words) are stored only once.
+ * Rather than allocating an object per node, the whole graph is laid out in a flat buffer of
+ * ints, with nodes referred to by their offset into the buffer. Each node consists of:
+ * <ol>
+ *     <li>
+ *         a header, whose low 26 bits are a mask of the letters that have a child node and
+ *         whose high bit marks the node as the end of a string, followed by
+ *     </li>
+ *     <li>
+ *         the offsets of the node's children, one per bit set in the mask, in letter order.
+ *     </li>
+ * </ol>
+ * The child for a given letter is found by counting the bits in the mask below that letter.
+ * <p>
+ * The same layout is used for the binary file written by {@link #write(Path)}, so a compiled
+ * dictionary can be memory-mapped with {@link #map(Path)} and walked directly, without
+ * allocating anything per node.
+ *
+ * @see WordTrieCompiler
+ */
+public final class WordTrie {
+
+    /**
+     * Returned by {@link #getChild(int, char)} when a node has no child for the given letter.
+     */
+    public static final int NO_NODE = -1;
+
+    /**
+     * The first four bytes of a compiled dictionary file ("LXDW").
+     */
+    private static final int MAGIC = 0x4c584457;
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * A compiled dictionary file starts with the magic number, format version, word count,
+     * dictionary version, root node offset, and node count, followed by the node buffer.
+     */
+    private static final int HEADER_SIZE_BYTES = 6 * Integer.BYTES;
+
+    private static final int ALPHABET_SIZE = 26;
+
+    private static final int END_FLAG = 1 << 31;
+
+    private final IntBuffer nodes;
+
+    private final int root;
+
+    private final int nodeCount;
+
+    private final int wordCount;
+
+    private final int version;
+
+    private WordTrie(IntBuffer nodes, int root, int nodeCount, int wordCount, int version) {
+        this.nodes = nodes;
+        this.root = root;
+        this.nodeCount = nodeCount;
+        this.wordCount = wordCount;
+        this.version = version;
+    }
+
+    /**
+     * Builds a trie containing the given strings.
+     *
+     * @param strings the strings to insert (must only contain lowercase letters in [a-z])
+     * @return the trie
+     */
+    public static WordTrie of(Iterable<String> strings) {
+        final Builder builder = new Builder();
+        strings.forEach(builder::insert);
+        return builder.build();
+    }
+
+    /**
+     * Memory-maps a dictionary file previously written by {@link #write(Path)}. The file is
+     * mapped read-only and is not copied onto the heap.
+     *
+     * @param path the path of the compiled dictionary
+     * @return the trie backed by the mapped file
+     * @throws IOException if the file cannot be read
+     */
+    public static WordTrie map(Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return fromBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads a dictionary previously written by {@link #write(Path)} from the given stream.
+     * Prefer {@link #map(Path)} when the dictionary is available as a file.
+     *
+     * @param inputStream the stream to read the compiled dictionary from
+     * @return the trie
+     * @throws IOException if the stream cannot be read
+     */
+    public static WordTrie read(InputStream inputStream) throws IOException {
+        return fromBuffer(ByteBuffer.wrap(inputStream.readAllBytes()));
+    }
+
+    private static WordTrie fromBuffer(ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_SIZE_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a compiled dictionary");
+        }
+
+        final int formatVersion = buffer.getInt(Integer.BYTES);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported dictionary format version: " + formatVersion);
+        }
+
+        final int wordCount = buffer.getInt(2 * Integer.BYTES);
+        final int version = buffer.getInt(3 * Integer.BYTES);
+        final int root = buffer.getInt(4 * Integer.BYTES);
+        final int nodeCount = buffer.getInt(5 * Integer.BYTES);
+
+        final IntBuffer nodes = buffer
+                .slice(HEADER_SIZE_BYTES, buffer.limit() - HEADER_SIZE_BYTES)
+                .asIntBuffer();
+
+        return new WordTrie(nodes, root, nodeCount, wordCount, version);
+    }
+
+    /**
+     * Writes this trie to the given file in the format read by {@link #map(Path)}.
+     *
+     * @param path the path of the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(wordCount);
+            out.writeInt(version);
+            out.writeInt(root);
+            out.writeInt(nodeCount);
+            for (int i = 0; i < nodes.limit(); i++) {
+                out.writeInt(nodes.get(i));
+            }
+        }
+    }
+
+    /**
+     * {@return the root node of the trie}
+     */
+    public int getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the child node associated with the given letter.
+     *
+     * @param node   the node to get the child of
+     * @param letter the letter to look for (must be lowercase and in [a-z])
+     * @return the child node corresponding to the letter, or {@link #NO_NODE} if the
+     * given character is invalid or no such child exists
+     */
+    public int getChild(int node, char letter) {
+        if (isCharacterInvalid(letter)) {
+            return NO_NODE;
+        }
+
+        final int header = nodes.get(node);
+        final int letterBit = 1 << (letter - 'a');
+        if ((header & letterBit) == 0) {
+            return NO_NODE;
+        }
+
+        return nodes.get(node + 1 + Integer.bitCount(header & (letterBit - 1)));
+    }
+
+    /**
+     * Checks if the given node represents the end of a string in the trie.
+     *
+     * @param node the node to check
+     * @return true if the node is the end of a string
+     */
+    public boolean isEnd(int node) {
+        return (nodes.get(node) & END_FLAG) != 0;
+    }
+
+    /**
+     * Checks if the given string is stored in the trie.
+     *
+     * @param string the string to look for
+     * @return true if the trie contains the string
+     */
+    public boolean contains(String string) {
+        int node = root;
+        for (int i = 0; i < string.length() && node != NO_NODE; i++) {
+            node = getChild(node, string.charAt(i));
+        }
+        return node != NO_NODE && isEnd(node);
+    }
+
+    /**
+     * {@return the number of distinct nodes in the minimized trie, including the root}
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * {@return the number of strings stored in the trie}
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * {@return a checksum of the strings stored in the trie, in insertion order}
+     * Two tries built from the same word list have the same version.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    private static boolean isCharacterInvalid(char letter) {
+        return letter < 'a' || letter > 'z';
+    }
+
+    /**
+     * Collects strings into a temporary pointer-based trie, then minimizes it by emitting
+     * each distinct subtree only once.
+     */
+    private static final class Builder {
+
+        /**
+         * Identifies a node by its header and the (already minimized) offsets of its children.
+         */
+        private record NodeSignature(int header, int[] childOffsets) {
+
+            @Override
+            public boolean equals(Object obj) {
+                return obj instanceof NodeSignature other &&
+                        header == other.header &&
+                        Arrays.equals(childOffsets, other.childOffsets);
+            }
+
+            @Override
+            public int hashCode() {
+                return 31 * header + Arrays.hashCode(childOffsets);
+            }
+        }
+
+        private final List<int[]> children = new ArrayList<>();
+
+        private final BitSet ends = new BitSet();
+
+        private final CRC32 checksum = new CRC32();
+
+        private int wordCount = 0;
+
+        private Builder() {
+            children.add(newChildArray());
+        }
+
+        private void insert(String string) {
+            for (int i = 0; i < string.length(); i++) {
+                if (isCharacterInvalid(string.charAt(i))) {
+                    throw new IllegalArgumentException("String contains invalid characters: " + string);
+                }
+            }
+
+            int node = 0;
+            for (int i = 0; i < string.length(); i++) {
+                final int index = string.charAt(i) - 'a';
+                if (children.get(node)[index] == NO_NODE) {
+                    children.get(node)[index] = children.size();
+                    children.add(newChildArray());
+                }
+                node = children.get(node)[index];
+            }
+
+            if (!ends.get(node)) {
+                ends.set(node);
+                wordCount++;
+                checksum.update(string.getBytes(StandardCharsets.US_ASCII));
+                checksum.update('\n');
+            }
+        }
+
+        private WordTrie build() {
+            final Map<NodeSignature, Integer> offsetsBySignature = new HashMap<>();
+            final IntArrayBuilder nodes = new IntArrayBuilder();
+
+            final int root = emit(0, offsetsBySignature, nodes);
+
+            return new WordTrie(
+                    IntBuffer.wrap(nodes.toArray()).asReadOnlyBuffer(),
+                    root,
+                    offsetsBySignature.size(),
+                    wordCount,
+                    (int) checksum.getValue());
+        }
+
+        /**
+         * Emits the given node after its children (post-order), reusing the offset of an
+         * identical node if one has already been emitted.
+         *
+         * @return the offset of the emitted node
+         */
+        private int emit(int node, Map<NodeSignature, Integer> offsetsBySignature, IntArrayBuilder nodes) {
+            int header = ends.get(node) ? END_FLAG : 0;
+            final int[] childOffsets = new int[Integer.bitCount(childMask(node))];
+
+            int childIndex = 0;
+            for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+                final int child = children.get(node)[letter];
+                if (child != NO_NODE) {
+                    header |= 1 << letter;
+                    childOffsets[childIndex++] = emit(child, offsetsBySignature, nodes);
+                }
+            }
+
+            return offsetsBySignature.computeIfAbsent(new NodeSignature(header, childOffsets), signature -> {
+                final int offset = nodes.size();
+                nodes.add(signature.header());
+                for (final int childOffset : signature.childOffsets()) {
+                    nodes.add(childOffset);
+                }
+                return offset;
+            });
+        }
+
+        private int childMask(int node) {
+            int mask = 0;
+            for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+                if (children.get(node)[letter] != NO_NODE) {
+                    mask |= 1 << letter;
+                }
+            }
+            return mask;
+        }
+
+        private static int[] newChildArray() {
+            final int[] array = new int[ALPHABET_SIZE];
+            Arrays.fill(array, NO_NODE);
+            return array;
+        }
+    }
+
+    /**
+     * A minimal growable array of primitive ints.
+     */
+    private static final class IntArrayBuilder {
+
+        private int[] array = new int[1024];
+
+        private int size = 0;
+
+        private void add(int value) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+            }
+            array[size++] = value;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(array, size);
+        }
+    }
+}
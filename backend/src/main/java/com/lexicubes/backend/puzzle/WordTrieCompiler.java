@@ -0,0 +1,38 @@
+package com.lexicubes.backend.puzzle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Compiles a word list (one lowercase word per line) into the binary dictionary format
+ * read by {@link WordTrie#map(Path)}.
+ * <p>
+ * This is run at build time by the {@code compileDictionary} Gradle task, so that the
+ * solver only has to map the compiled dictionary at startup rather than build it.
+ */
+public class WordTrieCompiler {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: WordTrieCompiler <word list> <output file>");
+        }
+
+        final Path wordList = Path.of(args[0]);
+        final Path outputFile = Path.of(args[1]);
+
+        final WordTrie wordTrie;
+        try (final Stream<String> lines = Files.lines(wordList)) {
+            wordTrie = WordTrie.of(lines::iterator);
+        }
+
+        Files.createDirectories(outputFile.toAbsolutePath().getParent());
+        wordTrie.write(outputFile);
+
+        System.out.printf("Compiled %d words into %d nodes (%d bytes)%n",
+                wordTrie.getWordCount(),
+                wordTrie.getNodeCount(),
+                Files.size(outputFile));
+    }
+}
@@ -0,0 +1,18 @@
+package com.lexicubes.backend.puzzle.converters;
+
+import com.lexicubes.backend.puzzle.Puzzle;
+import com.lexicubes.backend.puzzle.PuzzleCubesCodec;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.stereotype.Component;
+
+@Component
+@ReadingConverter
+public class BinaryToPuzzleCubesConverter implements Converter<byte[], Puzzle.Cubes> {
+
+    @Override
+    public Puzzle.Cubes convert(@NotNull byte[] source) {
+        return PuzzleCubesCodec.decode(source);
+    }
+}
@@ -1,30 +0,0 @@
-package com.lexicubes.backend.puzzle.converters;
-
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.lexicubes.backend.puzzle.Puzzle;
-import org.jetbrains.annotations.NotNull;
-import org.springframework.core.convert.converter.Converter;
-import org.springframework.data.convert.ReadingConverter;
-import org.springframework.stereotype.Component;
-
-@Component
-@ReadingConverter
-public class JsonToPuzzleCubesConverter implements Converter<String, Puzzle.Cubes> {
-
-    private final ObjectMapper objectMapper;
-
-    public JsonToPuzzleCubesConverter(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
-    }
-
-    @Override
-    public Puzzle.Cubes convert(@NotNull String source) {
-        try {
-            return objectMapper.readValue(source, new TypeReference<>() {});
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
-    }
-}
@@ -0,0 +1,200 @@
+package com.lexicubes.backend.puzzle.converters;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.lexicubes.backend.puzzle.Puzzle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Jackson module that reads and writes {@link Puzzle.Cubes} in the JSON format produced by the
+ * annotation-driven mapping of {@link Puzzle.Cube} (which puzzles were stored in before the
+ * binary format), using the streaming API in a single pass without reflection or identity
+ * resolution. The format is:
+ * <pre>{@code
+ * {"list":[{"id":0,"x":0,"y":0,"z":0,
+ *           "topFace":{"id":0,"letter":"a","side":"TOP","cube":0},
+ *           "leftFace":{"id":1,"letter":"b","side":"LEFT","cube":0},
+ *           "rightFace":{"id":2,"letter":"c","side":"RIGHT","cube":0}}, ...]}
+ * }</pre>
+ * Cubes are built with their public constructor, which derives the face IDs, so face IDs that
+ * do not match their cube are rejected.
+ * <p>
+ * Being a {@link Component}, the module is registered with the application's ObjectMapper.
+ *
+ * @see PuzzleCubesJsonToBinaryMigration
+ */
+@Component
+public class PuzzleCubesJsonModule extends SimpleModule {
+
+    public PuzzleCubesJsonModule() {
+        super(PuzzleCubesJsonModule.class.getSimpleName());
+        addSerializer(Puzzle.Cubes.class, new CubesSerializer());
+        addDeserializer(Puzzle.Cubes.class, new CubesDeserializer());
+    }
+
+    private static final class CubesSerializer extends StdSerializer<Puzzle.Cubes> {
+
+        private CubesSerializer() {
+            super(Puzzle.Cubes.class);
+        }
+
+        @Override
+        public void serialize(Puzzle.Cubes cubes, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("list");
+            for (final Puzzle.Cube cube : cubes.list()) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", cube.getId());
+                generator.writeNumberField("x", cube.getX());
+                generator.writeNumberField("y", cube.getY());
+                generator.writeNumberField("z", cube.getZ());
+                writeFace(generator, "topFace", cube.getTopFace());
+                writeFace(generator, "leftFace", cube.getLeftFace());
+                writeFace(generator, "rightFace", cube.getRightFace());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        private static void writeFace(JsonGenerator generator, String fieldName, Puzzle.Cube.Face face) throws IOException {
+            generator.writeObjectFieldStart(fieldName);
+            generator.writeNumberField("id", face.getId());
+            generator.writeStringField("letter", String.valueOf(face.getLetter()));
+            generator.writeStringField("side", face.getSide().name());
+            generator.writeNumberField("cube", face.getCube().getId());
+            generator.writeEndObject();
+        }
+    }
+
+    private static final class CubesDeserializer extends StdDeserializer<Puzzle.Cubes> {
+
+        private static final Puzzle.Cube.Side[] SIDES = Puzzle.Cube.Side.values();
+
+        private CubesDeserializer() {
+            super(Puzzle.Cubes.class);
+        }
+
+        @Override
+        public Puzzle.Cubes deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            expectToken(parser, context, JsonToken.START_OBJECT);
+
+            List<Puzzle.Cube> cubes = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.currentName();
+                parser.nextToken();
+                if (fieldName.equals("list")) {
+                    cubes = readCubes(parser, context);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            if (cubes == null) {
+                return context.reportInputMismatch(Puzzle.Cubes.class, "Missing cube list");
+            }
+
+            return new Puzzle.Cubes(cubes);
+        }
+
+        private static List<Puzzle.Cube> readCubes(JsonParser parser, DeserializationContext context) throws IOException {
+            expectToken(parser, context, JsonToken.START_ARRAY);
+
+            final List<Puzzle.Cube> cubes = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                cubes.add(readCube(parser, context));
+            }
+            return cubes;
+        }
+
+        private static Puzzle.Cube readCube(JsonParser parser, DeserializationContext context) throws IOException {
+            expectToken(parser, context, JsonToken.START_OBJECT);
+
+            int id = 0;
+            int x = 0;
+            int y = 0;
+            int z = 0;
+            final char[] letters = new char[SIDES.length];
+            final int[] faceIds = new int[SIDES.length];
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.currentName();
+                parser.nextToken();
+                switch (fieldName) {
+                    case "id" -> id = parser.getIntValue();
+                    case "x" -> x = parser.getIntValue();
+                    case "y" -> y = parser.getIntValue();
+                    case "z" -> z = parser.getIntValue();
+                    case "topFace" -> readFace(parser, context, Puzzle.Cube.Side.TOP, letters, faceIds);
+                    case "leftFace" -> readFace(parser, context, Puzzle.Cube.Side.LEFT, letters, faceIds);
+                    case "rightFace" -> readFace(parser, context, Puzzle.Cube.Side.RIGHT, letters, faceIds);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            final Puzzle.Cube cube;
+            try {
+                cube = new Puzzle.Cube(id, x, y, z,
+                        letters[Puzzle.Cube.Side.TOP.ordinal()],
+                        letters[Puzzle.Cube.Side.LEFT.ordinal()],
+                        letters[Puzzle.Cube.Side.RIGHT.ordinal()]);
+            } catch (IllegalArgumentException e) {
+                return context.reportInputMismatch(Puzzle.Cube.class, "Invalid cube %d: %s", id, e.getMessage());
+            }
+
+            if (faceIds[Puzzle.Cube.Side.TOP.ordinal()] != cube.getTopFace().getId()
+                    || faceIds[Puzzle.Cube.Side.LEFT.ordinal()] != cube.getLeftFace().getId()
+                    || faceIds[Puzzle.Cube.Side.RIGHT.ordinal()] != cube.getRightFace().getId()) {
+                return context.reportInputMismatch(Puzzle.Cube.class, "Face IDs do not match cube %d", id);
+            }
+
+            return cube;
+        }
+
+        private static void readFace(JsonParser parser,
+                                     DeserializationContext context,
+                                     Puzzle.Cube.Side side,
+                                     char[] letters,
+                                     int[] faceIds) throws IOException {
+
+            expectToken(parser, context, JsonToken.START_OBJECT);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.currentName();
+                parser.nextToken();
+                switch (fieldName) {
+                    case "id" -> faceIds[side.ordinal()] = parser.getIntValue();
+                    case "letter" -> {
+                        final String letter = parser.getText();
+                        if (letter.length() != 1) {
+                            context.reportInputMismatch(Puzzle.Cube.Face.class, "Invalid face letter: %s", letter);
+                        }
+                        letters[side.ordinal()] = letter.charAt(0);
+                    }
+                    case "side" -> {
+                        if (!side.name().equals(parser.getText())) {
+                            context.reportInputMismatch(Puzzle.Cube.Face.class, "Expected %s face", side);
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        private static void expectToken(JsonParser parser, DeserializationContext context, JsonToken token) throws IOException {
+            if (parser.currentToken() != token) {
+                context.reportWrongTokenException(Puzzle.Cubes.class, token, "Malformed puzzle cubes");
+            }
+        }
+    }
+}
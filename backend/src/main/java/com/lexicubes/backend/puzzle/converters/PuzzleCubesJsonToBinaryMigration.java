@@ -0,0 +1,73 @@
+package com.lexicubes.backend.puzzle.converters;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lexicubes.backend.puzzle.Puzzle;
+import com.lexicubes.backend.puzzle.PuzzleCubesCodec;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Liquibase change that converts the cubes of every existing puzzle from the JSON column
+ * {@code puzzles.cubes} into the binary column {@code puzzles.cubes_binary}, in the format of
+ * {@link PuzzleCubesCodec}.
+ */
+public class PuzzleCubesJsonToBinaryMigration implements CustomTaskChange {
+
+    private static final int BATCH_SIZE = 500;
+
+    private int convertedPuzzleCount = 0;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new PuzzleCubesJsonModule());
+
+        final Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (final Statement select = connection.createStatement();
+             final ResultSet puzzles = select.executeQuery("SELECT id, cubes FROM puzzles");
+             final PreparedStatement update = connection.prepareStatement(
+                     "UPDATE puzzles SET cubes_binary = ? WHERE id = ?")) {
+
+            while (puzzles.next()) {
+                final Puzzle.Cubes cubes = objectMapper.readValue(puzzles.getString("cubes"), Puzzle.Cubes.class);
+                update.setBytes(1, PuzzleCubesCodec.encode(cubes));
+                update.setLong(2, puzzles.getLong("id"));
+                update.addBatch();
+
+                if (++convertedPuzzleCount % BATCH_SIZE == 0) {
+                    update.executeBatch();
+                }
+            }
+            update.executeBatch();
+        } catch (SQLException | JsonProcessingException e) {
+            throw new CustomChangeException("Failed to convert puzzle cubes to binary", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Converted the cubes of " + convertedPuzzleCount + " puzzles to binary";
+    }
+
+    @Override
+    public void setUp() {}
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {}
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
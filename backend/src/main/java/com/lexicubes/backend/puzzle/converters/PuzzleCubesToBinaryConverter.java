@@ -0,0 +1,18 @@
+package com.lexicubes.backend.puzzle.converters;
+
+import com.lexicubes.backend.puzzle.Puzzle;
+import com.lexicubes.backend.puzzle.PuzzleCubesCodec;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.stereotype.Component;
+
+@Component
+@WritingConverter
+public class PuzzleCubesToBinaryConverter implements Converter<Puzzle.Cubes, byte[]> {
+
+    @Override
+    public byte[] convert(@NotNull Puzzle.Cubes source) {
+        return PuzzleCubesCodec.encode(source);
+    }
+}
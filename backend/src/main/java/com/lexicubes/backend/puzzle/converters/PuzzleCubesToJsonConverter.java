@@ -1,29 +0,0 @@
-package com.lexicubes.backend.puzzle.converters;
-
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.lexicubes.backend.puzzle.Puzzle;
-import org.jetbrains.annotations.NotNull;
-import org.springframework.core.convert.converter.Converter;
-import org.springframework.data.convert.WritingConverter;
-import org.springframework.stereotype.Component;
-
-@Component
-@WritingConverter
-public class PuzzleCubesToJsonConverter implements Converter<Puzzle.Cubes, String> {
-
-    private final ObjectMapper objectMapper;
-
-    public PuzzleCubesToJsonConverter(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
-    }
-
-    @Override
-    public String convert(@NotNull Puzzle.Cubes source) {
-        try {
-            return objectMapper.writeValueAsString(source);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
-    }
-}
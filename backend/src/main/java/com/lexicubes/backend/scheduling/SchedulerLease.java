@@ -0,0 +1,40 @@
+package com.lexicubes.backend.scheduling;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * A named lease that at most one backend instance holds at a time, so that scheduled work is
+ * only done by one instance. A lease is free once it has expired, and is renewed by acquiring
+ * it again before then (see {@link SchedulerLeaseRepository}).
+ */
+@Table("scheduler_leases")
+public class SchedulerLease {
+
+    @Id
+    private final String name;
+
+    private final String holder;
+
+    private final LocalDateTime expiresAt;
+
+    public SchedulerLease(String name, String holder, LocalDateTime expiresAt) {
+        this.name = name;
+        this.holder = holder;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
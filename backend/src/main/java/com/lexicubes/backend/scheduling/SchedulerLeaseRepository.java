@@ -0,0 +1,38 @@
+package com.lexicubes.backend.scheduling;
+
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.Repository;
+
+/**
+ * Leases are taken and given up with single conditional updates, so two instances can never
+ * both succeed. Expiry is compared against the database clock rather than the instances' own.
+ */
+public interface SchedulerLeaseRepository extends Repository<SchedulerLease, String> {
+
+    /**
+     * Acquires the lease if it is free or already held by the given holder, in which case it
+     * is extended.
+     *
+     * @return true if the lease is now held by the given holder
+     */
+    @Modifying
+    @Query("""
+            UPDATE scheduler_leases
+            SET holder = :holder, expires_at = TIMESTAMPADD(SECOND, :durationSeconds, CURRENT_TIMESTAMP(3))
+            WHERE name = :name AND (holder = :holder OR expires_at < CURRENT_TIMESTAMP(3))
+            """)
+    boolean tryAcquire(String name, String holder, long durationSeconds);
+
+    /**
+     * Gives up the lease if it is held by the given holder, so that another instance can
+     * acquire it without waiting for it to expire.
+     */
+    @Modifying
+    @Query("""
+            UPDATE scheduler_leases
+            SET holder = NULL, expires_at = CURRENT_TIMESTAMP(3)
+            WHERE name = :name AND holder = :holder
+            """)
+    void release(String name, String holder);
+}
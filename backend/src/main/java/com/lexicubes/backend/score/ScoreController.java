@@ -1,5 +1,7 @@
 package com.lexicubes.backend.score;
 
+import com.lexicubes.backend.puzzle.PuzzleNotFoundException;
+import com.lexicubes.backend.puzzle.PuzzleRepository;
 import com.lexicubes.backend.user.AuthenticatedUserDetails;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -13,8 +15,13 @@ public class ScoreController {
 
     private final ScoreService scoreService;
 
-    public ScoreController(ScoreService scoreService) {
+    private final PuzzleRepository puzzleRepository;
+
+    public ScoreController(ScoreService scoreService,
+                           PuzzleRepository puzzleRepository) {
+
         this.scoreService = scoreService;
+        this.puzzleRepository = puzzleRepository;
     }
 
     @GetMapping("/api/puzzles/{puzzleId}/score")
@@ -29,9 +36,15 @@ public class ScoreController {
                                      @RequestBody SubmitScoreRequestBody requestBody,
                                      @AuthenticationPrincipal AuthenticatedUserDetails principal) {
 
+        // Checked up front, as a buffered score is only written once the request is over
+        if (puzzleRepository.findById(puzzleId).isEmpty()) {
+            throw new PuzzleNotFoundException();
+        }
+
         scoreService.submitScore(new ScoreService.SubmitScoreRequest(
                 puzzleId,
                 principal.getId(),
+                principal.getUsername(),
                 requestBody.numPoints(),
                 requestBody.numRequiredWordsFound(),
                 requestBody.numBonusWordsFound()
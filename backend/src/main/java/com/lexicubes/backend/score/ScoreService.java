@@ -1,28 +1,70 @@
 package com.lexicubes.backend.score;
 
-import org.springframework.data.jdbc.core.mapping.AggregateReference;
+import com.lexicubes.backend.leaderboard.RankedLeaderboardService;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Objects;
 
 @Service
 public class ScoreService {
 
     public record SubmitScoreRequest(Long puzzleId,
                                      Long userId,
+                                     String userName,
                                      int numPoints,
                                      int numRequiredWordsFound,
                                      int numBonusWordsFound) {}
 
+    /**
+     * Inserts the score of a user for a puzzle, or if they already have one, raises each of its
+     * counts to the submitted count if that is higher. This is a single atomic statement, relying
+     * on the unique key on (puzzle_id, user_id), so concurrent submits cannot lose an update or
+     * insert a duplicate score. Passing the ID of an existing score through LAST_INSERT_ID makes
+     * it the generated key, so the ID of the score is known either way without reading it back.
+     */
+    private static final String UPSERT_MAX_SCORE = """
+            INSERT INTO scores (puzzle_id, user_id, num_points, num_required_words_found, num_bonus_words_found)
+            VALUES (?, ?, ?, ?, ?) AS submitted
+            ON DUPLICATE KEY UPDATE
+                id = LAST_INSERT_ID(scores.id),
+                num_points = GREATEST(scores.num_points, submitted.num_points),
+                num_required_words_found = GREATEST(scores.num_required_words_found, submitted.num_required_words_found),
+                num_bonus_words_found = GREATEST(scores.num_bonus_words_found, submitted.num_bonus_words_found)
+            """;
+
     private final ScoreRepository scoreRepository;
 
-    public ScoreService(ScoreRepository scoreRepository) {
+    private final JdbcTemplate jdbcTemplate;
+
+    private final RankedLeaderboardService rankedLeaderboardService;
+
+    /**
+     * The buffer that submitted scores are written behind through, or null if they are written
+     * as they are submitted.
+     */
+    @Nullable
+    private final ScoreWriteBuffer scoreWriteBuffer;
+
+    public ScoreService(ScoreRepository scoreRepository,
+                        JdbcTemplate jdbcTemplate,
+                        RankedLeaderboardService rankedLeaderboardService,
+                        @Nullable ScoreWriteBuffer scoreWriteBuffer) {
+
         this.scoreRepository = scoreRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rankedLeaderboardService = rankedLeaderboardService;
+        this.scoreWriteBuffer = scoreWriteBuffer;
     }
 
     public ScoreResponse getScoreForPuzzleAndUser(Long puzzleId, Long userId) {
-        return scoreRepository
+        final ScoreResponse savedScore = scoreRepository
                 .findScoreByPuzzleIdAndUserId(puzzleId, userId)
                 .map(s -> new ScoreResponse(
                         s.getUser().getId(),
@@ -30,36 +72,72 @@ public class ScoreService {
                         s.getNumRequiredWordsFound(),
                         s.getNumBonusWordsFound()))
                 .orElse(new ScoreResponse(userId, 0, 0, 0));
+
+        // A score submitted to this instance may not have been written yet
+        final ScoreWriteBuffer.PendingScore pendingScore = scoreWriteBuffer != null
+                ? scoreWriteBuffer.getPendingScore(puzzleId, userId)
+                : null;
+        if (pendingScore == null) {
+            return savedScore;
+        }
+
+        return new ScoreResponse(
+                userId,
+                Math.max(savedScore.numPoints(), pendingScore.numPoints()),
+                Math.max(savedScore.numRequiredWordsFound(), pendingScore.numRequiredWordsFound()),
+                Math.max(savedScore.numBonusWordsFound(), pendingScore.numBonusWordsFound()));
     }
 
+    /**
+     * Submits the score of a user for a puzzle, keeping the highest of each count they have
+     * submitted for it. In write-behind mode, the score is buffered to be written later, unless
+     * the buffer is full.
+     */
     @Transactional
     public void submitScore(SubmitScoreRequest submitScoreRequest) {
-        final Optional<Score> existingScore = scoreRepository.findScoreByPuzzleIdAndUserId(
-                submitScoreRequest.puzzleId(),
-                submitScoreRequest.userId());
-
-        final Long scoreId = existingScore.map(Score::getId).orElse(null);
-
-        final int numPoints = Math.max(
-                existingScore.map(Score::getNumPoints).orElse(0),
-                submitScoreRequest.numPoints());
+        final int numPoints = Math.max(0, submitScoreRequest.numPoints());
+        final int numRequiredWordsFound = Math.max(0, submitScoreRequest.numRequiredWordsFound());
+        final int numBonusWordsFound = Math.max(0, submitScoreRequest.numBonusWordsFound());
 
-        final int numRequiredWordsFound = Math.max(
-                existingScore.map(Score::getNumRequiredWordsFound).orElse(0),
-                submitScoreRequest.numRequiredWordsFound());
+        if (scoreWriteBuffer != null && scoreWriteBuffer.offer(new ScoreWriteBuffer.PendingScore(
+                submitScoreRequest.puzzleId(),
+                submitScoreRequest.userId(),
+                numPoints,
+                numRequiredWordsFound,
+                numBonusWordsFound))) {
+            return;
+        }
 
-        final int numBonusWordsFound = Math.max(
-                existingScore.map(Score::getNumBonusWordsFound).orElse(0),
-                submitScoreRequest.numBonusWordsFound());
+        final Long scoreId = upsertMaxScore(
+                submitScoreRequest.puzzleId(),
+                submitScoreRequest.userId(),
+                numPoints,
+                numRequiredWordsFound,
+                numBonusWordsFound);
 
-        final Score score = new Score(
+        rankedLeaderboardService.recordScore(submitScoreRequest.puzzleId(), new ScoreWithUser(
                 scoreId,
-                AggregateReference.to(submitScoreRequest.puzzleId()),
-                AggregateReference.to(submitScoreRequest.userId()),
+                submitScoreRequest.userId(),
+                submitScoreRequest.userName(),
                 numPoints,
                 numRequiredWordsFound,
-                numBonusWordsFound);
+                numBonusWordsFound));
+    }
 
-        scoreRepository.save(score);
+    /**
+     * {@return the ID of the upserted score}
+     */
+    private Long upsertMaxScore(Long puzzleId, Long userId, int numPoints, int numRequiredWordsFound, int numBonusWordsFound) {
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(UPSERT_MAX_SCORE, Statement.RETURN_GENERATED_KEYS);
+            statement.setLong(1, puzzleId);
+            statement.setLong(2, userId);
+            statement.setInt(3, numPoints);
+            statement.setInt(4, numRequiredWordsFound);
+            statement.setInt(5, numBonusWordsFound);
+            return statement;
+        }, keyHolder);
+        return Objects.requireNonNull(keyHolder.getKey()).longValue();
     }
 }
@@ -0,0 +1,380 @@
+package com.lexicubes.backend.score;
+
+import com.lexicubes.backend.leaderboard.RankedLeaderboardService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Buffers submitted scores in memory and writes them to the database in batches, so that a burst
+ * of submits (e.g. when a new daily puzzle is published) does not become a burst of writes.
+ * <p>
+ * Pending scores are coalesced per puzzle and user, keeping the highest of each count, which is
+ * what the database would have kept had they been written one by one. They are written every
+ * {@code flush-interval}, as soon as {@code flush-size} scores are pending, and when the app shuts
+ * down. Once {@code capacity} scores are pending, further scores are not accepted and are written
+ * directly by the caller instead. Scores still pending when the instance crashes are lost.
+ * <p>
+ * Scores stay pending until the statement writing them has committed, so that reads which
+ * combine the saved score with the pending one never miss a score being written. A score that
+ * the database rejects for good (e.g. because its user has been deleted meanwhile) is dropped,
+ * rather than keeping the buffer from ever being flushed.
+ * <p>
+ * Flushes never run on the thread of the request that filled the buffer, and each statement is
+ * written in a new transaction of its own, so buffered scores are never written, or rolled back,
+ * along with the transaction of whichever request happened to submit them.
+ */
+@Component
+@ConditionalOnProperty(name = "app.score-write-behind.enabled", havingValue = "true")
+public class ScoreWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoreWriteBuffer.class);
+
+    /**
+     * The maximum number of scores written by a single statement, which keeps the statement well
+     * under MySQL's limit of 65,535 placeholders.
+     */
+    private static final int MAX_SCORES_PER_STATEMENT = 500;
+
+    private static final String UPSERT_COLUMNS =
+            "INSERT INTO scores (puzzle_id, user_id, num_points, num_required_words_found, num_bonus_words_found) VALUES ";
+
+    private static final String UPSERT_ROW = "(?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_ON_DUPLICATE_KEY = """
+             AS submitted
+            ON DUPLICATE KEY UPDATE
+                num_points = GREATEST(scores.num_points, submitted.num_points),
+                num_required_words_found = GREATEST(scores.num_required_words_found, submitted.num_required_words_found),
+                num_bonus_words_found = GREATEST(scores.num_bonus_words_found, submitted.num_bonus_words_found)
+            """;
+
+    /**
+     * Orders scores by their unique key, so that concurrent flushes from several instances lock
+     * the rows they share in the same order rather than deadlocking.
+     */
+    private static final Comparator<PendingScore> KEY_ORDER = Comparator
+            .comparingLong(PendingScore::puzzleId)
+            .thenComparingLong(PendingScore::userId);
+
+    private record Key(Long puzzleId, Long userId) {}
+
+    /**
+     * The highest counts submitted by a user for a puzzle that have not been written yet.
+     */
+    public record PendingScore(Long puzzleId,
+                               Long userId,
+                               int numPoints,
+                               int numRequiredWordsFound,
+                               int numBonusWordsFound) {
+
+        private ScoreWithUser toScoreWithUser() {
+            return new ScoreWithUser(null, userId, null, numPoints, numRequiredWordsFound, numBonusWordsFound);
+        }
+
+        private PendingScore max(PendingScore other) {
+            return new PendingScore(
+                    puzzleId,
+                    userId,
+                    Math.max(numPoints, other.numPoints),
+                    Math.max(numRequiredWordsFound, other.numRequiredWordsFound),
+                    Math.max(numBonusWordsFound, other.numBonusWordsFound));
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final RankedLeaderboardService rankedLeaderboardService;
+
+    private final int flushSize;
+
+    private final int capacity;
+
+    private final ConcurrentMap<Key, PendingScore> pendingScores = new ConcurrentHashMap<>();
+
+    /**
+     * Held while flushing, so that only one flush writes at a time.
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Runs the flushes requested once the buffer fills up to the flush size.
+     */
+    private final ExecutorService flushExecutor;
+
+    /**
+     * Whether a flush has been requested from the executor but has not started yet, so that
+     * offers do not queue up a flush each while the buffer stays full.
+     */
+    private final AtomicBoolean isFlushRequested = new AtomicBoolean();
+
+    private final TransactionTemplate newTransaction;
+
+    private final Timer flushSuccessTimer;
+
+    private final Timer flushFailureTimer;
+
+    private final DistributionSummary flushScoresSummary;
+
+    private final Counter overflowCounter;
+
+    private final Counter droppedCounter;
+
+    @Autowired
+    public ScoreWriteBuffer(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            RankedLeaderboardService rankedLeaderboardService,
+                            @Value("${app.score-write-behind.flush-size}") int flushSize,
+                            @Value("${app.score-write-behind.capacity}") int capacity,
+                            MeterRegistry meterRegistry) {
+
+        this(jdbcTemplate,
+                transactionManager,
+                rankedLeaderboardService,
+                flushSize,
+                capacity,
+                meterRegistry,
+                Executors.newSingleThreadExecutor(Thread.ofPlatform().name("score-write-buffer").daemon().factory()));
+    }
+
+    public ScoreWriteBuffer(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            RankedLeaderboardService rankedLeaderboardService,
+                            int flushSize,
+                            int capacity,
+                            MeterRegistry meterRegistry,
+                            ExecutorService flushExecutor) {
+
+        if (flushSize < 1 || capacity < flushSize) {
+            throw new IllegalArgumentException("Flush size must be positive and at most the capacity");
+        }
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.rankedLeaderboardService = rankedLeaderboardService;
+        this.flushSize = flushSize;
+        this.capacity = capacity;
+        this.flushExecutor = flushExecutor;
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Gauge.builder("score.write.buffer.pending", pendingScores, ConcurrentMap::size)
+                .description("Submitted scores waiting to be written")
+                .register(meterRegistry);
+        flushSuccessTimer = buildFlushTimer("success", meterRegistry);
+        flushFailureTimer = buildFlushTimer("failure", meterRegistry);
+        flushScoresSummary = DistributionSummary.builder("score.write.buffer.flush.scores")
+                .description("Scores written by each flush")
+                .register(meterRegistry);
+        overflowCounter = Counter.builder("score.write.buffer.overflows")
+                .description("Submitted scores written directly because the buffer was full")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("score.write.buffer.dropped")
+                .description("Buffered scores dropped because the database rejected them")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds a submitted score to the buffer, merging it with any pending score of the same user for
+     * the same puzzle. If this fills the buffer up to the flush size, a flush is requested from
+     * the buffer's own thread, unless one has already been requested.
+     *
+     * @param score the submitted score
+     * @return true if the score was buffered, false if the buffer is full and the caller should
+     * write the score itself
+     */
+    public boolean offer(PendingScore score) {
+        final Key key = new Key(score.puzzleId(), score.userId());
+
+        // The capacity is approximate, since concurrent offers may all see room for one more
+        if (pendingScores.size() >= capacity && !pendingScores.containsKey(key)) {
+            overflowCounter.increment();
+            return false;
+        }
+
+        pendingScores.merge(key, score, PendingScore::max);
+
+        if (pendingScores.size() >= flushSize && isFlushRequested.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(() -> {
+                    isFlushRequested.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down, so the pending scores are written by flushOnShutdown instead
+                isFlushRequested.set(false);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@return the pending score of a user for a puzzle, or null if none is pending}
+     */
+    public @Nullable PendingScore getPendingScore(Long puzzleId, Long userId) {
+        return pendingScores.get(new Key(puzzleId, userId));
+    }
+
+    /**
+     * Writes all pending scores to the database, each statement in a new transaction, then
+     * records the written scores into the leaderboards. Scores leave the buffer once their
+     * statement has committed, unless they have been raised meanwhile. If a statement violates a
+     * constraint, its scores are written one by one instead, dropping those that still fail.
+     * Any other failure to write or commit leaves the remaining scores to the next flush.
+     */
+    @Scheduled(
+            initialDelayString = "${app.score-write-behind.flush-interval}",
+            fixedDelayString = "${app.score-write-behind.flush-interval}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPendingScores();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushExecutor.shutdown();
+        logger.info("Writing {} buffered scores before shutting down", pendingScores.size());
+        flush();
+    }
+
+    private void flushPendingScores() {
+        if (pendingScores.isEmpty()) {
+            return;
+        }
+
+        final long startTime = System.nanoTime();
+
+        final List<PendingScore> scores = new ArrayList<>(pendingScores.values());
+        scores.sort(KEY_ORDER);
+
+        final List<PendingScore> writtenScores = new ArrayList<>(scores.size());
+        int droppedCount = 0;
+        int index = 0;
+        try {
+            while (index < scores.size()) {
+                final List<PendingScore> statementScores = scores.subList(
+                        index,
+                        Math.min(scores.size(), index + MAX_SCORES_PER_STATEMENT));
+                try {
+                    newTransaction.executeWithoutResult(status -> upsertMaxScores(statementScores));
+                    statementScores.forEach(this::removePendingScore);
+                    writtenScores.addAll(statementScores);
+                } catch (DataIntegrityViolationException e) {
+                    droppedCount += writeOneByOne(statementScores, writtenScores);
+                }
+                index += statementScores.size();
+            }
+        } catch (DataAccessException | TransactionException e) {
+            logger.error("Failed to write {} buffered scores, retrying with the next flush",
+                    scores.size() - index, e);
+        }
+
+        (index == scores.size() && droppedCount == 0 ? flushSuccessTimer : flushFailureTimer)
+                .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        flushScoresSummary.record(writtenScores.size());
+
+        final Map<Long, List<ScoreWithUser>> writtenScoresByPuzzleId = writtenScores.stream()
+                .collect(Collectors.groupingBy(
+                        PendingScore::puzzleId,
+                        Collectors.mapping(PendingScore::toScoreWithUser, Collectors.toList())));
+        writtenScoresByPuzzleId.forEach(rankedLeaderboardService::recordWrittenScores);
+    }
+
+    /**
+     * Writes the scores of a statement that violated a constraint one by one, each in a new
+     * transaction, so that the scores which can be written are not held back by those which
+     * cannot. Those which still violate a constraint are dropped.
+     *
+     * @return the number of scores that were dropped
+     */
+    private int writeOneByOne(List<PendingScore> scores, List<PendingScore> writtenScores) {
+        int droppedCount = 0;
+        for (final PendingScore score : scores) {
+            try {
+                newTransaction.executeWithoutResult(status -> upsertMaxScores(List.of(score)));
+                removePendingScore(score);
+                writtenScores.add(score);
+            } catch (DataIntegrityViolationException e) {
+                logger.error("Dropping buffered score {} rejected by the database", score, e);
+                removePendingScore(score);
+                droppedCounter.increment();
+                droppedCount++;
+            }
+        }
+        return droppedCount;
+    }
+
+    /**
+     * Removes a score from the buffer, unless it has been raised since it was read.
+     */
+    private void removePendingScore(PendingScore score) {
+        pendingScores.remove(new Key(score.puzzleId(), score.userId()), score);
+    }
+
+    /**
+     * Writes the given scores with a single multi-row upsert, which works like the upsert of
+     * {@link ScoreService#submitScore} for each of them but takes one round trip.
+     */
+    private void upsertMaxScores(List<PendingScore> scores) {
+        final StringBuilder sql = new StringBuilder(UPSERT_COLUMNS);
+        final Object[] args = new Object[scores.size() * 5];
+        for (int i = 0; i < scores.size(); i++) {
+            final PendingScore score = scores.get(i);
+            sql.append(i == 0 ? "" : ", ").append(UPSERT_ROW);
+            args[i * 5] = score.puzzleId();
+            args[i * 5 + 1] = score.userId();
+            args[i * 5 + 2] = score.numPoints();
+            args[i * 5 + 3] = score.numRequiredWordsFound();
+            args[i * 5 + 4] = score.numBonusWordsFound();
+        }
+        sql.append(UPSERT_ON_DUPLICATE_KEY);
+
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    private static Timer buildFlushTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("score.write.buffer.flush")
+                .description("Time taken to write the buffered scores")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.lexicubes.backend.statistics;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * The running totals of the scores of a puzzle. The totals are kept up to date by triggers on
+ * the {@code scores} table, which add the difference between the old and new counts of each
+ * score in the same transaction as the score is written.
+ */
+@Table("puzzle_stats")
+public class PuzzleStats {
+
+    @Id
+    private final Long puzzleId;
+
+    private final long numScores;
+
+    private final long totalNumPoints;
+
+    private final long totalNumBonusWordsFound;
+
+    public PuzzleStats(Long puzzleId, long numScores, long totalNumPoints, long totalNumBonusWordsFound) {
+        this.puzzleId = puzzleId;
+        this.numScores = numScores;
+        this.totalNumPoints = totalNumPoints;
+        this.totalNumBonusWordsFound = totalNumBonusWordsFound;
+    }
+
+    public Long getPuzzleId() {
+        return puzzleId;
+    }
+
+    public long getNumScores() {
+        return numScores;
+    }
+
+    public long getTotalNumPoints() {
+        return totalNumPoints;
+    }
+
+    public long getTotalNumBonusWordsFound() {
+        return totalNumBonusWordsFound;
+    }
+}
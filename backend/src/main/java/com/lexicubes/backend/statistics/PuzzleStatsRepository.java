@@ -0,0 +1,10 @@
+package com.lexicubes.backend.statistics;
+
+import org.springframework.data.repository.Repository;
+
+import java.util.Optional;
+
+public interface PuzzleStatsRepository extends Repository<PuzzleStats, Long> {
+
+    Optional<PuzzleStats> findById(Long puzzleId);
+}
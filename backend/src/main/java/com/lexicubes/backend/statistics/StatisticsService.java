@@ -1,24 +1,26 @@
 package com.lexicubes.backend.statistics;
 
-import com.lexicubes.backend.score.ScoreRepository;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class StatisticsService {
 
-    private final ScoreRepository scoreRepository;
+    private final PuzzleStatsRepository puzzleStatsRepository;
 
-    public StatisticsService(ScoreRepository scoreRepository) {
-        this.scoreRepository = scoreRepository;
+    public StatisticsService(PuzzleStatsRepository puzzleStatsRepository) {
+        this.puzzleStatsRepository = puzzleStatsRepository;
     }
 
-    @Transactional(readOnly = true)
-    @Cacheable(cacheNames = "globalStatistics")
+    /**
+     * Gets the statistics of the scores of a puzzle from its running totals, which are always up
+     * to date with its scores. The averages are rounded down.
+     */
     public GlobalStatistics getGlobalStatistics(Long puzzleId) {
-        final int averageNumPoints = scoreRepository.getAverageNumPointsByPuzzleId(puzzleId);
-        final int averageNumBonusWordsFound = scoreRepository.getAverageNumBonusWordsFoundByPuzzleId(puzzleId);
-        return new GlobalStatistics(averageNumPoints, averageNumBonusWordsFound);
+        return puzzleStatsRepository.findById(puzzleId)
+                .filter(stats -> stats.getNumScores() > 0)
+                .map(stats -> new GlobalStatistics(
+                        (int) (stats.getTotalNumPoints() / stats.getNumScores()),
+                        (int) (stats.getTotalNumBonusWordsFound() / stats.getNumScores())))
+                .orElse(new GlobalStatistics(0, 0));
     }
 }
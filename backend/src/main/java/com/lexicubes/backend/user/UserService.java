@@ -1,6 +1,7 @@
 package com.lexicubes.backend.user;
 
 import com.lexicubes.backend.score.ScoreRepository;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +31,7 @@ public class UserService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = "leaderboards", allEntries = true)
     public void deleteUser(Long userId) {
         if (userRepository.existsById(userId)) {
             scoreRepository.deleteAllScoresByUserId(userId);
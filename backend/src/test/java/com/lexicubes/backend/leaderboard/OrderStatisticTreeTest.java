@@ -0,0 +1,114 @@
+package com.lexicubes.backend.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderStatisticTreeTest {
+
+    private static final Comparator<Integer> ORDER = Comparator.naturalOrder();
+
+    private static void assertSameElements(List<Integer> expected, OrderStatisticTree<Integer> tree) {
+        assertEquals(expected.size(), tree.size());
+        assertEquals(expected, tree.subList(0, tree.size()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), tree.get(i));
+            assertEquals(i, tree.indexOf(expected.get(i)));
+        }
+    }
+
+    @Test
+    public void ofSorted_shouldKeepElementsInOrder() {
+        final List<Integer> elements = IntStream.range(0, 100).map(i -> i * 2).boxed().toList();
+
+        final OrderStatisticTree<Integer> tree = OrderStatisticTree.ofSorted(elements, ORDER);
+
+        assertSameElements(elements, tree);
+        assertEquals(List.of(10, 12, 14), tree.subList(5, 8));
+        assertEquals(List.of(), tree.subList(100, 100));
+    }
+
+    @Test
+    public void indexOf_missingElement_shouldReturnInsertionPoint() {
+        final OrderStatisticTree<Integer> tree = OrderStatisticTree.ofSorted(List.of(10, 20, 30), ORDER);
+
+        assertEquals(-1, tree.indexOf(5));
+        assertEquals(-2, tree.indexOf(15));
+        assertEquals(-4, tree.indexOf(35));
+        assertNull(tree.find(15));
+        assertEquals(20, tree.find(20));
+    }
+
+    @Test
+    public void withAndWithout_randomElements_shouldMatchSortedSet() {
+        final Random random = new Random(0);
+        final TreeSet<Integer> expected = new TreeSet<>();
+        OrderStatisticTree<Integer> tree = OrderStatisticTree.ofSorted(List.of(), ORDER);
+
+        for (int i = 0; i < 5000; i++) {
+            final int element = random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(element);
+                tree = tree.without(element);
+            } else {
+                expected.add(element);
+                tree = tree.with(element);
+            }
+            assertEquals(expected.size(), tree.size());
+        }
+
+        assertSameElements(new ArrayList<>(expected), tree);
+    }
+
+    @Test
+    public void withAndWithout_shouldLeavePreviousTreeUnchanged() {
+        final List<Integer> elements = IntStream.range(0, 50).boxed().toList();
+        final OrderStatisticTree<Integer> tree = OrderStatisticTree.ofSorted(elements, ORDER);
+
+        final OrderStatisticTree<Integer> withElement = tree.with(100);
+        final OrderStatisticTree<Integer> withoutElement = tree.without(25);
+
+        assertSameElements(elements, tree);
+        assertEquals(51, withElement.size());
+        assertEquals(50, withElement.indexOf(100));
+        assertEquals(49, withoutElement.size());
+        assertEquals(-26, withoutElement.indexOf(25));
+    }
+
+    @Test
+    public void with_elementComparingEqual_shouldReplaceIt() {
+        final Comparator<String> byLength = Comparator.comparingInt(String::length);
+        final OrderStatisticTree<String> tree = OrderStatisticTree.ofSorted(List.of("a", "bb", "ccc"), byLength);
+
+        final OrderStatisticTree<String> replaced = tree.with("xx");
+
+        assertEquals(List.of("a", "xx", "ccc"), replaced.subList(0, 3));
+    }
+
+    @Test
+    public void with_elementsInAscendingOrder_shouldStayBalanced() {
+        OrderStatisticTree<Integer> tree = OrderStatisticTree.ofSorted(List.of(), ORDER);
+        final List<Integer> elements = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            tree = tree.with(i);
+            elements.add(i);
+        }
+        Collections.reverse(elements);
+        for (final Integer element : elements.subList(0, 50_000)) {
+            tree = tree.without(element);
+        }
+
+        // An unbalanced tree would be as deep as it is large, and overflow the stack when walked
+        assertEquals(50_000, tree.size());
+        assertEquals(49_999, tree.get(49_999));
+        assertEquals(50_000, tree.subList(0, 50_000).size());
+    }
+}
@@ -0,0 +1,175 @@
+package com.lexicubes.backend.leaderboard;
+
+import com.lexicubes.backend.score.ScoreWithUser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RankedLeaderboardTest {
+
+    private static final LeaderboardPageRequest.SortOption NUM_POINTS = LeaderboardPageRequest.SortOption.NUM_POINTS;
+
+    private static ScoreWithUser score(long scoreId, int numPoints, int numRequiredWordsFound, int numBonusWordsFound) {
+        return new ScoreWithUser(scoreId, scoreId * 10, "user" + scoreId, numPoints, numRequiredWordsFound, numBonusWordsFound);
+    }
+
+    private static List<Long> getScoreIds(List<ScoreWithUser> scores) {
+        return scores.stream().map(ScoreWithUser::scoreId).toList();
+    }
+
+    private static List<Long> getAllScoreIds(RankedLeaderboard leaderboard, LeaderboardPageRequest.SortOption sort) {
+        return getScoreIds(leaderboard.getScoresAfter(LeaderboardCursor.start(sort), Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void leaderboard_shouldOrderByEachSortOption() {
+        final RankedLeaderboard leaderboard = new RankedLeaderboard(List.of(
+                score(1, 10, 1, 9),
+                score(2, 30, 2, 1),
+                score(3, 20, 3, 5)));
+
+        assertEquals(List.of(2L, 3L, 1L), getAllScoreIds(leaderboard, NUM_POINTS));
+        assertEquals(List.of(3L, 2L, 1L), getAllScoreIds(leaderboard, LeaderboardPageRequest.SortOption.NUM_REQUIRED_WORDS_FOUND));
+        assertEquals(List.of(1L, 3L, 2L), getAllScoreIds(leaderboard, LeaderboardPageRequest.SortOption.NUM_BONUS_WORDS_FOUND));
+    }
+
+    @Test
+    public void tiedScores_shouldBeOrderedByScoreIdDescending() {
+        final RankedLeaderboard leaderboard = new RankedLeaderboard(List.of(
+                score(2, 10, 1, 1),
+                score(7, 10, 1, 1),
+                score(4, 10, 1, 1),
+                score(5, 10, 1, 2)));
+
+        assertEquals(List.of(5L, 7L, 4L, 2L), getAllScoreIds(leaderboard, NUM_POINTS));
+
+        final RankedLeaderboard.Neighbourhood neighbourhood = leaderboard.getNeighbourhood(NUM_POINTS, 40L, 0);
+        assertNotNull(neighbourhood);
+        assertEquals(3, neighbourhood.rank());
+    }
+
+    @Test
+    public void getScoresAfter_shouldPageThroughTheLeaderboard() {
+        final List<ScoreWithUser> scores = new ArrayList<>();
+        for (long scoreId = 1; scoreId <= 5; scoreId++) {
+            scores.add(score(scoreId, (int) scoreId * 10, 0, 0));
+        }
+        final RankedLeaderboard leaderboard = new RankedLeaderboard(scores);
+
+        final List<ScoreWithUser> firstPage = leaderboard.getScoresAfter(LeaderboardCursor.start(NUM_POINTS), 2);
+        final List<ScoreWithUser> secondPage = leaderboard.getScoresAfter(LeaderboardCursor.after(NUM_POINTS, firstPage.getLast()), 2);
+        final List<ScoreWithUser> lastPage = leaderboard.getScoresAfter(LeaderboardCursor.after(NUM_POINTS, secondPage.getLast()), 2);
+
+        assertEquals(List.of(5L, 4L), getScoreIds(firstPage));
+        assertEquals(List.of(3L, 2L), getScoreIds(secondPage));
+        assertEquals(List.of(1L), getScoreIds(lastPage));
+        assertEquals(List.of(), leaderboard.getScoresAfter(LeaderboardCursor.after(NUM_POINTS, lastPage.getLast()), 2));
+    }
+
+    @Test
+    public void getScoresAfter_cursorOfScoreThatHasSinceChanged_shouldStartAfterTheCursorPosition() {
+        final RankedLeaderboard leaderboard = new RankedLeaderboard(List.of(
+                score(1, 40, 0, 0),
+                score(2, 30, 0, 0),
+                score(3, 20, 0, 0),
+                score(4, 10, 0, 0)));
+        final LeaderboardCursor cursor = LeaderboardCursor.after(NUM_POINTS, score(2, 30, 0, 0));
+
+        leaderboard.record(score(2, 50, 0, 0));
+
+        assertEquals(List.of(2L, 1L, 3L, 4L), getAllScoreIds(leaderboard, NUM_POINTS));
+        assertEquals(List.of(3L, 4L), getScoreIds(leaderboard.getScoresAfter(cursor, 10)));
+    }
+
+    @Test
+    public void getNeighbourhood_ofTopAndBottomScores_shouldBeCutOffAtTheEnds() {
+        final List<ScoreWithUser> scores = new ArrayList<>();
+        for (long scoreId = 1; scoreId <= 5; scoreId++) {
+            scores.add(score(scoreId, (int) scoreId * 10, 0, 0));
+        }
+        final RankedLeaderboard leaderboard = new RankedLeaderboard(scores);
+
+        final RankedLeaderboard.Neighbourhood top = leaderboard.getNeighbourhood(NUM_POINTS, 50L, 2);
+        assertNotNull(top);
+        assertEquals(1, top.rank());
+        assertEquals(5, top.numScores());
+        assertEquals(1, top.firstRank());
+        assertEquals(List.of(5L, 4L, 3L), getScoreIds(top.scores()));
+
+        final RankedLeaderboard.Neighbourhood bottom = leaderboard.getNeighbourhood(NUM_POINTS, 10L, 2);
+        assertNotNull(bottom);
+        assertEquals(5, bottom.rank());
+        assertEquals(3, bottom.firstRank());
+        assertEquals(List.of(3L, 2L, 1L), getScoreIds(bottom.scores()));
+    }
+
+    @Test
+    public void getNeighbourhood_ofUserWithoutScore_shouldBeNull() {
+        final RankedLeaderboard leaderboard = new RankedLeaderboard(List.of(score(1, 10, 0, 0)));
+
+        assertNull(leaderboard.getNeighbourhood(NUM_POINTS, 20L, 2));
+    }
+
+    @Test
+    public void record_lowerScore_shouldChangeNothing() {
+        final RankedLeaderboard leaderboard = new RankedLeaderboard(List.of(
+                score(1, 30, 5, 5),
+                score(2, 20, 1, 1)));
+        final List<ScoreWithUser> before = leaderboard.getScoresAfter(LeaderboardCursor.start(NUM_POINTS), 10);
+
+        leaderboard.record(score(2, 10, 0, 1));
+
+        final List<ScoreWithUser> after = leaderboard.getScoresAfter(LeaderboardCursor.start(NUM_POINTS), 10);
+        assertEquals(before, after);
+        assertSame(before.getLast(), after.getLast());
+    }
+
+    @Test
+    public void record_shouldKeepTheHighestOfEachCount() {
+        final RankedLeaderboard leaderboard = new RankedLeaderboard(List.of(score(1, 30, 5, 1)));
+
+        leaderboard.record(new ScoreWithUser(null, 10L, null, 20, 6, 0));
+
+        assertEquals(
+                List.of(new ScoreWithUser(1L, 10L, "user1", 30, 6, 1)),
+                leaderboard.getScoresAfter(LeaderboardCursor.start(NUM_POINTS), 10));
+    }
+
+    @Test
+    public void record_newUser_shouldBeRanked() {
+        final RankedLeaderboard leaderboard = new RankedLeaderboard(List.of(
+                score(1, 30, 0, 0),
+                score(2, 10, 0, 0)));
+
+        leaderboard.record(score(3, 20, 0, 0));
+
+        assertEquals(3, leaderboard.size());
+        assertTrue(leaderboard.contains(30L));
+        assertEquals(List.of(1L, 3L, 2L), getAllScoreIds(leaderboard, NUM_POINTS));
+
+        final RankedLeaderboard.Neighbourhood neighbourhood = leaderboard.getNeighbourhood(NUM_POINTS, 30L, 1);
+        assertNotNull(neighbourhood);
+        assertEquals(2, neighbourhood.rank());
+        assertEquals(List.of(1L, 3L, 2L), getScoreIds(neighbourhood.scores()));
+    }
+
+    @Test
+    public void hasOutgrownLoadedSize_shouldBeTrueOnceTheLeaderboardHasDoubled() {
+        final List<ScoreWithUser> scores = new ArrayList<>();
+        for (long scoreId = 1; scoreId <= 1000; scoreId++) {
+            scores.add(score(scoreId, 0, 0, 0));
+        }
+        final RankedLeaderboard leaderboard = new RankedLeaderboard(scores);
+
+        for (long scoreId = 1001; scoreId < 2000; scoreId++) {
+            leaderboard.record(score(scoreId, 0, 0, 0));
+        }
+        assertFalse(leaderboard.hasOutgrownLoadedSize());
+
+        leaderboard.record(score(2000, 0, 0, 0));
+        assertTrue(leaderboard.hasOutgrownLoadedSize());
+    }
+}
@@ -0,0 +1,155 @@
+package com.lexicubes.backend.puzzle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BonusWordClassifierTest {
+
+    @Test
+    public void unblockedWord_shouldBeAlwaysPossible() {
+        final boolean[] isAlwaysPossible = BonusWordClassifier.findAlwaysPossibleWords(
+                List.of(List.<int[]>of(new int[]{0, 1, 2})),
+                1,
+                new int[]{0, 0, 0, 0},
+                new int[0]);
+
+        assertArrayEquals(new boolean[]{true}, isAlwaysPossible);
+    }
+
+    @Test
+    public void wordBlockedByItsOwnCube_shouldNotBeAlwaysPossible() {
+        // Word 0 uses faces of cubes 0 and 1, but face 0 (on cube 0) is blocked by cube 1
+        final boolean[] isAlwaysPossible = BonusWordClassifier.findAlwaysPossibleWords(
+                List.of(List.<int[]>of(new int[]{0, 3})),
+                2,
+                new int[]{0, 1, 1, 1, 1, 1, 1},
+                new int[]{1});
+
+        assertArrayEquals(new boolean[]{false}, isAlwaysPossible);
+    }
+
+    @Test
+    public void wordsBlockingEachOther_shouldNotBeAlwaysPossible() {
+        // Word 0 uses cube 0 and is blocked by cube 1, word 1 uses cube 1 and is blocked by cube 0
+        final boolean[] isAlwaysPossible = BonusWordClassifier.findAlwaysPossibleWords(
+                List.of(List.<int[]>of(new int[]{0}), List.<int[]>of(new int[]{3})),
+                2,
+                new int[]{0, 1, 1, 1, 2, 2, 2},
+                new int[]{1, 0});
+
+        assertArrayEquals(new boolean[]{false, false}, isAlwaysPossible);
+    }
+
+    @Test
+    public void wordWithOneUnblockedPath_shouldBreakCycle() {
+        // As above, but word 1 has a second path on cube 2, which is not blocked
+        final boolean[] isAlwaysPossible = BonusWordClassifier.findAlwaysPossibleWords(
+                List.of(List.<int[]>of(new int[]{0}), List.of(new int[]{3}, new int[]{6})),
+                3,
+                new int[]{0, 1, 1, 1, 2, 2, 2, 2, 2, 2},
+                new int[]{1, 0});
+
+        assertArrayEquals(new boolean[]{true, true}, isAlwaysPossible);
+    }
+
+    @Test
+    public void randomDependencyGraphs_shouldMatchRecursiveClassification() {
+        final Random random = new Random(0);
+
+        for (int round = 0; round < 5000; round++) {
+            final int cubeCount = 1 + random.nextInt(6);
+            final int faceCount = cubeCount * 3;
+
+            final int[] blockingCubeOffsets = new int[faceCount + 1];
+            final List<Integer> blockingCubes = new ArrayList<>();
+            for (int face = 0; face < faceCount; face++) {
+                blockingCubeOffsets[face] = blockingCubes.size();
+                for (int i = random.nextInt(3); i > 0; i--) {
+                    blockingCubes.add(random.nextInt(cubeCount));
+                }
+            }
+            blockingCubeOffsets[faceCount] = blockingCubes.size();
+
+            final List<List<int[]>> pathsForWords = new ArrayList<>();
+            for (int word = random.nextInt(8); word >= 0; word--) {
+                final List<int[]> paths = new ArrayList<>();
+                for (int path = random.nextInt(3); path >= 0; path--) {
+                    paths.add(random.ints(1 + random.nextInt(4), 0, faceCount).toArray());
+                }
+                pathsForWords.add(paths);
+            }
+
+            final int[] blockingCubesArray = blockingCubes.stream().mapToInt(Integer::intValue).toArray();
+            final boolean[] expected = new RecursiveClassifier(
+                    pathsForWords, blockingCubeOffsets, blockingCubesArray).classify();
+            final boolean[] actual = BonusWordClassifier.findAlwaysPossibleWords(
+                    pathsForWords, cubeCount, blockingCubeOffsets, blockingCubesArray);
+
+            assertArrayEquals(expected, actual, "Round " + round);
+        }
+    }
+
+    /**
+     * The original recursive classification, which recomputes each word's status on demand
+     * and breaks cycles by tracking the words currently being uncovered.
+     */
+    private static final class RecursiveClassifier {
+
+        private final List<List<int[]>> pathsForWords;
+
+        private final int[] blockingCubeOffsets;
+
+        private final int[] blockingCubes;
+
+        private final Map<Integer, Set<Integer>> wordsIncludingCube = new HashMap<>();
+
+        private final Set<Integer> wordsBeingUncovered = new HashSet<>();
+
+        private RecursiveClassifier(List<List<int[]>> pathsForWords, int[] blockingCubeOffsets, int[] blockingCubes) {
+            this.pathsForWords = pathsForWords;
+            this.blockingCubeOffsets = blockingCubeOffsets;
+            this.blockingCubes = blockingCubes;
+
+            for (int word = 0; word < pathsForWords.size(); word++) {
+                for (final int[] path : pathsForWords.get(word)) {
+                    for (final int face : path) {
+                        wordsIncludingCube.computeIfAbsent(face / 3, k -> new HashSet<>()).add(word);
+                    }
+                }
+            }
+        }
+
+        private boolean[] classify() {
+            final boolean[] isAlwaysPossible = new boolean[pathsForWords.size()];
+            for (int word = 0; word < pathsForWords.size(); word++) {
+                isAlwaysPossible[word] = isWordAlwaysPossible(word);
+            }
+            return isAlwaysPossible;
+        }
+
+        private boolean isWordAlwaysPossible(int word) {
+            wordsBeingUncovered.add(word);
+            final boolean isPossible = pathsForWords.get(word).stream().anyMatch(this::isPathAlwaysPossible);
+            wordsBeingUncovered.remove(word);
+            return isPossible;
+        }
+
+        private boolean isPathAlwaysPossible(int[] path) {
+            final Set<Integer> cubesToRemove = new HashSet<>();
+            for (final int face : path) {
+                for (int i = blockingCubeOffsets[face]; i < blockingCubeOffsets[face + 1]; i++) {
+                    cubesToRemove.add(blockingCubes[i]);
+                }
+            }
+            return cubesToRemove.stream().allMatch(this::canRemoveCube);
+        }
+
+        private boolean canRemoveCube(int cube) {
+            return wordsIncludingCube.getOrDefault(cube, Collections.emptySet()).stream()
+                    .allMatch(word -> !wordsBeingUncovered.contains(word) && isWordAlwaysPossible(word));
+        }
+    }
+}
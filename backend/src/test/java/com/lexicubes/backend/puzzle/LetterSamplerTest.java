@@ -0,0 +1,60 @@
+package com.lexicubes.backend.puzzle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LetterSamplerTest {
+
+    @Test
+    public void sampler_shouldReproduceNormalizedWeights() {
+        final double[] weights = {0.5, 3, 0, 1.5, 1};
+        final LetterSampler sampler = LetterSampler.of(weights);
+
+        assertEquals(0.5 / 6, sampler.getProbability('a'), 1e-12);
+        assertEquals(3.0 / 6, sampler.getProbability('b'), 1e-12);
+        assertEquals(0.0, sampler.getProbability('c'), 1e-12);
+        assertEquals(1.5 / 6, sampler.getProbability('d'), 1e-12);
+        assertEquals(1.0 / 6, sampler.getProbability('e'), 1e-12);
+        assertEquals(0.0, sampler.getProbability('f'), 1e-12);
+    }
+
+    @Test
+    public void samples_shouldFollowWeights() {
+        final double[] weights = {1, 2, 0, 5};
+        final LetterSampler sampler = LetterSampler.of(weights);
+        final SplittableRandom random = new SplittableRandom(7);
+
+        final int sampleCount = 200_000;
+        final int[] counts = new int[weights.length];
+        for (int i = 0; i < sampleCount; i++) {
+            counts[sampler.sample(random) - 'a']++;
+        }
+
+        assertEquals(0, counts[2]);
+        assertEquals(1.0 / 8, (double) counts[0] / sampleCount, 0.005);
+        assertEquals(2.0 / 8, (double) counts[1] / sampleCount, 0.005);
+        assertEquals(5.0 / 8, (double) counts[3] / sampleCount, 0.005);
+    }
+
+    @Test
+    public void samplesWithSameSeed_shouldBeEqual() {
+        final LetterSampler sampler = LetterSampler.of(new double[]{0.078, 0.02, 0.04, 0.038, 0.11});
+        final SplittableRandom first = new SplittableRandom(123);
+        final SplittableRandom second = new SplittableRandom(123);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(sampler.sample(first), sampler.sample(second));
+        }
+    }
+
+    @Test
+    public void invalidWeights_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> LetterSampler.of(new double[0]));
+        assertThrows(IllegalArgumentException.class, () -> LetterSampler.of(new double[27]));
+        assertThrows(IllegalArgumentException.class, () -> LetterSampler.of(new double[]{1, -1}));
+        assertThrows(IllegalArgumentException.class, () -> LetterSampler.of(new double[]{0, 0}));
+    }
+}
@@ -0,0 +1,136 @@
+package com.lexicubes.backend.puzzle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PuzzleCandidateSearchTest {
+
+    private final PuzzleSolver puzzleSolver = new PuzzleSolver();
+
+    private final PuzzleQuality.Targets targets = new PuzzleQuality.Targets(60, 0.9, 10, 16);
+
+    @Test
+    public void puzzleQuality_shouldCountWordsAndLetters() {
+        final List<Puzzle.Cube> cubes = List.of(
+                new Puzzle.Cube(0, 0, 0, 0, 'e', 'x', 'x'),
+                new Puzzle.Cube(1, 0, 0, 1, 'u', 's', 'q'),
+                new Puzzle.Cube(2, 1, 0, 0, 'e', 'z', 'e'));
+
+        final PuzzleQuality quality = PuzzleQuality.of(cubes, puzzleSolver.solve(Puzzle.of(cubes)));
+
+        assertEquals(new PuzzleQuality(1, 0, 7, 6), quality);
+        assertEquals(0.0, quality.getBonusRatio());
+    }
+
+    @Test
+    public void qualityMeetingTargets_shouldScoreZero() {
+        assertEquals(0.0, new PuzzleQuality(60, 540, 10, 16).score(targets));
+        assertEquals(0.0, new PuzzleQuality(90, 810, 12, 20).score(targets));
+    }
+
+    @Test
+    public void qualityMissingTargets_shouldScoreLowerTheFurtherTheyAreMissed() {
+        final double closeScore = new PuzzleQuality(45, 405, 10, 16).score(targets);
+        final double farScore = new PuzzleQuality(30, 270, 10, 16).score(targets);
+
+        assertTrue(closeScore < 0);
+        assertTrue(farScore < closeScore);
+    }
+
+    @Test
+    public void search_shouldKeepBestScoringCandidate() {
+        final List<List<Puzzle.Cube>> boards = List.of(
+                PuzzleGenerator.generatePyramidPuzzleCubes(2),
+                PuzzleGenerator.generatePyramidPuzzleCubes(2),
+                PuzzleGenerator.generatePyramidPuzzleCubes(2),
+                PuzzleGenerator.generatePyramidPuzzleCubes(2));
+
+        final double bestScore = boards.stream()
+                .mapToDouble(cubes -> PuzzleQuality.of(cubes, puzzleSolver.solve(Puzzle.of(cubes))).score(targets))
+                .max()
+                .orElseThrow();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final AtomicInteger nextBoard = new AtomicInteger();
+            final PuzzleCandidateSearch search = new PuzzleCandidateSearch(
+                    puzzleSolver, executor, boards.size(), Duration.ofMinutes(1), targets);
+
+            final PuzzleCandidateSearch.Result result = search.search(0, seed -> boards.get(nextBoard.getAndIncrement()));
+
+            assertEquals(boards.size(), result.evaluatedCount());
+            assertEquals(bestScore, result.score());
+            assertTrue(boards.contains(result.cubes()));
+            assertEquals(PuzzleQuality.of(result.cubes(), result.solutions()), result.quality());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void searchWithNoTimeBudget_shouldStillEvaluateOneCandidate() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final PuzzleCandidateSearch search = new PuzzleCandidateSearch(
+                    puzzleSolver, executor, 100, Duration.ZERO, targets);
+
+            final PuzzleCandidateSearch.Result result = search.search(0, seed -> PuzzleGenerator.generatePyramidPuzzleCubes(2, seed));
+
+            assertTrue(result.evaluatedCount() >= 1);
+            assertTrue(result.evaluatedCount() < 100);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void searchWithSameSeed_shouldChooseSameRegenerableCandidate() {
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final PuzzleCandidateSearch search = new PuzzleCandidateSearch(
+                    puzzleSolver, executor, 8, Duration.ofMinutes(1), targets);
+
+            final PuzzleCandidateSearch.Result first = search.search(42, seed -> PuzzleGenerator.generatePyramidPuzzleCubes(2, seed));
+            final PuzzleCandidateSearch.Result second = search.search(42, seed -> PuzzleGenerator.generatePyramidPuzzleCubes(2, seed));
+
+            assertEquals(first.seed(), second.seed());
+            assertEquals(first.cubes(), second.cubes());
+            assertEquals(first.cubes(), PuzzleGenerator.generatePyramidPuzzleCubes(2, first.seed()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void search_shouldSkipCandidatesExceedingSolverBudget() {
+        final List<Puzzle.Cube> largeBoard = PuzzleGenerator.generatePyramidPuzzleCubes(3, 0);
+        final List<Puzzle.Cube> smallBoard = List.of(new Puzzle.Cube(0, 0, 0, 0, 'a', 't', 'e'));
+        final PuzzleSolver budgetedSolver = new PuzzleSolver(
+                false, 0, new SolveBudget(1_000_000, 100, Duration.ofMinutes(1)), new SimpleMeterRegistry());
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final AtomicInteger nextBoard = new AtomicInteger();
+            final PuzzleCandidateSearch search = new PuzzleCandidateSearch(
+                    budgetedSolver, executor, 2, Duration.ofMinutes(1), targets);
+
+            final PuzzleCandidateSearch.Result result = search.search(0, seed ->
+                    nextBoard.getAndIncrement() == 0 ? largeBoard : smallBoard);
+
+            assertEquals(smallBoard, result.cubes());
+            assertEquals(2, result.evaluatedCount());
+
+            assertThrows(PuzzleTooLargeException.class, () -> search.search(0, seed -> largeBoard));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.lexicubes.backend.puzzle;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PuzzleCubesCodecTest {
+
+    @Test
+    public void encodedCubes_shouldDecodeToEqualCubes() {
+        final Puzzle.Cubes cubes = new Puzzle.Cubes(PuzzleGenerator.generatePyramidPuzzleCubes(3));
+
+        final Puzzle.Cubes decodedCubes = PuzzleCubesCodec.decode(PuzzleCubesCodec.encode(cubes));
+
+        assertEquals(cubes, decodedCubes);
+        for (final Puzzle.Cube cube : decodedCubes.list()) {
+            assertSame(cube, cube.getTopFace().getCube());
+            assertSame(cube, cube.getLeftFace().getCube());
+            assertSame(cube, cube.getRightFace().getCube());
+        }
+    }
+
+    @Test
+    public void cubesWithNonConsecutiveIds_shouldDecodeToEqualCubes() {
+        final Puzzle.Cubes cubes = new Puzzle.Cubes(List.of(
+                new Puzzle.Cube(7, 0, 0, 0, 'a', 'b', 'c'),
+                new Puzzle.Cube(2, 0, 0, 1, 'x', 'y', 'z'),
+                new Puzzle.Cube(300, 200, 0, 0, 'q', 'u', 'e')));
+
+        assertEquals(cubes, PuzzleCubesCodec.decode(PuzzleCubesCodec.encode(cubes)));
+    }
+
+    @Test
+    public void encodedCubes_shouldDecodeToSameCubesAsJson() throws JsonProcessingException {
+        final ObjectMapper mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+
+        final Puzzle.Cubes cubes = new Puzzle.Cubes(PuzzleGenerator.generatePyramidPuzzleCubes(3));
+        final String json = mapper.writeValueAsString(cubes);
+        final byte[] encoded = PuzzleCubesCodec.encode(mapper.readValue(json, Puzzle.Cubes.class));
+
+        assertEquals(mapper.readValue(json, Puzzle.Cubes.class), PuzzleCubesCodec.decode(encoded));
+        assertTrue(encoded.length * 10 < json.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    public void truncatedCubes_shouldThrowIllegalArgumentException() {
+        final byte[] encoded = PuzzleCubesCodec.encode(new Puzzle.Cubes(PuzzleGenerator.generatePyramidPuzzleCubes(2)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> PuzzleCubesCodec.decode(Arrays.copyOf(encoded, encoded.length - 1)));
+    }
+
+    @Test
+    public void unsupportedFormatVersion_shouldThrowIllegalArgumentException() {
+        final byte[] encoded = PuzzleCubesCodec.encode(new Puzzle.Cubes(PuzzleGenerator.generatePyramidPuzzleCubes(2)));
+        encoded[0]++;
+
+        assertThrows(IllegalArgumentException.class, () -> PuzzleCubesCodec.decode(encoded));
+    }
+}
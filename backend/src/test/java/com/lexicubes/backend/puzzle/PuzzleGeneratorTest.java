@@ -0,0 +1,35 @@
+package com.lexicubes.backend.puzzle;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PuzzleGeneratorTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 18);
+
+    @Test
+    public void getDailySeed_shouldBeTheSameForTheSameSaltAndDate() {
+        assertEquals(
+                new PuzzleGenerator(null, null, null, null, "salt").getDailySeed(DATE),
+                new PuzzleGenerator(null, null, null, null, "salt").getDailySeed(DATE));
+    }
+
+    @Test
+    public void getDailySeed_shouldDependOnTheSaltAndDate() {
+        final PuzzleGenerator puzzleGenerator = new PuzzleGenerator(null, null, null, null, "salt");
+
+        assertNotEquals(DATE.toEpochDay(), puzzleGenerator.getDailySeed(DATE));
+        assertNotEquals(puzzleGenerator.getDailySeed(DATE), puzzleGenerator.getDailySeed(DATE.plusDays(1)));
+        assertNotEquals(
+                puzzleGenerator.getDailySeed(DATE),
+                new PuzzleGenerator(null, null, null, null, "other salt").getDailySeed(DATE));
+    }
+
+    @Test
+    public void blankSeedSalt_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleGenerator(null, null, null, null, " "));
+    }
+}
@@ -0,0 +1,82 @@
+package com.lexicubes.backend.puzzle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PuzzleShapeTest {
+
+    @Test
+    public void fixedShapes_shouldHaveExpectedCubeCounts() {
+        assertEquals(14, PuzzleShape.pyramid(3).getPositions(new SplittableRandom(0)).size());
+        assertEquals(84, PuzzleShape.stairs(6, 4).getPositions(new SplittableRandom(0)).size());
+        assertEquals(96, PuzzleShape.wall(12, 8).getPositions(new SplittableRandom(0)).size());
+        assertEquals(90, PuzzleShape.tower(3, 5, 6).getPositions(new SplittableRandom(0)).size());
+    }
+
+    @Test
+    public void shapes_shouldBeStackedWithDistinctNonNegativePositions() {
+        for (final PuzzleShape shape : List.of(
+                PuzzleShape.pyramid(4),
+                PuzzleShape.stairs(5, 3),
+                PuzzleShape.wall(7, 4),
+                PuzzleShape.tower(2, 3, 9),
+                PuzzleShape.randomConnected(300))) {
+            final List<PuzzleShape.Position> positions = shape.getPositions(new SplittableRandom(1));
+            final Set<PuzzleShape.Position> distinctPositions = new HashSet<>(positions);
+
+            assertEquals(positions.size(), distinctPositions.size());
+            for (final PuzzleShape.Position position : positions) {
+                assertTrue(position.x() >= 0 && position.y() >= 0 && position.z() >= 0);
+                assertTrue(position.y() == 0 || distinctPositions.contains(
+                        new PuzzleShape.Position(position.x(), position.y() - 1, position.z())));
+            }
+
+            // Every shape can be built into a puzzle
+            assertEquals(positions.size(), Puzzle.of(PuzzleGenerator.generatePuzzleCubes(shape, 1)).getCubes().size());
+        }
+    }
+
+    @Test
+    public void randomConnectedShape_shouldBeConnected() {
+        final List<PuzzleShape.Position> positions = PuzzleShape.randomConnected(200).getPositions(new SplittableRandom(2));
+        final Set<PuzzleShape.Position> remaining = new HashSet<>(positions);
+
+        final List<PuzzleShape.Position> queue = new ArrayList<>(List.of(positions.get(0)));
+        remaining.remove(positions.get(0));
+        while (!queue.isEmpty()) {
+            final PuzzleShape.Position position = queue.remove(queue.size() - 1);
+            for (final int[] offset : new int[][]{{1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}}) {
+                final PuzzleShape.Position neighbour = new PuzzleShape.Position(
+                        position.x() + offset[0], position.y() + offset[1], position.z() + offset[2]);
+                if (remaining.remove(neighbour)) {
+                    queue.add(neighbour);
+                }
+            }
+        }
+
+        assertEquals(200, positions.size());
+        assertTrue(remaining.isEmpty());
+    }
+
+    @Test
+    public void randomConnectedShapeWithSameSeed_shouldBeEqual() {
+        final PuzzleShape shape = PuzzleShape.randomConnected(100);
+
+        assertEquals(shape.getPositions(new SplittableRandom(3)), shape.getPositions(new SplittableRandom(3)));
+        assertNotEquals(shape.getPositions(new SplittableRandom(3)), shape.getPositions(new SplittableRandom(4)));
+    }
+
+    @Test
+    public void invalidDimensions_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> PuzzleShape.pyramid(0));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleShape.tower(1, 1, -1));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleShape.randomConnected(0));
+    }
+}
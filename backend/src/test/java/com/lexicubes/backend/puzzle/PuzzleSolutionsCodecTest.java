@@ -0,0 +1,59 @@
+package com.lexicubes.backend.puzzle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PuzzleSolutionsCodecTest {
+
+    private final PuzzleSolver puzzleSolver = new PuzzleSolver();
+
+    @Test
+    public void encodedSolutions_shouldDecodeToEqualSolutions() {
+
+        for (int i = 0; i < 20; i++) {
+            final Puzzle puzzle = Puzzle.of(PuzzleGenerator.generatePyramidPuzzleCubes(3));
+            final List<PuzzleSolver.PuzzleSolution> solutions = puzzleSolver.solve(puzzle);
+
+            final byte[] encoded = PuzzleSolutionsCodec.encode(puzzle, solutions);
+
+            assertEquals(solutions, PuzzleSolutionsCodec.decode(puzzle, encoded));
+        }
+    }
+
+    @Test
+    public void noSolutions_shouldDecodeToNoSolutions() {
+        final Puzzle puzzle = Puzzle.of(List.of());
+
+        assertEquals(List.of(), PuzzleSolutionsCodec.decode(puzzle, PuzzleSolutionsCodec.encode(puzzle, List.of())));
+    }
+
+    @Test
+    public void truncatedSolutions_shouldThrowIllegalArgumentException() {
+        final Puzzle puzzle = Puzzle.of(List.of(
+                new Puzzle.Cube(0, 0, 0, 0, 'e', 'x', 'x'),
+                new Puzzle.Cube(1, 0, 0, 1, 'u', 's', 'q'),
+                new Puzzle.Cube(2, 1, 0, 0, 'e', 'z', 'e')
+        ));
+        final byte[] encoded = PuzzleSolutionsCodec.encode(puzzle, puzzleSolver.solve(puzzle));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> PuzzleSolutionsCodec.decode(puzzle, Arrays.copyOf(encoded, encoded.length - 1)));
+    }
+
+    @Test
+    public void solutionsWithFacesNotInPuzzle_shouldThrowIllegalArgumentException() {
+        final Puzzle puzzle = Puzzle.of(List.of(
+                new Puzzle.Cube(0, 0, 0, 0, 'e', 'x', 'x'),
+                new Puzzle.Cube(1, 0, 0, 1, 'u', 's', 'q'),
+                new Puzzle.Cube(2, 1, 0, 0, 'e', 'z', 'e')
+        ));
+        final byte[] encoded = PuzzleSolutionsCodec.encode(puzzle, puzzleSolver.solve(puzzle));
+        final Puzzle smallerPuzzle = Puzzle.of(List.of(new Puzzle.Cube(0, 0, 0, 0, 'e', 'x', 'x')));
+
+        assertThrows(IllegalArgumentException.class, () -> PuzzleSolutionsCodec.decode(smallerPuzzle, encoded));
+    }
+}
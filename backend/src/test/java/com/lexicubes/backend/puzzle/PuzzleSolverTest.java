@@ -1,10 +1,16 @@
 package com.lexicubes.backend.puzzle;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -156,4 +162,176 @@ public class PuzzleSolverTest {
         assertFalse(bakeSolution.isBonus());
         assertFalse(rakeSolution.isBonus());
     }
+
+    @Test
+    public void concurrentSolvesOfDistinctPuzzles_shouldMatchSequentialSolves() throws Exception {
+        final List<Puzzle> puzzles = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            puzzles.add(Puzzle.of(PuzzleGenerator.generatePyramidPuzzleCubes(2)));
+        }
+
+        final List<Set<PuzzleSolver.PuzzleSolution>> expectedSolutions = puzzles.stream()
+                .map(puzzle -> Set.copyOf(puzzleSolver.solve(puzzle)))
+                .toList();
+
+        final List<Future<Set<PuzzleSolver.PuzzleSolution>>> futures = new ArrayList<>();
+        try (final ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int round = 0; round < 4; round++) {
+                for (final Puzzle puzzle : puzzles) {
+                    futures.add(executor.submit(() -> Set.copyOf(puzzleSolver.solve(puzzle))));
+                }
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(expectedSolutions.get(i % puzzles.size()), futures.get(i).get());
+            }
+        }
+    }
+
+    @Test
+    public void parallelSolves_shouldMatchSequentialSolves() {
+        final PuzzleSolver parallelPuzzleSolver = new PuzzleSolver(true, 0);
+
+        for (int i = 0; i < 16; i++) {
+            final Puzzle puzzle = Puzzle.of(PuzzleGenerator.generatePyramidPuzzleCubes(2));
+            assertEquals(Set.copyOf(puzzleSolver.solve(puzzle)), Set.copyOf(parallelPuzzleSolver.solve(puzzle)));
+        }
+    }
+
+    @Test
+    public void parallelSolvesOfLargerShapes_shouldMatchSequentialSolvesInOrder() {
+        final PuzzleSolver parallelPuzzleSolver = new PuzzleSolver(true, 0);
+
+        for (int seed = 0; seed < 4; seed++) {
+            final Puzzle puzzle = Puzzle.of(PuzzleGenerator.generatePuzzleCubes(PuzzleShape.randomConnected(30), seed));
+            assertEquals(puzzleSolver.solve(puzzle), parallelPuzzleSolver.solve(puzzle));
+        }
+    }
+
+    @Test
+    public void solveExceedingNodeBudget_shouldReturnBudgetExceeded() {
+        final Puzzle puzzle = Puzzle.of(PuzzleGenerator.generatePyramidPuzzleCubes(3, 0));
+        final SolveBudget budget = new SolveBudget(1000, 1_000_000, Duration.ofMinutes(1));
+
+        assertBudgetExceeded(SolveOutcome.Reason.SEARCH_NODES, puzzleSolver.trySolve(puzzle, budget));
+        assertBudgetExceeded(SolveOutcome.Reason.SEARCH_NODES, new PuzzleSolver(true, 0).trySolve(puzzle, budget));
+    }
+
+    @Test
+    public void solveExceedingPathBudget_shouldReturnBudgetExceeded() {
+        final Puzzle puzzle = Puzzle.of(PuzzleGenerator.generatePyramidPuzzleCubes(3, 0));
+        final List<PuzzleSolver.PuzzleSolution> solutions = puzzleSolver.solve(puzzle);
+        final int pathCount = solutions.stream().mapToInt(solution -> solution.paths().size()).sum();
+
+        assertBudgetExceeded(SolveOutcome.Reason.PATHS,
+                puzzleSolver.trySolve(puzzle, new SolveBudget(1_000_000, pathCount - 1, Duration.ofMinutes(1))));
+        assertEquals(new SolveOutcome.Solved(solutions),
+                puzzleSolver.trySolve(puzzle, new SolveBudget(1_000_000, pathCount, Duration.ofMinutes(1))));
+    }
+
+    @Test
+    public void solveExceedingTimeLimit_shouldReturnBudgetExceeded() {
+        final Puzzle puzzle = Puzzle.of(PuzzleGenerator.generatePyramidPuzzleCubes(3, 0));
+        final SolveBudget budget = new SolveBudget(1_000_000, 1_000_000, Duration.ofNanos(1));
+
+        assertBudgetExceeded(SolveOutcome.Reason.TIME_LIMIT, puzzleSolver.trySolve(puzzle, budget));
+        assertBudgetExceeded(SolveOutcome.Reason.TIME_LIMIT, new PuzzleSolver(true, 0).trySolve(puzzle, budget));
+    }
+
+    @Test
+    public void interruptedSolve_shouldReturnBudgetExceededAndKeepInterruptStatus() {
+        final Puzzle puzzle = Puzzle.of(PuzzleGenerator.generatePyramidPuzzleCubes(3, 0));
+
+        for (final PuzzleSolver solver : List.of(puzzleSolver, new PuzzleSolver(true, 0))) {
+            Thread.currentThread().interrupt();
+            final SolveOutcome outcome;
+            try {
+                outcome = solver.trySolve(puzzle);
+            } finally {
+                assertTrue(Thread.interrupted());
+            }
+            assertBudgetExceeded(SolveOutcome.Reason.INTERRUPTED, outcome);
+        }
+    }
+
+    @Test
+    public void solveExceedingDefaultBudget_shouldThrowPuzzleTooLargeException() {
+        final Puzzle puzzle = Puzzle.of(PuzzleGenerator.generatePyramidPuzzleCubes(3, 0));
+        final PuzzleSolver budgetedSolver = new PuzzleSolver(
+                false, 0, new SolveBudget(1000, 1_000_000, Duration.ofMinutes(1)), new SimpleMeterRegistry());
+
+        assertThrows(PuzzleTooLargeException.class, () -> budgetedSolver.solve(puzzle));
+    }
+
+    @Test
+    public void solve_shouldRecordMetrics() {
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final PuzzleSolver parallelPuzzleSolver = new PuzzleSolver(
+                true, 0, new SolveBudget(1_000_000, 1_000_000, Duration.ofMinutes(1)), meterRegistry);
+        final Puzzle puzzle = Puzzle.of(PuzzleGenerator.generatePyramidPuzzleCubes(3, 0));
+
+        final List<PuzzleSolver.PuzzleSolution> solutions = parallelPuzzleSolver.solve(puzzle);
+
+        assertEquals(1, meterRegistry.get("puzzle.solver.solve").tag("outcome", "solved").timer().count());
+        assertEquals(1, meterRegistry.get("puzzle.solver.classification").timer().count());
+        assertEquals(solutions.size(), meterRegistry.get("puzzle.solver.words").summary().totalAmount());
+        assertEquals(solutions.stream().mapToInt(solution -> solution.paths().size()).sum(),
+                meterRegistry.get("puzzle.solver.paths").summary().totalAmount());
+
+        // Every explored node is one dictionary lookup, and lookups for the words found must hit
+        final double searchNodes = meterRegistry.get("puzzle.solver.search.nodes").summary().totalAmount();
+        final double trieHits = meterRegistry.get("puzzle.solver.trie.lookups").tag("result", "hit").counter().count();
+        final double trieMisses = meterRegistry.get("puzzle.solver.trie.lookups").tag("result", "miss").counter().count();
+        assertEquals(searchNodes, trieHits + trieMisses);
+        assertTrue(trieHits >= meterRegistry.get("puzzle.solver.paths").summary().totalAmount());
+        assertTrue(trieMisses > 0);
+    }
+
+    @Test
+    public void solveExceedingBudget_shouldRecordBudgetExceededOutcome() {
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final PuzzleSolver budgetedSolver = new PuzzleSolver(
+                false, 0, new SolveBudget(1000, 1_000_000, Duration.ofMinutes(1)), meterRegistry);
+        final Puzzle puzzle = Puzzle.of(PuzzleGenerator.generatePyramidPuzzleCubes(3, 0));
+
+        assertBudgetExceeded(SolveOutcome.Reason.SEARCH_NODES, budgetedSolver.trySolve(puzzle));
+
+        assertEquals(1, meterRegistry.get("puzzle.solver.solve")
+                .tag("outcome", "budget_exceeded")
+                .tag("reason", "search_nodes")
+                .timer().count());
+        assertEquals(0, meterRegistry.get("puzzle.solver.solve").tag("outcome", "solved").timer().count());
+        assertEquals(1000, meterRegistry.get("puzzle.solver.search.nodes").summary().totalAmount());
+        assertEquals(0, meterRegistry.get("puzzle.solver.words").summary().count());
+    }
+
+    @Test
+    public void puzzleWithManyRepeatedLetters_shouldBeClassifiedQuickly() {
+        // Repeating a handful of letters forms many overlapping words that block each other,
+        // which made the previous recursive classification take minutes on boards like this
+        final Random random = new Random(0);
+        final String letters = "aerst";
+        final List<Puzzle.Cube> cubes = PuzzleGenerator.generatePyramidPuzzleCubes(3).stream()
+                .map(cube -> new Puzzle.Cube(cube.getId(), cube.getX(), cube.getY(), cube.getZ(),
+                        letters.charAt(random.nextInt(letters.length())),
+                        letters.charAt(random.nextInt(letters.length())),
+                        letters.charAt(random.nextInt(letters.length()))))
+                .toList();
+        final Puzzle puzzle = Puzzle.of(cubes);
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final PuzzleSolver budgetedSolver = new PuzzleSolver(
+                false, 0, new SolveBudget(1_000_000_000, 100_000_000, Duration.ofMinutes(5)), meterRegistry);
+
+        final List<PuzzleSolver.PuzzleSolution> solutions = budgetedSolver.solve(puzzle);
+
+        // Classification is timed on its own and is not bounded by the solve budget
+        final Timer classificationTimer = meterRegistry.get("puzzle.solver.classification").timer();
+        assertFalse(solutions.isEmpty());
+        assertEquals(1, classificationTimer.count());
+        assertTrue(classificationTimer.totalTime(TimeUnit.SECONDS) < 1);
+    }
+
+    private static void assertBudgetExceeded(SolveOutcome.Reason expectedReason, SolveOutcome outcome) {
+        assertEquals(expectedReason, assertInstanceOf(SolveOutcome.BudgetExceeded.class, outcome).reason());
+    }
 }
@@ -0,0 +1,145 @@
+package com.lexicubes.backend.puzzle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PuzzleStateServiceTest {
+
+    private final PuzzleSolver puzzleSolver = new PuzzleSolver();
+
+    private final PuzzleStateService puzzleStateService = new PuzzleStateService(new PuzzleSolutionsService(puzzleSolver, null));
+
+    @Test
+    public void noRemovedCubes_shouldMatchFullSolution() {
+        final Puzzle puzzle = Puzzle.of(PuzzleGenerator.generatePyramidPuzzleCubes(2));
+
+        final List<PuzzleSolver.PuzzleSolution> solutions =
+                puzzleStateService.getStateGraph(puzzle).getSolutionsAfterRemovingCubes(List.of());
+
+        assertEquals(Set.copyOf(puzzleSolver.solve(puzzle)), Set.copyOf(solutions));
+    }
+
+    @Test
+    public void removingCubeInOnlyPath_shouldRemoveSolution() {
+        final Puzzle puzzle = Puzzle.of(List.of(
+                new Puzzle.Cube(0, 0, 0, 0, 'e', 'x', 'x'),
+                new Puzzle.Cube(1, 0, 0, 1, 'u', 's', 'q'),
+                new Puzzle.Cube(2, 1, 0, 0, 'e', 'z', 'e')
+        ));
+
+        final List<PuzzleSolver.PuzzleSolution> solutions =
+                puzzleStateService.getStateGraph(puzzle).getSolutionsAfterRemovingCubes(List.of(2));
+
+        assertTrue(solutions.stream().noneMatch(sol -> sol.word().equals("squeeze")));
+    }
+
+    @Test
+    public void removingCubeInOnePath_shouldKeepOtherPaths() {
+        final Puzzle.Cube cube0 = new Puzzle.Cube(0, 0, 0, 0, 'l', 'x', 'a');
+        final Puzzle.Cube cube1 = new Puzzle.Cube(1, 0, 0, 1, 'p', 'x', 'y');
+        final Puzzle.Cube cube2 = new Puzzle.Cube(2, 0, 0, 2, 'l', 'x', 'a');
+        final Puzzle puzzle = Puzzle.of(List.of(cube0, cube1, cube2));
+
+        final PuzzleSolver.PuzzleSolution playSolution = puzzleStateService.getStateGraph(puzzle)
+                .getSolutionsAfterRemovingCubes(List.of(2)).stream()
+                .filter(sol -> sol.word().equals("play")).findFirst().orElse(null);
+        assertNotNull(playSolution);
+
+        final Set<Puzzle.Cube.Face> expectedFaces = Set.of(
+                cube0.getTopFace(),
+                cube0.getRightFace(),
+                cube1.getTopFace(),
+                cube1.getRightFace());
+
+        assertEquals(expectedFaces, playSolution.faces());
+        assertTrue(playSolution.paths().stream().flatMap(List::stream).allMatch(expectedFaces::contains));
+    }
+
+    @Test
+    public void removingCubeUsedByBonusWord_shouldMakeBlockedWordRequired() {
+        final Puzzle puzzle = Puzzle.of(List.of(
+                new Puzzle.Cube(0, 0, 0, 0, 'e', 'k', 'k'),
+                new Puzzle.Cube(1, 0, 0, 1, 'x', 'b', 'a'),
+                new Puzzle.Cube(2, 1, 0, 0, 'x', 'a', 'r')
+        ));
+
+        final Map<String, PuzzleSolver.PuzzleSolution> solutions = puzzleStateService.getStateGraph(puzzle)
+                .getSolutionsAfterRemovingCubes(List.of(1)).stream()
+                .collect(Collectors.toMap(PuzzleSolver.PuzzleSolution::word, sol -> sol));
+
+        assertFalse(solutions.containsKey("bake"));
+        assertTrue(solutions.containsKey("rake"));
+        assertFalse(solutions.get("rake").isBonus());
+    }
+
+    @Test
+    public void solutionsFromEqualCopyOfPuzzle_shouldBeUsable() {
+        final List<Puzzle.Cube> cubes = PuzzleGenerator.generatePyramidPuzzleCubes(2);
+        final Puzzle puzzle = Puzzle.of(cubes);
+        final Puzzle puzzleCopy = Puzzle.of(cubes.stream()
+                .map(cube -> new Puzzle.Cube(cube.getId(), cube.getX(), cube.getY(), cube.getZ(),
+                        cube.getTopFace().getLetter(),
+                        cube.getLeftFace().getLetter(),
+                        cube.getRightFace().getLetter()))
+                .toList());
+
+        for (int face = 0; face < puzzle.getFaceCount(); face++) {
+            assertEquals(face, puzzleCopy.getFaceIndex(puzzle.getFace(face)));
+        }
+    }
+
+    @Test
+    public void removingRandomCubes_shouldMatchSolvingRemainingCubes() {
+        final Random random = new Random(0);
+
+        for (int i = 0; i < 10; i++) {
+            final List<Puzzle.Cube> cubes = PuzzleGenerator.generatePyramidPuzzleCubes(2);
+            final Puzzle puzzle = Puzzle.of(cubes);
+            final PuzzleStateGraph stateGraph = puzzleStateService.getStateGraph(puzzle);
+
+            for (int j = 0; j < 5; j++) {
+                final List<Integer> removedCubeIds = new ArrayList<>();
+                final List<Puzzle.Cube> remainingCubes = new ArrayList<>();
+                for (final Puzzle.Cube cube : cubes) {
+                    if (random.nextInt(4) == 0) {
+                        removedCubeIds.add(cube.getId());
+                    } else {
+                        remainingCubes.add(new Puzzle.Cube(cube.getId(), cube.getX(), cube.getY(), cube.getZ(),
+                                cube.getTopFace().getLetter(),
+                                cube.getLeftFace().getLetter(),
+                                cube.getRightFace().getLetter()));
+                    }
+                }
+
+                assertEquals(
+                        describeSolutions(puzzleSolver.solve(Puzzle.of(remainingCubes))),
+                        describeSolutions(stateGraph.getSolutionsAfterRemovingCubes(removedCubeIds)),
+                        "Removed cubes " + removedCubeIds);
+            }
+        }
+    }
+
+    @Test
+    public void unknownRemovedCubeId_shouldThrowIllegalArgumentException() {
+        final Puzzle puzzle = Puzzle.of(List.of(new Puzzle.Cube(0, 0, 0, 0, 'a', 'b', 'c')));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> puzzleStateService.getStateGraph(puzzle).getSolutionsAfterRemovingCubes(List.of(1)));
+    }
+
+    /**
+     * Describes each solution by its word, whether it is a bonus word, and the face IDs of its paths.
+     */
+    private static Map<String, String> describeSolutions(List<PuzzleSolver.PuzzleSolution> solutions) {
+        return solutions.stream().collect(Collectors.toMap(
+                PuzzleSolver.PuzzleSolution::word,
+                sol -> sol.isBonus() + " " + sol.paths().stream()
+                        .map(path -> path.stream().map(Puzzle.Cube.Face::getId).toList().toString())
+                        .sorted()
+                        .toList()));
+    }
+}
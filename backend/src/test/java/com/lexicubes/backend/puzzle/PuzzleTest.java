@@ -35,8 +35,7 @@ public class PuzzleTest {
 
     @Test
     public void singleCubePuzzle_faceShouldHaveEveryOtherFaceAsNeighbour() {
-        final Puzzle.Cube cube = new Puzzle.Cube(0, 0, 0, 0, 'a', 'b', 'c');
-        Puzzle.of(List.of(cube));
+        final Puzzle.Cube cube = Puzzle.of(List.of(new Puzzle.Cube(0, 0, 0, 0, 'a', 'b', 'c'))).getCubes().getFirst();
 
         assertEquals(Set.of(cube.getLeftFace(), cube.getRightFace()), cube.getTopFace().getNeighbours());
         assertEquals(Set.of(cube.getTopFace(), cube.getRightFace()), cube.getLeftFace().getNeighbours());
@@ -169,6 +168,25 @@ public class PuzzleTest {
         assertEquals(neighbours, innerCube.getRightFace().getNeighbours());
     }
 
+    @Test
+    public void threeByThreePuzzle_faceIndicesShouldRoundTrip() {
+        for (int faceIndex = 0; faceIndex < threeByThreePuzzle.getFaceCount(); faceIndex++) {
+            assertEquals(faceIndex, threeByThreePuzzle.getFaceIndex(threeByThreePuzzle.getFace(faceIndex)));
+        }
+        assertEquals(threeByThreePuzzle.getCubes().size() * 3, threeByThreePuzzle.getFaceCount());
+    }
+
+    @Test
+    public void threeByThreePuzzle_faceNeighboursShouldBeSymmetric() {
+        for (int faceIndex = 0; faceIndex < threeByThreePuzzle.getFaceCount(); faceIndex++) {
+            final Puzzle.Cube.Face face = threeByThreePuzzle.getFace(faceIndex);
+            assertFalse(face.getNeighbours().contains(face));
+            for (final Puzzle.Cube.Face neighbour : face.getNeighbours()) {
+                assertTrue(neighbour.getNeighbours().contains(face));
+            }
+        }
+    }
+
     @Test
     public void puzzleWithDuplicateCubeIds_shouldThrowIllegalArgumentException() {
         assertThrows(IllegalArgumentException.class, () -> Puzzle.of(List.of(
@@ -189,6 +207,28 @@ public class PuzzleTest {
         )));
     }
 
+    @Test
+    public void puzzlesOfSameCubes_shouldEachKeepTheirOwnNeighbours() {
+        final List<Puzzle.Cube> cubes = List.of(
+                new Puzzle.Cube(0, 0, 0, 0, 'a', 'b', 'c'),
+                new Puzzle.Cube(1, 1, 0, 0, 'd', 'e', 'f'));
+        final Puzzle firstPuzzle = Puzzle.of(cubes);
+        final Puzzle secondPuzzle = Puzzle.of(List.of(cubes.getFirst()));
+
+        assertEquals(Set.of(), cubes.getFirst().getTopFace().getNeighbours());
+        assertTrue(firstPuzzle.getCubes().getFirst().getTopFace().getNeighbours().contains(cubes.getLast().getTopFace()));
+        assertEquals(2, secondPuzzle.getCubes().getFirst().getTopFace().getNeighbours().size());
+        assertEquals(0, firstPuzzle.getFaceIndex(secondPuzzle.getCubes().getFirst().getTopFace()));
+    }
+
+    @Test
+    public void puzzleWithCubesOfAnotherPuzzle_shouldThrowIllegalArgumentException() {
+        final Puzzle puzzle = Puzzle.of(List.of(new Puzzle.Cube(0, 0, 0, 0, 'a', 'b', 'c')));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                new Puzzle(null, puzzle.getPublishedDate(), false, null, new Puzzle.Cubes(puzzle.getCubes())));
+    }
+
     @Test
     public void threeByThreePuzzle_allFaceIdsShouldBeUnique() {
         final List<Integer> faceIds = threeByThreePuzzle.getCubes().stream()
@@ -0,0 +1,43 @@
+package com.lexicubes.backend.puzzle;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SerializedPuzzleResponseTest {
+
+    @Test
+    public void gzippedJson_shouldDecompressToJson() throws IOException {
+        final byte[] json = "{\"id\":1,\"solutions\":[]}".getBytes(StandardCharsets.UTF_8);
+
+        final SerializedPuzzleResponse response = SerializedPuzzleResponse.of(json);
+
+        try (final InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.gzippedJson()))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void equalJson_shouldHaveEqualETags() {
+        final SerializedPuzzleResponse response = SerializedPuzzleResponse.of("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        final SerializedPuzzleResponse otherResponse = SerializedPuzzleResponse.of("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(response.eTag(), otherResponse.eTag());
+        assertEquals(response.gzippedETag(), otherResponse.gzippedETag());
+    }
+
+    @Test
+    public void differentJson_shouldHaveDifferentETags() {
+        final SerializedPuzzleResponse response = SerializedPuzzleResponse.of("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        final SerializedPuzzleResponse otherResponse = SerializedPuzzleResponse.of("{\"id\":2}".getBytes(StandardCharsets.UTF_8));
+
+        assertNotEquals(response.eTag(), otherResponse.eTag());
+        assertNotEquals(response.eTag(), response.gzippedETag());
+    }
+}
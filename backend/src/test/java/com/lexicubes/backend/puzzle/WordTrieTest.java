@@ -0,0 +1,105 @@
+package com.lexicubes.backend.puzzle;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WordTrieTest {
+
+    private final WordTrie wordTrie = WordTrie.of(List.of("a", "an", "and", "ant", "bee", "zebra"));
+
+    @Test
+    public void insertedWords_shouldBeContainedInTrie() {
+        assertTrue(wordTrie.contains("a"));
+        assertTrue(wordTrie.contains("an"));
+        assertTrue(wordTrie.contains("and"));
+        assertTrue(wordTrie.contains("ant"));
+        assertTrue(wordTrie.contains("bee"));
+        assertTrue(wordTrie.contains("zebra"));
+        assertEquals(6, wordTrie.getWordCount());
+    }
+
+    @Test
+    public void prefixesOfInsertedWords_shouldNotBeContainedInTrie() {
+        assertFalse(wordTrie.contains(""));
+        assertFalse(wordTrie.contains("be"));
+        assertFalse(wordTrie.contains("zeb"));
+        assertFalse(wordTrie.contains("ants"));
+    }
+
+    @Test
+    public void walkingTrieLetterByLetter_shouldFollowInsertedWords() {
+        final int a = wordTrie.getChild(wordTrie.getRoot(), 'a');
+        final int an = wordTrie.getChild(a, 'n');
+        final int ant = wordTrie.getChild(an, 't');
+        final int z = wordTrie.getChild(wordTrie.getRoot(), 'z');
+
+        assertTrue(wordTrie.isEnd(a));
+        assertTrue(wordTrie.isEnd(an));
+        assertTrue(wordTrie.isEnd(ant));
+        assertFalse(wordTrie.isEnd(z));
+        assertEquals(WordTrie.NO_NODE, wordTrie.getChild(ant, 's'));
+        assertEquals(WordTrie.NO_NODE, wordTrie.getChild(wordTrie.getRoot(), 'c'));
+    }
+
+    @Test
+    public void invalidCharacters_shouldHaveNoChild() {
+        assertEquals(WordTrie.NO_NODE, wordTrie.getChild(wordTrie.getRoot(), 'A'));
+        assertEquals(WordTrie.NO_NODE, wordTrie.getChild(wordTrie.getRoot(), '-'));
+    }
+
+    @Test
+    public void stringWithInvalidCharacters_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> WordTrie.of(List.of("hello", "World")));
+    }
+
+    @Test
+    public void wordsSharingSuffixes_shouldShareNodes() {
+        final WordTrie suffixTrie = WordTrie.of(List.of("baking", "caking", "making", "taking"));
+
+        // root, one node per first letter (b/c/m/t all lead to the same node), then "aking"
+        assertEquals(7, suffixTrie.getNodeCount());
+        assertTrue(suffixTrie.contains("making"));
+        assertFalse(suffixTrie.contains("raking"));
+    }
+
+    @Test
+    public void compiledTrie_shouldBeReadableAfterWritingToFile() throws IOException {
+        final Path file = Files.createTempFile("dictionary", ".dawg");
+        try {
+            wordTrie.write(file);
+
+            final WordTrie mappedTrie = WordTrie.map(file);
+            final WordTrie readTrie;
+            try (final InputStream inputStream = Files.newInputStream(file)) {
+                readTrie = WordTrie.read(inputStream);
+            }
+
+            for (final WordTrie trie : List.of(mappedTrie, readTrie)) {
+                assertTrue(trie.contains("ant"));
+                assertTrue(trie.contains("zebra"));
+                assertFalse(trie.contains("zebras"));
+                assertEquals(wordTrie.getWordCount(), trie.getWordCount());
+                assertEquals(wordTrie.getNodeCount(), trie.getNodeCount());
+                assertEquals(wordTrie.getVersion(), trie.getVersion());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void triesBuiltFromSameWords_shouldHaveSameVersion() {
+        final WordTrie sameWords = WordTrie.of(List.of("a", "an", "and", "ant", "bee", "zebra"));
+        final WordTrie otherWords = WordTrie.of(List.of("a", "an", "and", "ant", "bee", "zebras"));
+
+        assertEquals(wordTrie.getVersion(), sameWords.getVersion());
+        assertNotEquals(wordTrie.getVersion(), otherWords.getVersion());
+    }
+}
@@ -0,0 +1,59 @@
+package com.lexicubes.backend.puzzle.converters;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lexicubes.backend.puzzle.Puzzle;
+import com.lexicubes.backend.puzzle.PuzzleGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PuzzleCubesJsonModuleTest {
+
+    private final ObjectMapper annotationMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final ObjectMapper streamingMapper = new ObjectMapper().registerModule(new PuzzleCubesJsonModule());
+
+    private final Puzzle.Cubes cubes = new Puzzle.Cubes(PuzzleGenerator.generatePyramidPuzzleCubes(3));
+
+    @Test
+    public void cubesWrittenByAnnotationMapping_shouldBeReadByStreamingDeserializer() throws JsonProcessingException {
+        final Puzzle.Cubes deserializedCubes = streamingMapper.readValue(
+                annotationMapper.writeValueAsString(cubes),
+                Puzzle.Cubes.class);
+
+        assertEquals(cubes, deserializedCubes);
+        for (final Puzzle.Cube cube : deserializedCubes.list()) {
+            assertSame(cube, cube.getTopFace().getCube());
+            assertSame(cube, cube.getLeftFace().getCube());
+            assertSame(cube, cube.getRightFace().getCube());
+        }
+    }
+
+    @Test
+    public void cubesWrittenByStreamingSerializer_shouldMatchAnnotationMapping() throws JsonProcessingException {
+        final String json = streamingMapper.writeValueAsString(cubes);
+
+        assertEquals(annotationMapper.readTree(annotationMapper.writeValueAsString(cubes)), annotationMapper.readTree(json));
+        assertEquals(cubes, annotationMapper.readValue(json, Puzzle.Cubes.class));
+    }
+
+    @Test
+    public void faceIdNotMatchingCube_shouldThrowJsonProcessingException() {
+        final String json = """
+                {"list":[{"id":0,"x":0,"y":0,"z":0,
+                          "topFace":{"id":5,"letter":"a","side":"TOP","cube":0},
+                          "leftFace":{"id":1,"letter":"b","side":"LEFT","cube":0},
+                          "rightFace":{"id":2,"letter":"c","side":"RIGHT","cube":0}}]}
+                """;
+
+        assertThrows(JsonProcessingException.class, () -> streamingMapper.readValue(json, Puzzle.Cubes.class));
+    }
+
+    @Test
+    public void emptyCubeList_shouldBeReadAsNoCubes() throws JsonProcessingException {
+        assertEquals(new Puzzle.Cubes(List.of()), streamingMapper.readValue("{\"list\":[]}", Puzzle.Cubes.class));
+    }
+}
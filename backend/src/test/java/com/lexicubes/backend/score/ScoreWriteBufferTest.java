@@ -0,0 +1,460 @@
+package com.lexicubes.backend.score;
+
+import com.lexicubes.backend.leaderboard.LeaderboardCursor;
+import com.lexicubes.backend.leaderboard.LeaderboardPageRequest;
+import com.lexicubes.backend.leaderboard.RankedLeaderboard;
+import com.lexicubes.backend.leaderboard.RankedLeaderboardService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoreWriteBufferTest {
+
+    private static final int MAX_SCORES_PER_STATEMENT = 500;
+
+    /**
+     * A transaction manager whose transactions collect the statements written within them, which
+     * become committed once their transaction commits.
+     */
+    private static final class FakeTransactionManager extends AbstractPlatformTransactionManager {
+
+        private static final class Transaction {
+            private @Nullable List<Object[]> statements;
+        }
+
+        private final ThreadLocal<List<Object[]>> currentStatements = new ThreadLocal<>();
+
+        private final List<Object[]> committedStatements = new CopyOnWriteArrayList<>();
+
+        private volatile int failingCommitCount;
+
+        private void write(Object[] statement) {
+            final List<Object[]> statements = currentStatements.get();
+            (statements != null ? statements : committedStatements).add(statement);
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            final Transaction transaction = new Transaction();
+            transaction.statements = currentStatements.get();
+            return transaction;
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return ((Transaction) transaction).statements != null;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            ((Transaction) transaction).statements = new ArrayList<>();
+            currentStatements.set(((Transaction) transaction).statements);
+        }
+
+        @Override
+        protected Object doSuspend(Object transaction) {
+            ((Transaction) transaction).statements = null;
+            final List<Object[]> suspendedStatements = currentStatements.get();
+            currentStatements.remove();
+            return suspendedStatements;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void doResume(@Nullable Object transaction, Object suspendedResources) {
+            currentStatements.set((List<Object[]>) suspendedResources);
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            if (failingCommitCount > 0) {
+                failingCommitCount--;
+                throw new TransactionSystemException("Commit failed");
+            }
+            committedStatements.addAll(((Transaction) status.getTransaction()).statements);
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {}
+
+        @Override
+        protected void doSetRollbackOnly(DefaultTransactionStatus status) {}
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            currentStatements.remove();
+        }
+    }
+
+    private static final class FakeJdbcTemplate extends JdbcTemplate {
+
+        private final FakeTransactionManager transactionManager;
+
+        private volatile int updatesUntilFailure = Integer.MAX_VALUE;
+
+        /**
+         * A puzzle that does not exist, so that any statement writing a score for it violates the
+         * foreign key on the puzzle.
+         */
+        private volatile @Nullable Long missingPuzzleId;
+
+        private volatile Runnable beforeUpdate = () -> {};
+
+        private FakeJdbcTemplate(FakeTransactionManager transactionManager) {
+            this.transactionManager = transactionManager;
+        }
+
+        @Override
+        public int update(String sql, @Nullable Object... args) {
+            beforeUpdate.run();
+            if (--updatesUntilFailure == 0) {
+                updatesUntilFailure = Integer.MAX_VALUE;
+                throw new DataAccessResourceFailureException("Connection lost");
+            }
+            for (int i = 0; i < args.length; i += 5) {
+                if (args[i].equals(missingPuzzleId)) {
+                    throw new DataIntegrityViolationException("Cannot add or update a child row");
+                }
+            }
+            transactionManager.write(args);
+            return args.length / 5;
+        }
+    }
+
+    /**
+     * Runs tasks only when asked to, so that tests control when requested flushes happen.
+     */
+    private static final class ManualExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> tasks = new CopyOnWriteArrayList<>();
+
+        private volatile boolean isShutdown;
+
+        private void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.removeFirst().run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+            isShutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            isShutdown = true;
+            return List.copyOf(tasks);
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return isShutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return isShutdown && tasks.isEmpty();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return isTerminated();
+        }
+    }
+
+    private FakeTransactionManager transactionManager;
+
+    private FakeJdbcTemplate jdbcTemplate;
+
+    private CacheManager cacheManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ManualExecutor flushExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        transactionManager = new FakeTransactionManager();
+        jdbcTemplate = new FakeJdbcTemplate(transactionManager);
+        cacheManager = new ConcurrentMapCacheManager("leaderboards");
+        meterRegistry = new SimpleMeterRegistry();
+        flushExecutor = new ManualExecutor();
+    }
+
+    private ScoreWriteBuffer createBuffer(int flushSize, int capacity) {
+        return new ScoreWriteBuffer(
+                jdbcTemplate,
+                transactionManager,
+                new RankedLeaderboardService(null, cacheManager),
+                flushSize,
+                capacity,
+                meterRegistry,
+                flushExecutor);
+    }
+
+    private static ScoreWriteBuffer.PendingScore score(long puzzleId, long userId, int numPoints) {
+        return new ScoreWriteBuffer.PendingScore(puzzleId, userId, numPoints, 0, 0);
+    }
+
+    /**
+     * {@return the scores written by each committed statement}
+     */
+    private List<List<ScoreWriteBuffer.PendingScore>> getCommittedStatements() {
+        return transactionManager.committedStatements.stream()
+                .map(args -> IntStream.range(0, args.length / 5)
+                        .mapToObj(i -> new ScoreWriteBuffer.PendingScore(
+                                (Long) args[i * 5],
+                                (Long) args[i * 5 + 1],
+                                (int) args[i * 5 + 2],
+                                (int) args[i * 5 + 3],
+                                (int) args[i * 5 + 4]))
+                        .toList())
+                .toList();
+    }
+
+    @Test
+    public void offer_scoresOfSameUserForSamePuzzle_shouldKeepTheHighestOfEachCount() {
+        final ScoreWriteBuffer buffer = createBuffer(10, 10);
+
+        assertTrue(buffer.offer(new ScoreWriteBuffer.PendingScore(1L, 2L, 50, 3, 7)));
+        assertTrue(buffer.offer(new ScoreWriteBuffer.PendingScore(1L, 2L, 40, 5, 1)));
+        assertTrue(buffer.offer(new ScoreWriteBuffer.PendingScore(1L, 3L, 10, 1, 1)));
+
+        assertEquals(new ScoreWriteBuffer.PendingScore(1L, 2L, 50, 5, 7), buffer.getPendingScore(1L, 2L));
+
+        buffer.flush();
+
+        assertEquals(List.of(List.of(
+                new ScoreWriteBuffer.PendingScore(1L, 2L, 50, 5, 7),
+                new ScoreWriteBuffer.PendingScore(1L, 3L, 10, 1, 1)
+        )), getCommittedStatements());
+        assertNull(buffer.getPendingScore(1L, 2L));
+    }
+
+    @Test
+    public void offer_fullBuffer_shouldOnlyAcceptScoresThatAreAlreadyPending() {
+        final ScoreWriteBuffer buffer = createBuffer(2, 2);
+
+        assertTrue(buffer.offer(score(1, 1, 10)));
+        assertTrue(buffer.offer(score(1, 2, 10)));
+        assertFalse(buffer.offer(score(1, 3, 10)));
+        assertTrue(buffer.offer(score(1, 1, 20)));
+
+        assertNull(buffer.getPendingScore(1L, 3L));
+        assertEquals(1, meterRegistry.counter("score.write.buffer.overflows").count());
+    }
+
+    @Test
+    public void offer_bufferFilledUpToFlushSize_shouldRequestOneFlushWithoutWriting() {
+        final ScoreWriteBuffer buffer = createBuffer(2, 10);
+
+        buffer.offer(score(1, 1, 10));
+        assertEquals(0, flushExecutor.tasks.size());
+
+        buffer.offer(score(1, 2, 10));
+        buffer.offer(score(1, 3, 10));
+        assertEquals(1, flushExecutor.tasks.size());
+        assertEquals(List.of(), getCommittedStatements());
+
+        flushExecutor.runAll();
+        assertEquals(1, getCommittedStatements().size());
+        assertEquals(3, getCommittedStatements().getFirst().size());
+    }
+
+    @Test
+    public void offer_withinTransactionThatRollsBack_shouldNotLoseBufferedScores() {
+        final ScoreWriteBuffer buffer = createBuffer(2, 10);
+        final RankedLeaderboard leaderboard = new RankedLeaderboard(List.of(
+                new ScoreWithUser(1L, 1L, "user1", 5, 0, 0),
+                new ScoreWithUser(2L, 2L, "user2", 5, 0, 0)));
+        cacheManager.getCache("leaderboards").put(1L, leaderboard);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE users SET name = ?", "rolled back");
+            buffer.offer(score(1, 1, 10));
+            buffer.offer(score(1, 2, 20));
+
+            // The flusher's thread writes while the request's transaction is still open
+            final Thread flusher = new Thread(flushExecutor::runAll);
+            flusher.start();
+            assertDoesNotThrow(() -> flusher.join());
+
+            // Even a flush on the request's own thread writes in a transaction of its own
+            buffer.offer(score(2, 1, 30));
+            buffer.flush();
+
+            status.setRollbackOnly();
+        });
+
+        assertEquals(
+                List.of(List.of(score(1, 1, 10), score(1, 2, 20)), List.of(score(2, 1, 30))),
+                getCommittedStatements());
+        assertEquals(
+                List.of(2L, 1L),
+                leaderboard.getScoresAfter(LeaderboardCursor.start(LeaderboardPageRequest.SortOption.NUM_POINTS), 10)
+                        .stream()
+                        .map(ScoreWithUser::userId)
+                        .toList());
+    }
+
+    @Test
+    public void flush_failedStatement_shouldPutScoresBackForTheNextFlush() {
+        final ScoreWriteBuffer buffer = createBuffer(10, 10);
+        buffer.offer(new ScoreWriteBuffer.PendingScore(1L, 1L, 30, 1, 0));
+
+        jdbcTemplate.updatesUntilFailure = 1;
+        buffer.flush();
+
+        assertEquals(List.of(), getCommittedStatements());
+        assertEquals(new ScoreWriteBuffer.PendingScore(1L, 1L, 30, 1, 0), buffer.getPendingScore(1L, 1L));
+
+        buffer.offer(new ScoreWriteBuffer.PendingScore(1L, 1L, 20, 2, 0));
+        buffer.flush();
+
+        assertEquals(List.of(List.of(new ScoreWriteBuffer.PendingScore(1L, 1L, 30, 2, 0))), getCommittedStatements());
+        assertNull(buffer.getPendingScore(1L, 1L));
+    }
+
+    @Test
+    public void flush_failedCommit_shouldPutScoresBackForTheNextFlush() {
+        final ScoreWriteBuffer buffer = createBuffer(10, 10);
+        buffer.offer(score(1, 1, 30));
+
+        transactionManager.failingCommitCount = 1;
+        buffer.flush();
+
+        assertEquals(List.of(), getCommittedStatements());
+        assertEquals(score(1, 1, 30), buffer.getPendingScore(1L, 1L));
+
+        buffer.flush();
+
+        assertEquals(List.of(List.of(score(1, 1, 30))), getCommittedStatements());
+    }
+
+    @Test
+    public void flush_failedLaterStatement_shouldOnlyPutBackTheScoresNotYetWritten() {
+        final ScoreWriteBuffer buffer = createBuffer(MAX_SCORES_PER_STATEMENT * 2, MAX_SCORES_PER_STATEMENT * 2);
+        for (long userId = 1; userId <= MAX_SCORES_PER_STATEMENT + 1; userId++) {
+            buffer.offer(score(1, userId, 10));
+        }
+
+        jdbcTemplate.updatesUntilFailure = 2;
+        buffer.flush();
+
+        assertEquals(1, getCommittedStatements().size());
+        assertNull(buffer.getPendingScore(1L, 1L));
+        assertEquals(score(1, MAX_SCORES_PER_STATEMENT + 1, 10), buffer.getPendingScore(1L, MAX_SCORES_PER_STATEMENT + 1L));
+    }
+
+    @Test
+    public void flush_scoreRejectedByDatabase_shouldDropItAndWriteTheOthers() {
+        final ScoreWriteBuffer buffer = createBuffer(10, 10);
+        buffer.offer(score(1, 1, 10));
+        buffer.offer(score(2, 1, 20));
+        buffer.offer(score(3, 1, 30));
+
+        jdbcTemplate.missingPuzzleId = 2L;
+        buffer.flush();
+
+        assertEquals(List.of(List.of(score(1, 1, 10)), List.of(score(3, 1, 30))), getCommittedStatements());
+        assertNull(buffer.getPendingScore(2L, 1L));
+        assertEquals(1, meterRegistry.counter("score.write.buffer.dropped").count());
+
+        // The dropped score no longer holds back the scores submitted after it
+        buffer.offer(score(1, 2, 40));
+        buffer.flush();
+
+        assertEquals(List.of(score(1, 2, 40)), getCommittedStatements().getLast());
+        assertNull(buffer.getPendingScore(1L, 2L));
+    }
+
+    @Test
+    public void flush_scoreRaisedWhileBeingWritten_shouldStayPendingUntilItIsWrittenToo() {
+        final ScoreWriteBuffer buffer = createBuffer(10, 10);
+        buffer.offer(score(1, 1, 10));
+
+        final AtomicReference<ScoreWriteBuffer.PendingScore> pendingWhileWriting = new AtomicReference<>();
+        jdbcTemplate.beforeUpdate = () -> {
+            pendingWhileWriting.set(buffer.getPendingScore(1L, 1L));
+            buffer.offer(score(1, 1, 20));
+            jdbcTemplate.beforeUpdate = () -> {};
+        };
+        buffer.flush();
+
+        assertEquals(score(1, 1, 10), pendingWhileWriting.get());
+        assertEquals(List.of(List.of(score(1, 1, 10))), getCommittedStatements());
+        assertEquals(score(1, 1, 20), buffer.getPendingScore(1L, 1L));
+
+        buffer.flush();
+
+        assertEquals(List.of(score(1, 1, 20)), getCommittedStatements().getLast());
+        assertNull(buffer.getPendingScore(1L, 1L));
+    }
+
+    @Test
+    public void flush_exactlyMaxScoresPerStatement_shouldWriteThemInOneStatement() {
+        final ScoreWriteBuffer buffer = createBuffer(MAX_SCORES_PER_STATEMENT * 2, MAX_SCORES_PER_STATEMENT * 2);
+        for (long userId = 1; userId <= MAX_SCORES_PER_STATEMENT; userId++) {
+            buffer.offer(score(1, userId, 10));
+        }
+
+        buffer.flush();
+
+        assertEquals(1, getCommittedStatements().size());
+        assertEquals(MAX_SCORES_PER_STATEMENT, getCommittedStatements().getFirst().size());
+    }
+
+    @Test
+    public void flush_moreThanMaxScoresPerStatement_shouldWriteThemInKeyOrderAcrossStatements() {
+        final ScoreWriteBuffer buffer = createBuffer(MAX_SCORES_PER_STATEMENT * 3, MAX_SCORES_PER_STATEMENT * 3);
+        final int scoreCount = MAX_SCORES_PER_STATEMENT * 2 + 1;
+        for (long userId = scoreCount; userId >= 1; userId--) {
+            buffer.offer(score(userId % 2 + 1, userId, 10));
+        }
+
+        buffer.flush();
+
+        final List<List<ScoreWriteBuffer.PendingScore>> statements = getCommittedStatements();
+        assertEquals(
+                List.of(MAX_SCORES_PER_STATEMENT, MAX_SCORES_PER_STATEMENT, 1),
+                statements.stream().map(List::size).toList());
+
+        final ScoreWriteBuffer.PendingScore[] written = statements.stream()
+                .flatMap(List::stream)
+                .toArray(ScoreWriteBuffer.PendingScore[]::new);
+        final ScoreWriteBuffer.PendingScore[] sorted = written.clone();
+        Arrays.sort(sorted, (a, b) -> a.puzzleId().equals(b.puzzleId())
+                ? Long.compare(a.userId(), b.userId())
+                : Long.compare(a.puzzleId(), b.puzzleId()));
+        assertEquals(scoreCount, written.length);
+        assertArrayEquals(sorted, written);
+    }
+}
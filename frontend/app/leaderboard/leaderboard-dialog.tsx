@@ -67,7 +67,7 @@ function LeaderboardTable({ puzzleId }: { puzzleId: number }) {
   }
 
   const isLeaderboardEmpty =
-    leaderboard.pages.length === 0 || leaderboard.pages[0].totalPageCount === 0;
+    leaderboard.pages.length === 0 || leaderboard.pages[0].items.length === 0;
 
   return (
     <>
@@ -82,10 +82,10 @@ function LeaderboardTable({ puzzleId }: { puzzleId: number }) {
           </tr>
         </thead>
         <tbody>
-          {leaderboard.pages.map((page) => (
-            <React.Fragment key={page.pageNumber}>
+          {leaderboard.pages.map((page, pageIndex) => (
+            <React.Fragment key={pageIndex}>
               {page.items.map((item, index) => {
-                const position = page.pageSize * page.pageNumber + index + 1;
+                const position = page.pageSize * pageIndex + index + 1;
                 const rowColor = user?.id === item.userId ? "bg-accent-secondary/10" : "";
                 return (
                   <tr key={item.userId} className={`border-b-1 *:py-2 *:px-2 sm:*:px-3 ${rowColor}`}>
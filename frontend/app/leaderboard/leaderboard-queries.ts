@@ -8,20 +8,19 @@ interface LeaderboardEntry {
   numBonusWordsFound: number;
 }
 
-interface Page<T> {
+interface CursorPage<T> {
   items: T[];
-  pageNumber: number;
   pageSize: number;
-  totalPageCount: number;
-  firstPage: boolean;
+  nextCursor: string | null;
   lastPage: boolean;
 }
 
 async function fetchLeaderboard(
   puzzleId: number,
-  page: number = 0,
-): Promise<Page<LeaderboardEntry>> {
-  const response = await fetch(`/api/puzzles/${puzzleId}/leaderboard?page=${page}`, {
+  after: string | null = null,
+): Promise<CursorPage<LeaderboardEntry>> {
+  const query = after === null ? "" : `?after=${encodeURIComponent(after)}`;
+  const response = await fetch(`/api/puzzles/${puzzleId}/leaderboard${query}`, {
     method: "GET",
   });
 
@@ -37,9 +36,8 @@ export function useLeaderboardQuery(puzzleId: number) {
   return useInfiniteQuery({
     queryKey: ["leaderboard"],
     queryFn: ({ pageParam }) => fetchLeaderboard(puzzleId, pageParam),
-    initialPageParam: 0,
-    getPreviousPageParam: (firstPage) => (firstPage.firstPage ? null : firstPage.pageNumber - 1),
-    getNextPageParam: (lastPage) => (lastPage.lastPage ? null : lastPage.pageNumber + 1),
+    initialPageParam: null as string | null,
+    getNextPageParam: (lastPage) => lastPage.nextCursor,
     refetchOnWindowFocus: false,
   });
 }